@@ -0,0 +1,255 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedFileSystemException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+import io.quarkus.logging.Log;
+
+/**
+ * Gives read access to the entries of zip based archives (zip, jar, war, ear) and tarballs
+ * (tar, tar.gz, tgz) addressed as {@code path/to/archive.jar!/path/inside/archive}.
+ * <p>
+ * Zip archives are opened through the NIO zip {@link FileSystem} provider. Opening one means reading its central
+ * directory, so the most recently used ones are kept open and reopened only when the archive changes on disk.
+ * Tarballs have no index and are streamed with {@link TarReader} on every access.
+ */
+@ApplicationScoped
+public class ArchiveFS {
+
+    private static final String SEPARATOR = "!/";
+    private static final int OPEN_ARCHIVES = 16;
+
+    record ArchivePath(String archive, String entry) {
+
+        boolean isTar() {
+            String name = archive.toLowerCase(Locale.ROOT);
+            return name.endsWith(".tar") || name.endsWith(".tar.gz") || name.endsWith(".tgz");
+        }
+
+        String display(String entryName) {
+            return archive + SEPARATOR + entryName;
+        }
+    }
+
+    private record OpenArchive(FileSystem fileSystem, FileTime lastModified) {
+    }
+
+    private final Map<Path, OpenArchive> openArchives = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, OpenArchive> eldest) {
+            if (size() > OPEN_ARCHIVES) {
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * @return the archive and entry addressed by the path, or null if it doesn't point inside a supported archive
+     */
+    static ArchivePath parse(String path) {
+        int separator = path.indexOf(SEPARATOR);
+        String archive;
+        String entry;
+        if (separator >= 0) {
+            archive = path.substring(0, separator);
+            entry = path.substring(separator + SEPARATOR.length());
+        } else if (path.endsWith("!")) {
+            archive = path.substring(0, path.length() - 1);
+            entry = "";
+        } else {
+            return null;
+        }
+        String name = archive.toLowerCase(Locale.ROOT);
+        if (!(name.endsWith(".zip") || name.endsWith(".jar") || name.endsWith(".war") || name.endsWith(".ear")
+                || name.endsWith(".tar") || name.endsWith(".tar.gz") || name.endsWith(".tgz"))) {
+            return null;
+        }
+        return new ArchivePath(archive, TarReader.normalize(entry));
+    }
+
+    String read(Path archive, ArchivePath path) throws IOException {
+        if (path.isTar()) {
+            try (TarReader tar = openTar(archive)) {
+                for (TarReader.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                    if (!entry.directory() && entry.name().equals(path.entry())) {
+                        return new String(tar.content(), StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            throw new ToolCallException("Entry does not exist: " + path.display(path.entry()), null);
+        }
+        return withZip(archive, fs -> {
+            Path entry = fs.getPath("/" + path.entry());
+            if (!Files.isRegularFile(entry)) {
+                throw new ToolCallException("Entry does not exist: " + path.display(path.entry()), null);
+            }
+            return Files.readString(entry);
+        });
+    }
+
+    /**
+     * Lists the direct children of a directory inside the archive, mapping their name to whether they are directories.
+     */
+    Map<String, Boolean> list(Path archive, ArchivePath path) throws IOException {
+        Map<String, Boolean> children = new LinkedHashMap<>();
+        if (path.isTar()) {
+            String prefix = path.entry().isEmpty() ? "" : path.entry() + "/";
+            try (TarReader tar = openTar(archive)) {
+                for (TarReader.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                    if (!entry.name().startsWith(prefix) || entry.name().length() == prefix.length()) {
+                        continue;
+                    }
+                    String rest = entry.name().substring(prefix.length());
+                    int slash = rest.indexOf('/');
+                    // directories may only be implied by the entries they contain
+                    children.merge(slash < 0 ? rest : rest.substring(0, slash), slash >= 0 || entry.directory(),
+                            Boolean::logicalOr);
+                }
+            }
+            if (children.isEmpty() && !path.entry().isEmpty()) {
+                throw new ToolCallException("Directory does not exist: " + path.display(path.entry()), null);
+            }
+            return children;
+        }
+        return withZip(archive, fs -> {
+            Path dir = fs.getPath("/" + path.entry());
+            if (!Files.isDirectory(dir)) {
+                throw new ToolCallException("Directory does not exist: " + path.display(path.entry()), null);
+            }
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    children.put(TarReader.normalize(child.getFileName().toString()), Files.isDirectory(child));
+                }
+            }
+            return children;
+        });
+    }
+
+    /**
+     * Finds the entries below the given directory of the archive whose name contains the pattern, ignoring case.
+     */
+    List<String> search(Path archive, ArchivePath path, String pattern) throws IOException {
+        String needle = pattern.toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>();
+        if (path.isTar()) {
+            String prefix = path.entry().isEmpty() ? "" : path.entry() + "/";
+            try (TarReader tar = openTar(archive)) {
+                for (TarReader.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                    String name = entry.name();
+                    String fileName = name.substring(name.lastIndexOf('/') + 1);
+                    if (name.startsWith(prefix) && fileName.toLowerCase(Locale.ROOT).contains(needle)) {
+                        matches.add(path.display(name));
+                    }
+                }
+            }
+            return matches;
+        }
+        return withZip(archive, fs -> {
+            Path dir = fs.getPath("/" + path.entry());
+            if (!Files.isDirectory(dir)) {
+                throw new ToolCallException("Directory does not exist: " + path.display(path.entry()), null);
+            }
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) {
+                    check(d);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    check(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                private void check(Path entry) {
+                    if (entry.getFileName() != null && !entry.equals(dir)
+                            && TarReader.normalize(entry.getFileName().toString()).toLowerCase(Locale.ROOT)
+                                    .contains(needle)) {
+                        matches.add(path.display(TarReader.normalize(entry.toString())));
+                    }
+                }
+            });
+            return matches;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        synchronized (openArchives) {
+            openArchives.values().forEach(ArchiveFS::close);
+            openArchives.clear();
+        }
+    }
+
+    private interface ZipOperation<T> {
+        T apply(FileSystem fileSystem) throws IOException;
+    }
+
+    private <T> T withZip(Path archive, ZipOperation<T> operation) throws IOException {
+        try {
+            return operation.apply(zip(archive));
+        } catch (ClosedFileSystemException e) {
+            // evicted by another call in the meantime, open it again
+            return operation.apply(zip(archive));
+        }
+    }
+
+    FileSystem zip(Path archive) throws IOException {
+        Path key = archive.toRealPath();
+        FileTime lastModified = Files.getLastModifiedTime(key);
+        synchronized (openArchives) {
+            OpenArchive open = openArchives.get(key);
+            if (open != null && open.fileSystem().isOpen() && open.lastModified().equals(lastModified)) {
+                return open.fileSystem();
+            }
+            if (open != null) {
+                close(open);
+            }
+            FileSystem fileSystem = FileSystems.newFileSystem(key, (ClassLoader) null);
+            openArchives.put(key, new OpenArchive(fileSystem, lastModified));
+            return fileSystem;
+        }
+    }
+
+    private static TarReader openTar(Path archive) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(archive), 64 * 1024);
+        String name = archive.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz") || name.endsWith(".tgz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new TarReader(in);
+    }
+
+    private static void close(OpenArchive archive) {
+        try {
+            archive.fileSystem().close();
+        } catch (IOException e) {
+            Log.debug("Failed to close archive: " + e.getMessage());
+        }
+    }
+}
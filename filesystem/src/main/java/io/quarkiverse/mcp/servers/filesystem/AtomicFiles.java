@@ -0,0 +1,135 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Helpers to replace files atomically: content is written to a temporary file next to the target,
+ * which is then moved over the target in a single rename so readers never observe a half-written file.
+ * <p>
+ * The temporary file is flushed to disk before the rename and the directory afterwards,
+ * so a crash leaves either the old or the new content, never an empty or truncated file.
+ */
+final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Creates a hidden temporary file in the same directory as the target, so that the final move is a rename
+     * within the same file system. If the target exists its POSIX permissions are copied to the temporary file,
+     * otherwise it keeps the default permissions given by the umask, like any newly created file.
+     */
+    static Path createTempSibling(Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path tmp;
+        while (true) {
+            // not Files.createTempFile, which restricts the file to its owner
+            tmp = dir.resolve("." + target.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong())
+                    + ".tmp");
+            try {
+                Files.createFile(tmp);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // pick another name
+            }
+        }
+        if (Files.exists(target) && Files.getFileAttributeView(target, PosixFileAttributeView.class) != null) {
+            try {
+                Files.setPosixFilePermissions(tmp, Files.getPosixFilePermissions(target));
+            } catch (UnsupportedOperationException | IOException e) {
+                Log.debug("Could not copy permissions of " + target + ": " + e.getMessage());
+            }
+        }
+        return tmp;
+    }
+
+    /**
+     * Moves the temporary file over the target, atomically when the file system supports it.
+     */
+    static void replace(Path tmp, Path target) throws IOException {
+        sync(tmp);
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Moves the temporary file to the target, failing with {@link java.nio.file.FileAlreadyExistsException}
+     * if the target already exists.
+     * <p>
+     * A move would check that the target doesn't exist and then rename over it, overwriting a file created in between.
+     * Instead the target is created as a hard link to the temporary file, which fails atomically if it exists. On file
+     * systems without hard links the content is copied into a target created with {@code CREATE_NEW}, which still
+     * never overwrites a file but lets readers see it before it is complete.
+     */
+    static void create(Path tmp, Path target) throws IOException {
+        sync(tmp);
+        try {
+            Files.createLink(target, tmp);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Log.debug("Could not link " + target + ", copying instead: " + e.getMessage());
+            copyNew(tmp, target);
+        }
+        deleteQuietly(tmp);
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    private static void copyNew(Path tmp, Path target) throws IOException {
+        FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        boolean copied = false;
+        try (out; FileChannel in = FileChannel.open(tmp, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(true);
+            copied = true;
+        } finally {
+            if (!copied) {
+                // the target was created by this call, don't leave it incomplete
+                deleteQuietly(target);
+            }
+        }
+    }
+
+    static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private static void syncDirectory(Path dir) {
+        // not every platform allows opening a directory, in which case the rename is as durable as it gets
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            Log.debug("Could not sync directory " + dir + ": " + e.getMessage());
+        }
+    }
+
+    static void deleteQuietly(Path tmp) {
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            Log.debug("Could not delete temporary file " + tmp + ": " + e.getMessage());
+        }
+    }
+}
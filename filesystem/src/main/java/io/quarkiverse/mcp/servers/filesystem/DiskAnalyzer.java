@@ -0,0 +1,342 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Disk usage and duplicate file analysis over directory trees.
+ * <p>
+ * Trees are walked in parallel with one fork/join task per directory. Symbolic links are never followed,
+ * so the analysis stays within the allowed directories. Memory is bounded by the size of the reports
+ * (a fixed number of largest entries) and, for duplicates, by the fixed size of the {@link SharedSizes} filter
+ * plus the files sharing their size with another file, at most {@link #MAX_DUPLICATE_CANDIDATES}.
+ */
+final class DiskAnalyzer implements AutoCloseable {
+
+    private static final int PARTIAL_HASH_BYTES = 64 * 1024;
+    static final int MAX_DUPLICATE_CANDIDATES = 1_000_000;
+
+    record Entry(String path, long bytes) {
+    }
+
+    record Usage(List<String> roots, long totalBytes, long files, long directories,
+            List<Entry> largestDirectories, List<Entry> largestFiles) {
+    }
+
+    record DuplicateGroup(long size, long wastedBytes, List<String> paths) {
+    }
+
+    record Duplicates(List<String> roots, long candidates, boolean truncated, long wastedBytes,
+            List<DuplicateGroup> groups) {
+    }
+
+    interface FileVisitor {
+        void visit(Path file, long size);
+    }
+
+    private final ForkJoinPool pool = new ForkJoinPool(Math.min(16, Runtime.getRuntime().availableProcessors() * 2));
+    private final int maxCandidates;
+
+    DiskAnalyzer() {
+        this(MAX_DUPLICATE_CANDIDATES);
+    }
+
+    DiskAnalyzer(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    Usage usage(List<Path> roots, int limit) {
+        Top<Entry> largestDirectories = new Top<>(limit, Entry::bytes);
+        Top<Entry> largestFiles = new Top<>(limit, Entry::bytes);
+        AtomicLong files = new AtomicLong();
+        AtomicLong directories = new AtomicLong();
+        long total = 0;
+        for (Path root : roots) {
+            total += pool.invoke(new Walk(root, (file, size) -> {
+                files.incrementAndGet();
+                largestFiles.offer(new Entry(file.toString(), size));
+            }, (dir, size) -> {
+                directories.incrementAndGet();
+                largestDirectories.offer(new Entry(dir.toString(), size));
+            }));
+        }
+        return new Usage(names(roots), total, files.get(), directories.get(), largestDirectories.sorted(),
+                largestFiles.sorted());
+    }
+
+    Duplicates duplicates(List<Path> roots, long minSize, int limit) {
+        // stage 1: sizes that may be shared by at least two files, then the files having those sizes
+        SharedSizes sizes = new SharedSizes(SharedSizes.DEFAULT_BITS);
+        walkFiles(roots, (file, size) -> {
+            if (size >= minSize) {
+                sizes.add(size);
+            }
+        });
+        Map<Long, List<Path>> bySize = new ConcurrentHashMap<>();
+        AtomicLong candidates = new AtomicLong();
+        walkFiles(roots, (file, size) -> {
+            if (size >= minSize && sizes.mayBeShared(size) && candidates.incrementAndGet() <= maxCandidates) {
+                List<Path> group = bySize.computeIfAbsent(size, s -> new ArrayList<>());
+                synchronized (group) {
+                    group.add(file);
+                }
+            }
+        });
+
+        // stage 2: hash of the first bytes, stage 3: hash of the whole content
+        List<List<Path>> groups = bySize.values().stream().filter(group -> group.size() > 1).collect(Collectors.toList());
+        bySize.clear();
+        groups = regroup(groups, file -> hash(file, PARTIAL_HASH_BYTES));
+        groups = regroup(groups, file -> hash(file, Long.MAX_VALUE));
+
+        Top<DuplicateGroup> top = new Top<>(limit, DuplicateGroup::wastedBytes);
+        long wasted = 0;
+        for (List<Path> group : groups) {
+            long size = size(group.get(0));
+            if (size < 0) {
+                continue;
+            }
+            long groupWasted = size * (group.size() - 1);
+            wasted += groupWasted;
+            top.offer(new DuplicateGroup(size, groupWasted, names(group)));
+        }
+        return new Duplicates(names(roots), Math.min(candidates.get(), maxCandidates),
+                candidates.get() > maxCandidates, wasted, top.sorted());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private interface Hasher {
+        String hash(Path file);
+    }
+
+    /**
+     * Splits each group by the given hash in parallel, keeping only the groups that still contain duplicates.
+     */
+    private List<List<Path>> regroup(List<List<Path>> groups, Hasher hasher) {
+        return pool.submit(() -> groups.parallelStream()
+                .flatMap(group -> {
+                    Map<String, List<Path>> byHash = new HashMap<>();
+                    for (Path file : group) {
+                        String hash = hasher.hash(file);
+                        if (hash != null) {
+                            byHash.computeIfAbsent(hash, h -> new ArrayList<>()).add(file);
+                        }
+                    }
+                    return byHash.values().stream().filter(g -> g.size() > 1);
+                })
+                .collect(Collectors.toList())).join();
+    }
+
+    private void walkFiles(List<Path> roots, FileVisitor visitor) {
+        for (Path root : roots) {
+            pool.invoke(new Walk(root, visitor, (dir, size) -> {
+            }));
+        }
+    }
+
+    /**
+     * @return the hex SHA-256 of the first {@code limit} bytes of the file, or null if it can't be read
+     */
+    private static String hash(Path file, long limit) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[PARTIAL_HASH_BYTES];
+            long left = limit;
+            int read;
+            while (left > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, left))) > 0) {
+                digest.update(buffer, 0, read);
+                left -= read;
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static List<String> names(List<Path> paths) {
+        return paths.stream().map(Path::toString).collect(Collectors.toList());
+    }
+
+    /**
+     * Fixed-size filter telling which file sizes were seen at least twice, so that the memory of the first stage doesn't
+     * grow with the number of distinct sizes.
+     * <p>
+     * Each size sets {@link #HASHES} bits chosen by hashing it, in a first bit set if they are clear and in a second one
+     * if they already were. A size seen twice has all its bits set in the second bit set, so no shared size is ever
+     * missed. A size seen once may still have them set by other sizes: it is then a false candidate, dropped by the
+     * second walk as the only file of its size.
+     */
+    static final class SharedSizes {
+
+        /** 2 x 1 MiB, less than 1% of false candidates up to about two million distinct sizes. */
+        static final int DEFAULT_BITS = 1 << 23;
+        private static final int HASHES = 3;
+
+        private final AtomicLongArray once;
+        private final AtomicLongArray twice;
+        private final int mask;
+
+        /**
+         * @param bits the number of bits of each bit set, a power of 2
+         */
+        SharedSizes(int bits) {
+            once = new AtomicLongArray(Math.max(1, bits / Long.SIZE));
+            twice = new AtomicLongArray(Math.max(1, bits / Long.SIZE));
+            mask = Math.max(Long.SIZE, bits) - 1;
+        }
+
+        void add(long size) {
+            long hash = mix(size);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = bit(hash, i);
+                long word = 1L << bit;
+                if ((once.getAndAccumulate(bit >>> 6, word, (a, b) -> a | b) & word) != 0) {
+                    twice.accumulateAndGet(bit >>> 6, word, (a, b) -> a | b);
+                }
+            }
+        }
+
+        boolean mayBeShared(long size) {
+            long hash = mix(size);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = bit(hash, i);
+                if ((twice.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int bit(long hash, int i) {
+            // double hashing: the i-th bit is h1 + i * h2
+            return (int) ((hash >>> 32) + i * (hash | 1)) & mask;
+        }
+
+        private static long mix(long value) {
+            long hash = value * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 31;
+            hash *= 0xBF58476D1CE4E5B9L;
+            return hash ^ (hash >>> 29);
+        }
+    }
+
+    /**
+     * Lists a directory, visits its files and forks a task per subdirectory, returning the size of the whole subtree.
+     */
+    private static final class Walk extends RecursiveTask<Long> {
+
+        private final Path dir;
+        private final FileVisitor files;
+        private final FileVisitor directories;
+
+        Walk(Path dir, FileVisitor files, FileVisitor directories) {
+            this.dir = dir;
+            this.files = files;
+            this.directories = directories;
+        }
+
+        @Override
+        protected Long compute() {
+            long total = 0;
+            List<Walk> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (attrs.isDirectory()) {
+                        Walk walk = new Walk(entry, files, directories);
+                        walk.fork();
+                        subdirectories.add(walk);
+                    } else if (attrs.isRegularFile()) {
+                        files.visit(entry, attrs.size());
+                        total += attrs.size();
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // unreadable directories are skipped
+            }
+            for (Walk walk : subdirectories) {
+                total += walk.join();
+            }
+            directories.visit(dir, total);
+            return total;
+        }
+    }
+
+    /**
+     * Keeps the largest values offered to it.
+     */
+    private static final class Top<T> {
+
+        private final int limit;
+        private final ToLongFunction<T> weight;
+        private final PriorityQueue<T> queue;
+        private volatile long smallest = Long.MIN_VALUE;
+
+        Top(int limit, ToLongFunction<T> weight) {
+            this.limit = limit;
+            this.weight = weight;
+            this.queue = new PriorityQueue<>(Comparator.comparingLong(weight));
+        }
+
+        void offer(T value) {
+            // cheap unsynchronized check, most files of a large tree are smaller than the current top entries
+            if (weight.applyAsLong(value) <= smallest) {
+                return;
+            }
+            synchronized (this) {
+                queue.offer(value);
+                if (queue.size() > limit) {
+                    queue.poll();
+                    smallest = weight.applyAsLong(queue.peek());
+                }
+            }
+        }
+
+        synchronized List<T> sorted() {
+            List<T> sorted = new ArrayList<>(queue);
+            sorted.sort(Comparator.comparingLong(weight).reversed());
+            return sorted;
+        }
+    }
+}
@@ -17,9 +17,24 @@ public class FSUtil {
 
     private List<String> allowedPaths;
 
+    /** Allowed directories as configured, normalized. */
+    private final PathTrie allowedRoots = new PathTrie();
+
+    /** Allowed directories as configured and with their symlinks resolved, to validate real paths against. */
+    private final PathTrie allowedRealRoots = new PathTrie();
+
     public FSUtil(@ConfigProperty(name = "fileserver.paths") List<String> allowedPaths) {
         this.allowedPaths = allowedPaths.stream().map(FSUtil::expandHome).collect(Collectors.toList());
-
+        for (String allowedPath : this.allowedPaths) {
+            Path normalized = Path.of(allowedPath).normalize();
+            allowedRoots.add(normalized);
+            allowedRealRoots.add(normalized);
+            try {
+                allowedRealRoots.add(normalized.toRealPath());
+            } catch (IOException e) {
+                Log.debug("Could not resolve the real path of allowed directory " + allowedPath + ": " + e.getMessage());
+            }
+        }
     }
 
     public static String expandHome(String filepath) {
@@ -35,8 +50,8 @@ public class FSUtil {
         path = expandHome(path);
 
         Path resolvedPath = Path.of(path).normalize();
-        Log.info("Resolved path: " + resolvedPath);
-        if (!allowedPaths.stream().anyMatch(allowedPath -> resolvedPath.startsWith(Path.of(allowedPath).normalize()))) {
+        Log.debug("Resolved path: " + resolvedPath);
+        if (!allowedRoots.containsPrefixOf(resolvedPath)) {
             throw new ToolCallException("Access denied: Path '" + path + "' is not within allowed directories", null);
         }
         return resolvedPath;
@@ -52,11 +67,7 @@ public class FSUtil {
         Path normalizedRequested = absolute.normalize();
 
         // Check if path is within allowed directories
-        boolean isAllowed = allowedPaths.stream()
-                .map(dir -> Path.of(dir).normalize())
-                .anyMatch(dir -> normalizedRequested.startsWith(dir));
-
-        if (!isAllowed) {
+        if (!allowedRoots.containsPrefixOf(normalizedRequested)) {
             throw new ToolCallException(
                     String.format("Access denied - path outside allowed directories: %s not in %s",
                             absolute, String.join(", ", allowedPaths)),
@@ -65,14 +76,8 @@ public class FSUtil {
 
         try {
             // Handle symlinks by checking their real path
-            Path realPath = absolute.toRealPath();
-            Path normalizedReal = realPath.normalize();
-
-            boolean isRealPathAllowed = allowedPaths.stream()
-                    .map(dir -> Path.of(dir).normalize())
-                    .anyMatch(dir -> normalizedReal.startsWith(dir));
-
-            if (!isRealPathAllowed) {
+            Path realPath = realPath(absolute);
+            if (!allowedRealRoots.containsPrefixOf(realPath)) {
                 throw new ToolCallException("Access denied - symlink target outside allowed directories", null);
             }
             return realPath;
@@ -81,14 +86,8 @@ public class FSUtil {
             // For new files that don't exist yet, verify parent directory
             Path parentDir = absolute.getParent();
             try {
-                Path realParentPath = parentDir.toRealPath();
-                Path normalizedParent = realParentPath.normalize();
-
-                boolean isParentAllowed = allowedPaths.stream()
-                        .map(dir -> Path.of(dir).normalize())
-                        .anyMatch(dir -> normalizedParent.startsWith(dir));
-
-                if (!isParentAllowed) {
+                Path realParentPath = realPath(parentDir);
+                if (!allowedRealRoots.containsPrefixOf(realParentPath)) {
                     throw new ToolCallException("Access denied - parent directory outside allowed directories",
                             null);
                 }
@@ -100,6 +99,38 @@ public class FSUtil {
         }
     }
 
+    /**
+     * Validates the path like {@link #validatePath(String)}, but only resolves the symlinks of its parent
+     * directories, so that an operation on a symlink applies to the link itself rather than to its target.
+     */
+    Path validateNoFollow(String requestedPath) throws IOException {
+        Path realPath = validatePath(requestedPath);
+        Path absolute = absolute(requestedPath);
+        Path parentDir = absolute.getParent();
+        if (parentDir == null) {
+            return realPath;
+        }
+        Path realParentPath = realPath(parentDir);
+        if (!allowedRealRoots.containsPrefixOf(realParentPath)) {
+            throw new ToolCallException("Access denied - parent directory outside allowed directories", null);
+        }
+        return realParentPath.resolve(absolute.getFileName().toString());
+    }
+
+    private static Path absolute(String requestedPath) {
+        String expandedPath = expandHome(requestedPath);
+        return (Path.of(expandedPath).isAbsolute() ? Path.of(expandedPath)
+                : Path.of(System.getProperty("user.dir")).resolve(expandedPath)).normalize();
+    }
+
+    /**
+     * Resolves the symlinks of the path on every call, never from a cache: a path that was checked before may have
+     * been replaced by a symlink pointing outside of the allowed directories since.
+     */
+    private static Path realPath(Path path) throws IOException {
+        return path.toRealPath().normalize();
+    }
+
     public List<String> getAllowedPaths() {
         return allowedPaths;
     }
@@ -0,0 +1,455 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Extracts an outline of the symbols declared in a source or configuration file, with their line ranges.
+ * <p>
+ * Files are scanned line by line with lightweight, format specific scanners rather than full parsers:
+ * Java types and their members, Markdown headings, top-level YAML and JSON keys and properties keys.
+ * Outlines are cached by path and last modified time.
+ */
+@ApplicationScoped
+public class FileOutline {
+
+    private static final int CACHE_SIZE = 256;
+
+    record Symbol(int depth, String kind, String name, int startLine, int endLine) {
+    }
+
+    private record Cached(FileTime lastModified, long size, List<Symbol> symbols) {
+    }
+
+    private final Map<Path, Cached> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Cached> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    List<Symbol> outline(Path file) throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        long size = Files.size(file);
+        synchronized (cache) {
+            Cached cached = cache.get(file);
+            if (cached != null && cached.lastModified().equals(lastModified) && cached.size() == size) {
+                return cached.symbols();
+            }
+        }
+        List<Symbol> symbols;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            symbols = scanner(file).scan(reader);
+        }
+        synchronized (cache) {
+            cache.put(file, new Cached(lastModified, size, symbols));
+        }
+        return symbols;
+    }
+
+    static String format(List<Symbol> symbols) {
+        StringBuilder outline = new StringBuilder();
+        for (Symbol symbol : symbols) {
+            outline.append("  ".repeat(symbol.depth())).append(symbol.kind()).append(' ').append(symbol.name())
+                    .append(" (").append(symbol.startLine());
+            if (symbol.endLine() != symbol.startLine()) {
+                outline.append('-').append(symbol.endLine());
+            }
+            outline.append(")\n");
+        }
+        return outline.toString();
+    }
+
+    private interface Scanner {
+        List<Symbol> scan(BufferedReader reader) throws IOException;
+    }
+
+    private static Scanner scanner(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".java")) {
+            return FileOutline::java;
+        }
+        if (name.endsWith(".md") || name.endsWith(".markdown")) {
+            return FileOutline::markdown;
+        }
+        if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+            return FileOutline::yaml;
+        }
+        if (name.endsWith(".json")) {
+            return FileOutline::json;
+        }
+        if (name.endsWith(".properties")) {
+            return FileOutline::properties;
+        }
+        throw new ToolCallException("Unsupported file type for outline: " + file.getFileName()
+                + " (supported: .java, .md, .yaml, .yml, .json, .properties)", null);
+    }
+
+    private static final Pattern JAVA_TYPE = Pattern
+            .compile("(?:^|\\s)(class|interface|enum|record|@interface)\\s+([\\w$]+)");
+    private static final Pattern JAVA_ANNOTATION = Pattern.compile("@[\\w.$]+(\\s*\\([^()]*\\))?");
+    private static final Pattern JAVA_METHOD_NAME = Pattern.compile("([\\w$]+)\\s*\\($");
+    private static final Pattern JAVA_FIELD_NAME = Pattern.compile("([\\w$]+)\\s*(?:\\[\\s*])*\\s*$");
+
+    /**
+     * Types at any level of nesting and the methods and fields of those types. Comments and the contents
+     * of string and character literals are ignored, brace depth tells declarations from code.
+     */
+    private static List<Symbol> java(BufferedReader reader) throws IOException {
+        record Frame(Symbol symbol, boolean type, int index) {
+        }
+        List<Symbol> symbols = new ArrayList<>();
+        ArrayDeque<Frame> frames = new ArrayDeque<>();
+        StringBuilder pending = new StringBuilder();
+        int pendingLine = 0;
+        boolean blockComment = false;
+        boolean textBlock = false;
+        int parentheses = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int length = line.length();
+            for (int i = 0; i < length; i++) {
+                char c = line.charAt(i);
+                if (blockComment) {
+                    if (c == '*' && i + 1 < length && line.charAt(i + 1) == '/') {
+                        blockComment = false;
+                        i++;
+                    }
+                    continue;
+                }
+                if (textBlock) {
+                    if (line.startsWith("\"\"\"", i)) {
+                        textBlock = false;
+                        i += 2;
+                    }
+                    continue;
+                }
+                if (c == '/' && i + 1 < length && line.charAt(i + 1) == '/') {
+                    break;
+                }
+                if (c == '/' && i + 1 < length && line.charAt(i + 1) == '*') {
+                    blockComment = true;
+                    i++;
+                    continue;
+                }
+                if (c == '"' && line.startsWith("\"\"\"", i)) {
+                    textBlock = true;
+                    pending.append("\"\"");
+                    i += 2;
+                    continue;
+                }
+                if (c == '"' || c == '\'') {
+                    // skip the literal, keeping empty quotes so the declaration still reads naturally
+                    int end = i + 1;
+                    while (end < length && line.charAt(end) != c) {
+                        end += line.charAt(end) == '\\' ? 2 : 1;
+                    }
+                    pending.append(c).append(c);
+                    i = end;
+                    continue;
+                }
+                if (c == '(' || c == ')') {
+                    parentheses += c == '(' ? 1 : -1;
+                }
+                boolean inType = frames.isEmpty() || frames.peek().type();
+                if (parentheses > 0) {
+                    // braces and semicolons in annotation values and lambda arguments are not declarations
+                    pending.append(c);
+                } else if (c == '{') {
+                    Symbol symbol = inType ? declaration(pending.toString(), frames.size(), pendingLine, true) : null;
+                    boolean type = symbol != null && !symbol.kind().equals("method") && !symbol.kind().equals("field");
+                    if (symbol != null) {
+                        symbols.add(symbol);
+                    }
+                    frames.push(new Frame(symbol, type, symbol == null ? -1 : symbols.size() - 1));
+                    pending.setLength(0);
+                } else if (c == '}') {
+                    Frame frame = frames.poll();
+                    if (frame != null && frame.symbol() != null) {
+                        Symbol s = frame.symbol();
+                        symbols.set(frame.index(), new Symbol(s.depth(), s.kind(), s.name(), s.startLine(), lineNumber));
+                    }
+                    pending.setLength(0);
+                } else if (c == ';') {
+                    if (inType) {
+                        Symbol symbol = declaration(pending.toString(), frames.size(), pendingLine, false);
+                        if (symbol != null) {
+                            symbols.add(new Symbol(symbol.depth(), symbol.kind(), symbol.name(), symbol.startLine(),
+                                    lineNumber));
+                        }
+                    }
+                    pending.setLength(0);
+                } else {
+                    if (pending.isEmpty()) {
+                        if (Character.isWhitespace(c)) {
+                            continue;
+                        }
+                        pendingLine = lineNumber;
+                    }
+                    pending.append(c);
+                }
+            }
+            if (!pending.isEmpty()) {
+                pending.append(' ');
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * Classifies the code preceding a '{' or ';' found directly in a type body (or at the top of the file).
+     */
+    private static Symbol declaration(String code, int depth, int line, boolean block) {
+        String declaration = JAVA_ANNOTATION.matcher(code).replaceAll(" ").trim();
+        if (declaration.isEmpty() || declaration.startsWith("package ") || declaration.startsWith("import ")) {
+            return null;
+        }
+        Matcher type = JAVA_TYPE.matcher(declaration);
+        int paren = declaration.indexOf('(');
+        int assignment = declaration.indexOf('=');
+        if (type.find() && (paren < 0 || type.start() < paren) && (assignment < 0 || type.start() < assignment)) {
+            return new Symbol(depth, type.group(1), type.group(2), line, line);
+        }
+        if (depth == 0) {
+            return null;
+        }
+        if (paren >= 0 && (assignment < 0 || paren < assignment)) {
+            Matcher name = JAVA_METHOD_NAME.matcher(declaration.substring(0, paren + 1));
+            return name.find() ? new Symbol(depth, "method", name.group(1), line, line) : null;
+        }
+        String beforeValue = assignment >= 0 ? declaration.substring(0, assignment) : declaration;
+        if (!block || assignment >= 0) {
+            // enum constants and initializer blocks have no type before their name
+            if ((beforeValue.trim().indexOf(' ') < 0 || beforeValue.contains(",")) && !beforeValue.contains("<")) {
+                return null;
+            }
+            Matcher name = JAVA_FIELD_NAME.matcher(beforeValue);
+            return name.find() ? new Symbol(depth, "field", name.group(1), line, line) : null;
+        }
+        return null;
+    }
+
+    private static final Pattern MARKDOWN_HEADING = Pattern.compile("^ {0,3}(#{1,6})\\s+(.*?)\\s*#*\\s*$");
+
+    /**
+     * ATX and setext headings outside of fenced code blocks, each spanning until the next heading of the same or a higher
+     * level.
+     */
+    private static List<Symbol> markdown(BufferedReader reader) throws IOException {
+        List<Symbol> symbols = new ArrayList<>();
+        ArrayDeque<Integer> open = new ArrayDeque<>();
+        String fence = null;
+        String previous = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (fence != null) {
+                if (trimmed.startsWith(fence)) {
+                    fence = null;
+                }
+                previous = null;
+                continue;
+            }
+            if (trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+                fence = trimmed.substring(0, 3);
+                previous = null;
+                continue;
+            }
+            int level = 0;
+            String title = null;
+            int start = lineNumber;
+            Matcher heading = MARKDOWN_HEADING.matcher(line);
+            if (heading.matches()) {
+                level = heading.group(1).length();
+                title = heading.group(2);
+            } else if (previous != null && !previous.isBlank() && !trimmed.isEmpty()
+                    && (trimmed.chars().allMatch(ch -> ch == '=') || trimmed.chars().allMatch(ch -> ch == '-'))
+                    && !previous.trim().startsWith("-")) {
+                level = trimmed.charAt(0) == '=' ? 1 : 2;
+                title = previous.trim();
+                start = lineNumber - 1;
+            }
+            if (title != null) {
+                closeHeadings(symbols, open, level, start - 1);
+                symbols.add(new Symbol(level - 1, "h" + level, title, start, start));
+                open.push(symbols.size() - 1);
+                previous = null;
+            } else {
+                previous = line;
+            }
+        }
+        closeHeadings(symbols, open, 1, lineNumber);
+        return symbols;
+    }
+
+    private static void closeHeadings(List<Symbol> symbols, ArrayDeque<Integer> open, int level, int endLine) {
+        while (!open.isEmpty() && symbols.get(open.peek()).depth() + 1 >= level) {
+            int index = open.pop();
+            Symbol s = symbols.get(index);
+            symbols.set(index, new Symbol(s.depth(), s.kind(), s.name(), s.startLine(),
+                    Math.max(s.startLine(), endLine)));
+        }
+    }
+
+    private static final Pattern YAML_KEY = Pattern.compile("^(\"[^\"]*\"|'[^']*'|[^\\s#'\"-][^:#]*?)\\s*:(\\s|$)");
+
+    /**
+     * Top-level keys of every YAML document, each spanning until the next top-level key.
+     */
+    private static List<Symbol> yaml(BufferedReader reader) throws IOException {
+        List<Symbol> symbols = new ArrayList<>();
+        int lastContent = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            Matcher key = YAML_KEY.matcher(line);
+            boolean separator = line.startsWith("---") || line.startsWith("...");
+            if (key.find() || separator) {
+                end(symbols, lastContent);
+                if (!separator) {
+                    symbols.add(new Symbol(0, "key", key.group(1), lineNumber, lineNumber));
+                }
+            }
+            if (!separator) {
+                // a document separator doesn't belong to the last key of the previous document
+                lastContent = lineNumber;
+            }
+        }
+        end(symbols, lastContent);
+        return symbols;
+    }
+
+    /**
+     * Keys of the top-level object, each spanning until its value ends.
+     */
+    private static List<Symbol> json(BufferedReader reader) throws IOException {
+        List<Symbol> symbols = new ArrayList<>();
+        int depth = 0;
+        int lineNumber = 1;
+        boolean inString = false;
+        StringBuilder string = new StringBuilder();
+        String lastString = null;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                lineNumber++;
+            }
+            if (inString) {
+                if (c == '\\') {
+                    int escaped = reader.read();
+                    if (depth == 1) {
+                        string.append((char) escaped);
+                    }
+                } else if (c == '"') {
+                    inString = false;
+                    lastString = string.toString();
+                } else if (depth == 1) {
+                    string.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    string.setLength(0);
+                }
+                case ':' -> {
+                    if (depth == 1 && lastString != null) {
+                        symbols.add(new Symbol(0, "key", lastString, lineNumber, lineNumber));
+                    }
+                }
+                case '{', '[' -> depth++;
+                case '}', ']' -> {
+                    depth--;
+                    if (depth <= 1) {
+                        // the end of a value, or of the top-level object for its last key
+                        end(symbols, lineNumber);
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        end(symbols, lineNumber);
+                    }
+                }
+                default -> {
+                    if (!Character.isWhitespace(c)) {
+                        lastString = null;
+                    }
+                }
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * Every key with the lines of its value, including continuation lines.
+     */
+    private static List<Symbol> properties(BufferedReader reader) throws IOException {
+        List<Symbol> symbols = new ArrayList<>();
+        boolean continuation = false;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.stripLeading();
+            boolean continued = continues(trimmed);
+            if (continuation) {
+                end(symbols, lineNumber);
+            } else if (!trimmed.isEmpty() && trimmed.charAt(0) != '#' && trimmed.charAt(0) != '!') {
+                int end = 0;
+                while (end < trimmed.length() && "=: \t".indexOf(trimmed.charAt(end)) < 0) {
+                    end += trimmed.charAt(end) == '\\' ? 2 : 1;
+                }
+                symbols.add(new Symbol(0, "key", trimmed.substring(0, Math.min(end, trimmed.length())), lineNumber,
+                        lineNumber));
+            }
+            continuation = continued && (continuation || !symbols.isEmpty());
+        }
+        return symbols;
+    }
+
+    private static boolean continues(String line) {
+        int backslashes = 0;
+        for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    /**
+     * Extends the last symbol up to the given line.
+     */
+    private static void end(List<Symbol> symbols, int endLine) {
+        if (symbols.isEmpty()) {
+            return;
+        }
+        Symbol last = symbols.get(symbols.size() - 1);
+        if (endLine > last.endLine()) {
+            symbols.set(symbols.size() - 1,
+                    new Symbol(last.depth(), last.kind(), last.name(), last.startLine(), endLine));
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.quarkiverse.mcp.server.McpLog;
+
+/**
+ * Copies and moves files and directory trees.
+ * <p>
+ * Moves within the same file store are links or renames. Anything else is copied file by file with
+ * {@link FileChannel#transferTo}, which lets the kernel copy the data without going through the heap,
+ * using a small pool of threads shared by all the transfers so several files are in flight at once.
+ * Progress is reported through the {@link McpLog} of the calling tool at most once per second.
+ * <p>
+ * Symbolic links are never followed: a link is copied or moved as a link. Existing targets are never
+ * overwritten, and a copy that fails removes whatever it already created at the target.
+ */
+final class FileTransfers {
+
+    private static final int PARALLELISM = 4;
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    /** The pool is only created by the first copy, renames don't need it. */
+    private static final class Pool {
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "mcp-fs-transfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final McpLog log;
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong lastReport = new AtomicLong(System.nanoTime());
+
+    FileTransfers(McpLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Starts copying a file or directory tree. Directories are created by the caller thread,
+     * file contents are copied in the background. Every entry is created so that it fails if the target
+     * already exists, nothing is ever overwritten. If anything fails, what this copy created is deleted
+     * once the copies already started are done.
+     */
+    CompletableFuture<Void> copy(Path source, Path target) {
+        List<CompletableFuture<Void>> copies = new ArrayList<>();
+        // what this copy created, parents before their children
+        Deque<Path> created = new ConcurrentLinkedDeque<>();
+        IOException walkFailure = null;
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Path destination = resolve(source, dir, target);
+                    Files.createDirectory(destination);
+                    created.addLast(destination);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Path destination = resolve(source, file, target);
+                    if (attrs.isRegularFile()) {
+                        copies.add(CompletableFuture.runAsync(() -> copyFile(file, destination, attrs, created),
+                                Pool.EXECUTOR));
+                    } else {
+                        // symbolic links are copied as links, never followed outside of the allowed directories
+                        Files.copy(file, destination, LinkOption.NOFOLLOW_LINKS);
+                        created.addLast(destination);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            walkFailure = e;
+        }
+        IOException failure = walkFailure;
+        return CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new)).handle((ignored, e) -> {
+            if (failure == null && e == null) {
+                return null;
+            }
+            rollback(created);
+            throw e instanceof CompletionException completion ? completion
+                    : new CompletionException(failure != null ? failure : e);
+        });
+    }
+
+    /**
+     * Moves the file or directory without ever replacing an existing target: files are hard linked to the target
+     * and directories renamed over an empty directory created first, both failing atomically if the target exists,
+     * then the source is removed. On another file store the tree is copied and the source deleted once the copy
+     * completed.
+     */
+    CompletableFuture<Void> move(Path source, Path target) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attrs.isDirectory() ? renameDirectory(source, target) : link(source, target, attrs)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.info("Moving %s to %s across file systems", source, target);
+        return copy(source, target).thenRun(() -> deleteTree(source));
+    }
+
+    /**
+     * @return false if the file can't be linked and must be copied, e.g. on another file store
+     */
+    private static boolean link(Path source, Path target, BasicFileAttributes attrs) throws IOException {
+        try {
+            if (attrs.isSymbolicLink()) {
+                Files.createSymbolicLink(target, Files.readSymbolicLink(source));
+            } else {
+                Files.createLink(target, source);
+            }
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | ProviderMismatchException | FileSystemException e) {
+            return false;
+        }
+        try {
+            Files.delete(source);
+        } catch (IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Renaming a directory over an empty one replaces it atomically, so the target is first created empty, which
+     * fails if it exists.
+     *
+     * @return false if the directory must be copied, on another file store
+     */
+    private static boolean renameDirectory(Path source, Path target) throws IOException {
+        Files.createDirectory(target);
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (AtomicMoveNotSupportedException e) {
+            // the copy creates it again
+            Files.delete(target);
+            return false;
+        } catch (DirectoryNotEmptyException e) {
+            // someone else wrote to the target in between, it's theirs now
+            throw new FileAlreadyExistsException(target.toString());
+        } catch (IOException e) {
+            deleteIfEmpty(target);
+            throw e;
+        }
+    }
+
+    long files() {
+        return files.get();
+    }
+
+    long bytes() {
+        return bytes.get();
+    }
+
+    private void copyFile(Path source, Path target, BasicFileAttributes attrs, Deque<Path> created) {
+        try {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                    FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                created.addLast(target);
+                long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+                bytes.addAndGet(size);
+            }
+            // once closed: some file systems, e.g. zip, only create the entry then
+            Files.setLastModifiedTime(target, attrs.lastModifiedTime());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        files.incrementAndGet();
+        reportProgress();
+    }
+
+    private void reportProgress() {
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        if (now - last >= REPORT_INTERVAL && lastReport.compareAndSet(last, now)) {
+            log.info("Transferred %d files (%d bytes)", files.get(), bytes.get());
+        }
+    }
+
+    private static Path resolve(Path source, Path path, Path target) {
+        // resolve by name so that source and target may belong to different file system providers
+        return target.resolve(source.relativize(path).toString());
+    }
+
+    /**
+     * Deletes what a failed copy created, children first. Anything else found there, e.g. a file someone else
+     * added to a directory created by the copy, is kept, as is its directory.
+     */
+    private void rollback(Deque<Path> created) {
+        for (Iterator<Path> it = created.descendingIterator(); it.hasNext();) {
+            Path path = it.next();
+            try {
+                Files.deleteIfExists(path);
+            } catch (DirectoryNotEmptyException e) {
+                log.error("Could not delete %s of the incomplete copy, it is not empty", path);
+            } catch (IOException e) {
+                log.error("Could not delete %s of the incomplete copy: %s", path, e.getMessage());
+            }
+        }
+    }
+
+    private static void deleteIfEmpty(Path dir) {
+        try {
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            // not empty or not deletable, leave it
+        }
+    }
+
+    private static void deleteTree(Path root) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
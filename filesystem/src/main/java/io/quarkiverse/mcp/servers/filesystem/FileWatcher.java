@@ -0,0 +1,335 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.mcp.server.McpConnection;
+import io.quarkiverse.mcp.server.McpLog;
+import io.quarkiverse.mcp.server.ToolCallException;
+import io.quarkus.logging.Log;
+
+/**
+ * Watches directories within the allowed paths and pushes batches of changes to the MCP clients that asked for them.
+ * <p>
+ * A single {@link WatchService} and thread serve every watch. Events are coalesced per path (e.g. a file created then
+ * modified is reported once as created) and a batch is only sent once no event arrived for {@link #DEBOUNCE}, or at the
+ * latest after {@link #MAX_DELAY}, so a build writing thousands of files results in a handful of notifications.
+ * <p>
+ * Batches are sent as log notifications through the {@link McpLog} of the {@code watch_path} call and kept, up to a limit,
+ * for clients that prefer to fetch them with {@code get_path_changes}. A watch lasts until {@code unwatch_path} or until
+ * the MCP connection that created it is closed.
+ */
+@ApplicationScoped
+public class FileWatcher {
+
+    private static final long DEBOUNCE = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MAX_DELAY = TimeUnit.SECONDS.toNanos(5);
+    private static final int MAX_DIRECTORIES = 10_000;
+    private static final int MAX_PENDING_CHANGES = 1_000;
+    private static final int MAX_UNREAD_BATCHES = 100;
+
+    record Change(String path, String type) {
+    }
+
+    record Batch(String watchId, String path, List<Change> changes, int dropped) {
+    }
+
+    private static final class Watch {
+        final String id;
+        final Path root;
+        final boolean recursive;
+        final McpLog log;
+        final McpConnection connection;
+        final Map<Path, String> pending = new LinkedHashMap<>();
+        final ArrayDeque<Batch> unread = new ArrayDeque<>();
+        int dropped;
+        long firstEvent;
+        long lastEvent;
+
+        Watch(String id, Path root, boolean recursive, McpLog log, McpConnection connection) {
+            this.id = id;
+            this.root = root;
+            this.recursive = recursive;
+            this.log = log;
+            this.connection = connection;
+        }
+
+        boolean covers(Path dir) {
+            return recursive ? dir.startsWith(root) : dir.equals(root);
+        }
+    }
+
+    @Inject
+    ObjectMapper mapper;
+
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> keys = new HashMap<>();
+    private WatchService watchService;
+
+    /**
+     * Starts watching the given directory, creating the watch service on first use.
+     *
+     * @return the id of the watch
+     */
+    synchronized String watch(Path root, boolean recursive, McpLog log, McpConnection connection) {
+        if (!Files.isDirectory(root)) {
+            throw new ToolCallException("Path is not a directory: " + root, null);
+        }
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread thread = new Thread(this::run, "mcp-fs-watcher");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            Watch watch = new Watch(UUID.randomUUID().toString(), root, recursive, log, connection);
+            List<Path> added = new ArrayList<>();
+            try {
+                register(root, recursive, added);
+            } catch (IOException | RuntimeException e) {
+                // don't leave the directories registered so far behind, no watch would ever release them
+                added.forEach(dir -> keys.remove(dir).cancel());
+                throw e;
+            }
+            watches.put(watch.id, watch);
+            return watch.id;
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to watch " + root + ": " + e.getMessage(), e);
+        }
+    }
+
+    synchronized boolean unwatch(String id) {
+        Watch removed = watches.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        keys.entrySet().removeIf(entry -> {
+            if (watches.values().stream().noneMatch(watch -> watch.covers(entry.getKey()))) {
+                entry.getValue().cancel();
+                return true;
+            }
+            return false;
+        });
+        return true;
+    }
+
+    /**
+     * Returns and forgets the batches of the given watch that were already sent as notifications,
+     * plus whatever is still pending.
+     */
+    List<Batch> drain(String id) {
+        Watch watch = watches.get(id);
+        if (watch == null) {
+            throw new ToolCallException("Unknown watch: " + id, null);
+        }
+        synchronized (watch) {
+            if (!watch.pending.isEmpty()) {
+                watch.unread.addLast(batch(watch));
+            }
+            List<Batch> batches = new ArrayList<>(watch.unread);
+            watch.unread.clear();
+            return batches;
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                Log.debug("Failed to close watch service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param added the directories registered by this call, to roll them back if it fails
+     */
+    private void register(Path root, boolean recursive, List<Path> added) throws IOException {
+        if (!recursive) {
+            registerDirectory(root, added);
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                registerDirectory(dir, added);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void registerDirectory(Path dir, List<Path> added) throws IOException {
+        if (keys.containsKey(dir)) {
+            return;
+        }
+        if (keys.size() >= MAX_DIRECTORIES) {
+            throw new ToolCallException("Too many directories to watch (more than " + MAX_DIRECTORIES
+                    + "), please watch a narrower path", null);
+        }
+        keys.put(dir, dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+        added.add(dir);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(DEBOUNCE / 2, TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    process(key);
+                }
+                flush(System.nanoTime());
+                releaseClosed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private void process(WatchKey key) {
+        Path dir = (Path) key.watchable();
+        long now = System.nanoTime();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                record(dir, dir, "overflow", now);
+                continue;
+            }
+            Path changed = dir.resolve((Path) event.context());
+            String type = event.kind() == ENTRY_CREATE ? "created" : event.kind() == ENTRY_DELETE ? "deleted" : "modified";
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(changed)) {
+                registerCreated(changed);
+            }
+            record(dir, changed, type, now);
+        }
+        if (!key.reset()) {
+            synchronized (this) {
+                keys.remove(dir);
+            }
+        }
+    }
+
+    private synchronized void registerCreated(Path dir) {
+        if (watches.values().stream().anyMatch(watch -> watch.recursive && dir.startsWith(watch.root))) {
+            try {
+                register(dir, true, new ArrayList<>());
+            } catch (IOException | ToolCallException e) {
+                Log.debug("Failed to watch new directory " + dir + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void releaseClosed() {
+        for (Watch watch : watches.values()) {
+            if (watch.connection.status() == McpConnection.Status.CLOSED && unwatch(watch.id)) {
+                Log.debug("Stopped watch " + watch.id + " of " + watch.root + ", its connection is closed");
+            }
+        }
+    }
+
+    private void record(Path dir, Path changed, String type, long now) {
+        for (Watch watch : watches.values()) {
+            if (!watch.covers(dir)) {
+                continue;
+            }
+            synchronized (watch) {
+                if (watch.pending.isEmpty()) {
+                    watch.firstEvent = now;
+                }
+                watch.lastEvent = now;
+                String merged = merge(watch.pending.get(changed), type);
+                if (merged == null) {
+                    watch.pending.remove(changed);
+                } else if (watch.pending.size() < MAX_PENDING_CHANGES || watch.pending.containsKey(changed)) {
+                    watch.pending.put(changed, merged);
+                } else {
+                    watch.dropped++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Coalesces two successive changes of the same path, null meaning nothing changed in the end.
+     */
+    private static String merge(String previous, String next) {
+        if (previous == null) {
+            return next;
+        }
+        if (previous.equals("created")) {
+            return next.equals("deleted") ? null : "created";
+        }
+        if (previous.equals("deleted") && next.equals("created")) {
+            return "modified";
+        }
+        return next;
+    }
+
+    private void flush(long now) {
+        for (Watch watch : watches.values()) {
+            Batch batch;
+            synchronized (watch) {
+                if ((watch.pending.isEmpty() && watch.dropped == 0)
+                        || (now - watch.lastEvent < DEBOUNCE && now - watch.firstEvent < MAX_DELAY)) {
+                    continue;
+                }
+                batch = batch(watch);
+                watch.unread.addLast(batch);
+                if (watch.unread.size() > MAX_UNREAD_BATCHES) {
+                    watch.unread.removeFirst();
+                }
+            }
+            try {
+                watch.log.info("%s", mapper.writeValueAsString(batch));
+            } catch (JsonProcessingException | RuntimeException e) {
+                Log.debug("Failed to notify changes for watch " + watch.id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Batch batch(Watch watch) {
+        List<Change> changes = new ArrayList<>(watch.pending.size());
+        watch.pending.forEach((path, type) -> changes.add(new Change(path.toString(), type)));
+        Batch batch = new Batch(watch.id, watch.root.toString(), changes, watch.dropped);
+        watch.pending.clear();
+        watch.dropped = 0;
+        return batch;
+    }
+}
@@ -0,0 +1,165 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Applies line-based edits to a stream of text in a single pass.
+ * <p>
+ * Only a window as large as the longest {@code oldText} is kept in memory; every other line is copied straight
+ * from the reader to the writer. Each edit replaces the first occurrence of its lines, and once every edit has been
+ * applied the rest of the input is copied in bulk.
+ */
+final class LineEditor {
+
+    record Edit(List<String> oldLines, List<String> newLines) {
+
+        static Edit of(Map<String, String> edit) {
+            String oldText = edit.get("oldText");
+            if (oldText == null || oldText.isEmpty()) {
+                throw new ToolCallException("Each edit must provide a non-empty 'oldText'", null);
+            }
+            String newText = edit.getOrDefault("newText", "");
+            return new Edit(lines(oldText), newText == null ? List.of() : lines(newText));
+        }
+
+        private static List<String> lines(String text) {
+            if (text.isEmpty()) {
+                return List.of();
+            }
+            List<String> lines = new ArrayList<>(Arrays.asList(text.split("\r\n|\r|\n", -1)));
+            if (lines.size() > 1 && lines.get(lines.size() - 1).isEmpty()) {
+                // a trailing newline terminates the last line, it doesn't start a new one
+                lines.remove(lines.size() - 1);
+            }
+            return lines;
+        }
+    }
+
+    private final List<Edit> edits;
+    private final int window;
+
+    LineEditor(List<Edit> edits) {
+        this.edits = edits;
+        this.window = edits.stream().mapToInt(e -> e.oldLines().size()).max().orElse(0);
+    }
+
+    /**
+     * Streams {@code in} to {@code out} applying the edits.
+     *
+     * @param out where to write the edited content, or null to only compute the diff (dry run)
+     * @param diff receives every unchanged and replaced line
+     * @throws ToolCallException if any of the edits does not match the input
+     */
+    void apply(Reader in, Writer out, UnifiedDiff diff) throws IOException {
+        LineReader reader = new LineReader(in);
+        ArrayDeque<LineReader.Line> pending = new ArrayDeque<>();
+        boolean[] applied = new boolean[edits.size()];
+        int remaining = edits.size();
+        int trailingContext = 0;
+        // the line separator of the file, used between new lines replacing a last line without one
+        String separator = "\n";
+        while (true) {
+            while (pending.size() < window) {
+                LineReader.Line line = reader.next();
+                if (line == null) {
+                    break;
+                }
+                pending.addLast(line);
+            }
+            if (pending.isEmpty()) {
+                break;
+            }
+            int match = remaining == 0 ? -1 : findMatch(pending, applied);
+            if (match < 0) {
+                LineReader.Line line = pending.pollFirst();
+                write(out, line.text(), line.eol());
+                diff.unchanged(line.text());
+                if (!line.eol().isEmpty()) {
+                    separator = line.eol();
+                }
+                if (remaining == 0 && ++trailingContext >= UnifiedDiff.CONTEXT) {
+                    break;
+                }
+                continue;
+            }
+            applied[match] = true;
+            remaining--;
+            separator = replace(pending, edits.get(match), separator, out, diff);
+        }
+        if (remaining > 0) {
+            for (int i = 0; i < edits.size(); i++) {
+                if (!applied[i]) {
+                    throw new ToolCallException("Could not find exact match for edit:\n"
+                            + String.join("\n", edits.get(i).oldLines()), null);
+                }
+            }
+        }
+        // every edit has been applied, the diff has its trailing context: copy the rest as is
+        for (LineReader.Line line : pending) {
+            write(out, line.text(), line.eol());
+        }
+        if (out != null) {
+            reader.transferTo(out);
+        }
+    }
+
+    private int findMatch(ArrayDeque<LineReader.Line> pending, boolean[] applied) {
+        for (int i = 0; i < edits.size(); i++) {
+            if (!applied[i] && startsWith(pending, edits.get(i).oldLines())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(ArrayDeque<LineReader.Line> pending, List<String> lines) {
+        if (pending.size() < lines.size()) {
+            return false;
+        }
+        Iterator<LineReader.Line> it = pending.iterator();
+        for (String line : lines) {
+            if (!it.next().text().equals(line)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the line separator of the removed lines, or {@code separator} if the only one has none
+     */
+    private static String replace(ArrayDeque<LineReader.Line> pending, Edit edit, String separator, Writer out,
+            UnifiedDiff diff) throws IOException {
+        String lastEol = "\n";
+        for (int i = 0; i < edit.oldLines().size(); i++) {
+            LineReader.Line removed = pending.pollFirst();
+            if (i == 0 && !removed.eol().isEmpty()) {
+                separator = removed.eol();
+            }
+            lastEol = removed.eol();
+        }
+        List<String> newLines = edit.newLines();
+        for (int i = 0; i < newLines.size(); i++) {
+            write(out, newLines.get(i), i == newLines.size() - 1 ? lastEol : separator);
+        }
+        diff.changed(edit.oldLines(), newLines);
+        return separator;
+    }
+
+    private static void write(Writer out, String text, String eol) throws IOException {
+        if (out != null) {
+            out.write(text);
+            out.write(eol);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Buffered line reader that, unlike {@link java.io.BufferedReader#readLine()}, keeps track of the line terminator
+ * of every line so files can be rewritten without altering their line endings.
+ */
+final class LineReader {
+
+    record Line(String text, String eol) {
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    LineReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next line or null when the end of the stream has been reached
+     */
+    Line next() throws IOException {
+        StringBuilder text = null;
+        while (true) {
+            if (position >= limit && !fill()) {
+                return text == null || text.isEmpty() ? null : new Line(text.toString(), "");
+            }
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '\n' || c == '\r') {
+                    String line = text == null ? new String(buffer, start, position - start)
+                            : text.append(buffer, start, position - start).toString();
+                    position++;
+                    if (c == '\r') {
+                        if (position >= limit && !fill()) {
+                            return new Line(line, "\r");
+                        }
+                        if (buffer[position] == '\n') {
+                            position++;
+                            return new Line(line, "\r\n");
+                        }
+                        return new Line(line, "\r");
+                    }
+                    return new Line(line, "\n");
+                }
+                position++;
+            }
+            if (text == null) {
+                text = new StringBuilder();
+            }
+            text.append(buffer, start, position - start);
+        }
+    }
+
+    /**
+     * Copies everything that has not been read yet to the given writer.
+     */
+    void transferTo(Writer out) throws IOException {
+        if (position < limit) {
+            out.write(buffer, position, limit - position);
+            position = limit;
+        }
+        reader.transferTo(out);
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
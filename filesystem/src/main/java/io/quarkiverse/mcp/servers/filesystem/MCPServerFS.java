@@ -3,13 +3,23 @@ package io.quarkiverse.mcp.servers.filesystem;
 import static java.nio.file.Files.exists;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 import jakarta.inject.Inject;
@@ -17,6 +27,7 @@ import jakarta.inject.Inject;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.quarkiverse.mcp.server.McpConnection;
 import io.quarkiverse.mcp.server.McpLog;
 import io.quarkiverse.mcp.server.Tool;
 import io.quarkiverse.mcp.server.ToolArg;
@@ -29,6 +40,15 @@ public class MCPServerFS {
     @Inject
     FSUtil util;
 
+    @Inject
+    FileWatcher watcher;
+
+    @Inject
+    ArchiveFS archives;
+
+    @Inject
+    FileOutline outlines;
+
     private ObjectMapper mapper;
 
     public MCPServerFS(
@@ -41,8 +61,12 @@ public class MCPServerFS {
         Log.info("Starting file server with paths: " + util.getAllowedPaths());
     }
 
-    @Tool(description = "Read the complete contents of a file from the file system. Handles various text encodings and provides detailed error messages if the file cannot be read. Use this tool when you need to examine the contents of a single file. Only works within allowed directories.")
+    @Tool(description = "Read the complete contents of a file from the file system. Handles various text encodings and provides detailed error messages if the file cannot be read. Use this tool when you need to examine the contents of a single file. Entries of zip, jar, war, ear and tar archives can be read with paths like 'lib/app.jar!/META-INF/MANIFEST.MF'. Only works within allowed directories.")
     String read_file(@ToolArg(description = "Path to the file to read") String path) {
+        ArchiveFS.ArchivePath archivePath = ArchiveFS.parse(path);
+        if (archivePath != null) {
+            return readArchiveEntry(archivePath);
+        }
         Path resolvedPath = util.validateAndResolvePath(path);
         if (!exists(resolvedPath)) {
             throw new ToolCallException("Path does not exist: " + path, null);
@@ -54,6 +78,20 @@ public class MCPServerFS {
         }
     }
 
+    @Tool(description = "Get an outline of the symbols declared in a file with their line ranges, instead of reading the whole file: types, methods and fields of Java files, headings of Markdown files, top-level keys of YAML and JSON files and keys of properties files. Use it to find what a file contains, then read only the relevant lines. Only works within allowed directories.")
+    String file_outline(@ToolArg(description = "Path to the file to outline") String path) {
+        Path resolvedPath = util.validateAndResolvePath(path);
+        if (!Files.isRegularFile(resolvedPath)) {
+            throw new ToolCallException("Path is not a file: " + path, null);
+        }
+        try {
+            String outline = FileOutline.format(outlines.outline(resolvedPath));
+            return outline.isEmpty() ? "No symbols found in " + path : outline;
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to outline file: " + e.getMessage(), e);
+        }
+    }
+
     String valueAsString(Object o) {
         try {
             return mapper.writeValueAsString(o);
@@ -69,6 +107,11 @@ public class MCPServerFS {
 
         try {
             for (String path : paths) {
+                ArchiveFS.ArchivePath archivePath = ArchiveFS.parse(path);
+                if (archivePath != null) {
+                    result.put(path, readArchiveEntry(archivePath));
+                    continue;
+                }
                 var realpath = util.validateAndResolvePath(path);
                 result.put(path, Files.readString(realpath));
             }
@@ -78,8 +121,21 @@ public class MCPServerFS {
         return valueAsString(result);
     }
 
-    @Tool(description = "Get a detailed listing of all files and directories in a specified path. Results clearly distinguish between files and directories with [FILE] and [DIR] prefixes. This tool is essential for understanding directory structure and finding specific files within a directory. Only works within allowed directories.")
+    @Tool(description = "Get a detailed listing of all files and directories in a specified path. Results clearly distinguish between files and directories with [FILE] and [DIR] prefixes. This tool is essential for understanding directory structure and finding specific files within a directory. Directories inside zip, jar, war, ear and tar archives can be listed with paths like 'lib/app.jar!/META-INF'. Only works within allowed directories.")
     String list_directory(@ToolArg(description = "Path to list contents of") String path, McpLog logger) {
+        ArchiveFS.ArchivePath archivePath = ArchiveFS.parse(path);
+        if (archivePath != null) {
+            Path archive = validateArchive(archivePath);
+            logger.info("Listing archive directory: " + path);
+            try {
+                StringBuilder listing = new StringBuilder();
+                archives.list(archive, archivePath).forEach((name, directory) -> listing
+                        .append(directory ? "[DIR]  " : "[FILE] ").append(name).append("\n"));
+                return listing.toString();
+            } catch (IOException e) {
+                throw new ToolCallException("Failed to list archive: " + e.getMessage(), e);
+            }
+        }
         Path resolvedPath = util.validateAndResolvePath(path);
         logger.info("Listing directory: " + resolvedPath);
         if (!exists(resolvedPath)) {
@@ -146,16 +202,208 @@ public class MCPServerFS {
 
     @Tool(description = "Move or rename files and directories. Can move files between directories and rename them in a single operation. If the destination exists, the operation will fail. Works across different directories and can be used for simple renaming within the same directory. Both source and destination must be within allowed directories.")
     String move_file(@ToolArg(description = "Source path") String source,
-            @ToolArg(description = "Destination path") String destination) {
-        // TODO: Implement move file logic
-        throw new ToolCallException("Not implemented yet", null);
+            @ToolArg(description = "Destination path") String destination, McpLog logger) {
+        Path sourcePath = validateSource(source);
+        Path destinationPath = validatePath(destination);
+        try {
+            new FileTransfers(logger).move(sourcePath, destinationPath).join();
+            return "Successfully moved " + source + " to " + destination;
+        } catch (CompletionException e) {
+            throw new ToolCallException("Failed to move file: " + failureMessage(e), e.getCause());
+        }
+    }
+
+    @Tool(description = "Copy multiple files and directories into a destination directory. Directories are copied recursively and several files are copied in parallel. Fails for an item if the destination already contains an entry with the same name. Returns the result for each source. Both sources and destination must be within allowed directories.")
+    String copy_files(@ToolArg(description = "List of source paths to copy") List<String> sources,
+            @ToolArg(description = "Existing directory to copy the sources into") String destination, McpLog logger) {
+        return transferAll(sources, destination, logger, "Copied", FileTransfers::copy);
+    }
+
+    @Tool(description = "Move multiple files and directories into a destination directory. Items on the same file system are renamed, others are copied in parallel and then removed from the source. Fails for an item if the destination already contains an entry with the same name. Returns the result for each source. Both sources and destination must be within allowed directories.")
+    String move_files(@ToolArg(description = "List of source paths to move") List<String> sources,
+            @ToolArg(description = "Existing directory to move the sources into") String destination, McpLog logger) {
+        return transferAll(sources, destination, logger, "Moved", FileTransfers::move);
+    }
+
+    private String transferAll(List<String> sources, String destination, McpLog logger, String verb,
+            Transfer transfer) {
+        Path destinationDir = validateExisting(destination);
+        if (!Files.isDirectory(destinationDir)) {
+            throw new ToolCallException("Destination is not a directory: " + destination, null);
+        }
+        Map<String, CompletableFuture<Path>> results = new LinkedHashMap<>();
+        FileTransfers transfers = new FileTransfers(logger);
+        for (String source : sources) {
+            CompletableFuture<Path> result;
+            try {
+                Path sourcePath = validateSource(source);
+                Path target = validatePath(destinationDir.resolve(sourcePath.getFileName().toString()).toString());
+                result = transfer.start(transfers, sourcePath, target).thenApply(ignored -> target);
+            } catch (ToolCallException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            results.put(source, result);
+        }
+        StringBuilder report = new StringBuilder();
+        results.forEach((source, result) -> {
+            try {
+                report.append(verb).append(' ').append(source).append(" -> ").append(result.join()).append('\n');
+            } catch (CompletionException e) {
+                report.append("Failed ").append(source).append(": ").append(failureMessage(e)).append('\n');
+            }
+        });
+        logger.info("Transferred %d files (%d bytes)", transfers.files(), transfers.bytes());
+        return report.toString();
+    }
+
+    private interface Transfer {
+        CompletableFuture<Void> start(FileTransfers transfers, Path source, Path target);
+    }
+
+    private static String failureMessage(CompletionException e) {
+        Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+        if (cause instanceof FileAlreadyExistsException) {
+            return "Destination already exists: " + cause.getMessage();
+        }
+        return cause.getMessage();
+    }
+
+    private Path validatePath(String path) {
+        try {
+            return util.validatePath(path);
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to resolve path: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Validates an existing file to copy or move, without following it if it is a symlink.
+     */
+    private Path validateSource(String path) {
+        Path resolvedPath;
+        try {
+            resolvedPath = util.validateNoFollow(path);
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to resolve path: " + e.getMessage(), e);
+        }
+        if (!Files.exists(resolvedPath, LinkOption.NOFOLLOW_LINKS)) {
+            throw new ToolCallException("Path does not exist: " + path, null);
+        }
+        return resolvedPath;
     }
 
-    @Tool(description = "Recursively search for files and directories matching a pattern. Searches through all subdirectories from the starting path. The search is case-insensitive and matches partial names. Returns full paths to all matching items. Great for finding files when you don't know their exact location. Only searches within allowed directories.")
+    private Path validateExisting(String path) {
+        Path resolvedPath = validatePath(path);
+        if (!Files.exists(resolvedPath, LinkOption.NOFOLLOW_LINKS)) {
+            throw new ToolCallException("Path does not exist: " + path, null);
+        }
+        return resolvedPath;
+    }
+
+    @Tool(description = "Recursively search for files and directories matching a pattern. Searches through all subdirectories from the starting path. The search is case-insensitive and matches partial names. Returns full paths to all matching items. Great for finding files when you don't know their exact location. Entries of zip, jar, war, ear and tar archives can be searched with a starting path like 'lib/app.jar!/'. Only searches within allowed directories.")
     String search_files(@ToolArg(description = "Starting path for search") String path,
             @ToolArg(description = "Pattern to search for") String pattern) {
-        // TODO: Implement file search logic
-        throw new ToolCallException("Not implemented yet", null);
+        List<String> matches;
+        ArchiveFS.ArchivePath archivePath = ArchiveFS.parse(path);
+        try {
+            if (archivePath != null) {
+                matches = archives.search(validateArchive(archivePath), archivePath, pattern);
+            } else {
+                matches = searchFiles(util.validateAndResolvePath(path), pattern);
+            }
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to search files: " + e.getMessage(), e);
+        }
+        return matches.isEmpty() ? "No matches found" : String.join("\n", matches);
+    }
+
+    private List<String> searchFiles(Path root, String pattern) throws IOException {
+        if (!exists(root)) {
+            throw new ToolCallException("Path does not exist: " + root, null);
+        }
+        String needle = pattern.toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                check(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                check(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void check(Path entry) {
+                if (!entry.equals(root) && entry.getFileName().toString().toLowerCase(Locale.ROOT).contains(needle)) {
+                    matches.add(entry.toString());
+                }
+            }
+        });
+        return matches;
+    }
+
+    private Path validateArchive(ArchiveFS.ArchivePath archivePath) {
+        Path archive = util.validateAndResolvePath(archivePath.archive());
+        if (!Files.isRegularFile(archive)) {
+            throw new ToolCallException("Archive does not exist: " + archivePath.archive(), null);
+        }
+        return archive;
+    }
+
+    private String readArchiveEntry(ArchiveFS.ArchivePath archivePath) {
+        try {
+            return archives.read(validateArchive(archivePath), archivePath);
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to read archive entry: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Analyze disk usage of a directory tree in a single parallel pass. Returns the total size, the number of files and directories, and the largest directories and files. Symbolic links are not followed. Analyzes every allowed directory when no path is given.")
+    String disk_usage(@ToolArg(description = "Root path to analyze", required = false) String path,
+            @ToolArg(description = "Number of largest directories and files to report (default 20)", required = false) Integer limit) {
+        List<Path> roots = analysisRoots(path);
+        try (DiskAnalyzer analyzer = new DiskAnalyzer()) {
+            return valueAsString(analyzer.usage(roots, limit == null || limit <= 0 ? 20 : limit));
+        }
+    }
+
+    @Tool(description = "Find duplicate files in a directory tree. Files are first grouped by size, then by a hash of their first bytes and finally by a hash of their whole content, so only likely duplicates are read entirely. Returns the groups of identical files that waste the most space. Symbolic links are not followed. Searches every allowed directory when no path is given.")
+    String find_duplicates(@ToolArg(description = "Root path to search for duplicates", required = false) String path,
+            @ToolArg(description = "Ignore files smaller than this many bytes (default 1048576)", required = false) Long minSize,
+            @ToolArg(description = "Number of duplicate groups to report (default 50)", required = false) Integer limit) {
+        List<Path> roots = analysisRoots(path);
+        try (DiskAnalyzer analyzer = new DiskAnalyzer()) {
+            return valueAsString(analyzer.duplicates(roots, minSize == null ? 1024 * 1024 : Math.max(1, minSize),
+                    limit == null || limit <= 0 ? 50 : limit));
+        }
+    }
+
+    private List<Path> analysisRoots(String path) {
+        if (path != null && !path.isBlank()) {
+            Path root = validateExisting(path);
+            if (!Files.isDirectory(root)) {
+                throw new ToolCallException("Path is not a directory: " + path, null);
+            }
+            return List.of(root);
+        }
+        List<Path> roots = new ArrayList<>();
+        for (String allowedPath : util.getAllowedPaths()) {
+            Path root = Path.of(allowedPath).toAbsolutePath().normalize();
+            // skip allowed directories nested in other ones, they would be counted twice
+            if (Files.isDirectory(root) && roots.stream().noneMatch(root::startsWith)) {
+                roots.removeIf(other -> other.startsWith(root));
+                roots.add(root);
+            }
+        }
+        return roots;
     }
 
     @Tool(description = "Retrieve detailed metadata about a file or directory. Returns comprehensive information including size, creation time, last modified time, permissions, and type. This tool is perfect for understanding file characteristics without reading the actual content. Only works within allowed directories.")
@@ -164,6 +412,28 @@ public class MCPServerFS {
         throw new ToolCallException("Not implemented yet", null);
     }
 
+    @Tool(description = "Watch a directory for changes instead of polling it. Batches of created, modified and deleted paths are pushed as log notifications once the directory has been quiet for half a second, e.g. when a build finished writing its output. Returns the id of the watch, to be used with get_path_changes and unwatch_path. The watch ends with unwatch_path or when the connection is closed. Only works within allowed directories.")
+    String watch_path(@ToolArg(description = "Directory to watch") String path,
+            @ToolArg(description = "Whether to watch subdirectories as well (default true)", required = false) Boolean recursive,
+            McpLog logger, McpConnection connection) {
+        Path resolvedPath = validateExisting(path);
+        String id = watcher.watch(resolvedPath, recursive == null || recursive, logger, connection);
+        return "Watching " + path + " with id " + id;
+    }
+
+    @Tool(description = "Get the batches of changes detected by a watch since the last call, including changes not notified yet. Useful for clients that do not display log notifications.")
+    String get_path_changes(@ToolArg(description = "Id of the watch returned by watch_path") String watchId) {
+        return valueAsString(watcher.drain(watchId));
+    }
+
+    @Tool(description = "Stop watching a directory previously watched with watch_path.")
+    String unwatch_path(@ToolArg(description = "Id of the watch returned by watch_path") String watchId) {
+        if (!watcher.unwatch(watchId)) {
+            throw new ToolCallException("Unknown watch: " + watchId, null);
+        }
+        return "Stopped watch " + watchId;
+    }
+
     @Tool(description = "Returns the list of directories that this server is allowed to access. Use this to understand which directories are available before trying to access files.")
     String list_allowed_directories() {
         return valueAsString(util.getAllowedPaths());
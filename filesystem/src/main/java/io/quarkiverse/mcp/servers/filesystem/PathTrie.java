@@ -0,0 +1,54 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set of directories indexed by their name elements, answering "is this path inside any of them"
+ * in time proportional to the depth of the path rather than the number of directories.
+ * <p>
+ * Matching follows the semantics of {@link Path#startsWith(Path)}. Instances are built once and are read-only afterwards.
+ */
+final class PathTrie {
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean terminal;
+    }
+
+    private final Node root = new Node();
+
+    void add(Path path) {
+        Node node = root.children.computeIfAbsent(rootOf(path), key -> new Node());
+        for (Path name : path) {
+            node = node.children.computeIfAbsent(name.toString(), key -> new Node());
+        }
+        node.terminal = true;
+    }
+
+    boolean containsPrefixOf(Path path) {
+        Node node = root.children.get(rootOf(path));
+        if (node == null) {
+            return false;
+        }
+        if (node.terminal) {
+            return true;
+        }
+        for (Path name : path) {
+            node = node.children.get(name.toString());
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rootOf(Path path) {
+        Path root = path.getRoot();
+        return root == null ? "" : root.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal streaming reader for tar archives (ustar, GNU long names and pax path headers).
+ * <p>
+ * Entries are read sequentially and their content is skipped unless requested, so listing or searching
+ * an archive only keeps one 512 bytes header in memory at a time.
+ */
+final class TarReader implements Closeable {
+
+    private static final int BLOCK = 512;
+
+    record Entry(String name, long size, boolean directory) {
+    }
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+    private long remaining;
+    private long padding;
+
+    TarReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the next entry or null at the end of the archive
+     */
+    Entry next() throws IOException {
+        skip(remaining + padding);
+        remaining = 0;
+        padding = 0;
+        String longName = null;
+        while (true) {
+            if (!readHeader()) {
+                return null;
+            }
+            long size = number(124, 12);
+            char type = (char) header[156];
+            if (type == 'L' || type == 'x') {
+                String content = new String(readContent(size), StandardCharsets.UTF_8);
+                longName = type == 'L' ? trimNul(content) : paxPath(content, longName);
+                continue;
+            }
+            if (type == 'g') {
+                readContent(size);
+                continue;
+            }
+            String name = longName != null ? longName : name();
+            remaining = size;
+            padding = (BLOCK - size % BLOCK) % BLOCK;
+            boolean directory = type == '5' || name.endsWith("/");
+            return new Entry(normalize(name), size, directory);
+        }
+    }
+
+    /**
+     * @return the content of the entry last returned by {@link #next()}
+     */
+    byte[] content() throws IOException {
+        if (remaining > Integer.MAX_VALUE - 8) {
+            throw new IOException("Archive entry too large: " + remaining + " bytes");
+        }
+        byte[] content = in.readNBytes((int) remaining);
+        if (content.length < remaining) {
+            throw new EOFException("Truncated tar archive");
+        }
+        remaining = 0;
+        return content;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    static String normalize(String name) {
+        String normalized = name;
+        while (normalized.startsWith("./")) {
+            normalized = normalized.substring(2);
+        }
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private boolean readHeader() throws IOException {
+        int read = in.readNBytes(header, 0, BLOCK);
+        if (read < BLOCK) {
+            return false;
+        }
+        for (byte b : header) {
+            if (b != 0) {
+                return true;
+            }
+        }
+        // an empty block marks the end of the archive
+        return false;
+    }
+
+    private byte[] readContent(long size) throws IOException {
+        remaining = size;
+        byte[] content = content();
+        skip((BLOCK - size % BLOCK) % BLOCK);
+        return content;
+    }
+
+    private String name() {
+        String name = string(0, 100);
+        if ("ustar".equals(string(257, 6).trim())) {
+            String prefix = string(345, 155);
+            if (!prefix.isEmpty()) {
+                return prefix + "/" + name;
+            }
+        }
+        return name;
+    }
+
+    private String string(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private long number(int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            // base-256 encoding used by GNU tar for large values
+            long value = header[offset] & 0x7f;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (header[i] & 0xff);
+            }
+            return value;
+        }
+        String octal = string(offset, length).trim();
+        return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+    }
+
+    private static String paxPath(String records, String current) {
+        // records are "<length> <key>=<value>\n"
+        for (String record : records.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space > 0 && record.startsWith("path=", space + 1)) {
+                return record.substring(space + 6);
+            }
+        }
+        return current;
+    }
+
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul < 0 ? value : value.substring(0, nul);
+    }
+
+    private void skip(long bytes) throws IOException {
+        long left = bytes;
+        while (left > 0) {
+            long skipped = in.skip(left);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    return;
+                }
+                skipped = 1;
+            }
+            left -= skipped;
+        }
+    }
+}
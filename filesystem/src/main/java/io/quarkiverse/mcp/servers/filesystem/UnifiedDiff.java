@@ -0,0 +1,123 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally builds a git-style unified diff while a file is being streamed.
+ * <p>
+ * Only the lines of the hunk being built plus a few lines of context are kept in memory,
+ * so the memory needed is independent of the size of the file.
+ */
+final class UnifiedDiff {
+
+    static final int CONTEXT = 3;
+
+    private final StringBuilder diff = new StringBuilder();
+    private final String path;
+
+    private final ArrayDeque<String> leading = new ArrayDeque<>();
+    private final List<String> trailing = new ArrayList<>();
+    private final List<String> hunk = new ArrayList<>();
+
+    private boolean inHunk;
+    private int oldLine = 1;
+    private int newLine = 1;
+    private int hunkOldStart;
+    private int hunkNewStart;
+    private int hunkOldCount;
+    private int hunkNewCount;
+
+    UnifiedDiff(String path) {
+        this.path = path;
+    }
+
+    void unchanged(String line) {
+        if (inHunk) {
+            trailing.add(line);
+            if (trailing.size() > 2 * CONTEXT) {
+                closeHunk();
+            }
+        } else {
+            leading.addLast(line);
+            if (leading.size() > CONTEXT) {
+                leading.removeFirst();
+            }
+        }
+        oldLine++;
+        newLine++;
+    }
+
+    void changed(List<String> oldLines, List<String> newLines) {
+        if (!inHunk) {
+            inHunk = true;
+            hunkOldStart = oldLine - leading.size();
+            hunkNewStart = newLine - leading.size();
+            hunkOldCount = 0;
+            hunkNewCount = 0;
+            context(leading);
+            leading.clear();
+        } else {
+            context(trailing);
+            trailing.clear();
+        }
+        for (String line : oldLines) {
+            hunk.add("-" + line);
+        }
+        for (String line : newLines) {
+            hunk.add("+" + line);
+        }
+        hunkOldCount += oldLines.size();
+        hunkNewCount += newLines.size();
+        oldLine += oldLines.size();
+        newLine += newLines.size();
+    }
+
+    boolean hasChanges() {
+        return inHunk || !diff.isEmpty();
+    }
+
+    /**
+     * @return the complete diff, or an empty string if nothing changed
+     */
+    String finish() {
+        if (inHunk) {
+            closeHunk();
+        }
+        if (diff.isEmpty()) {
+            return "";
+        }
+        return "--- a/" + path + "\n+++ b/" + path + "\n" + diff;
+    }
+
+    private void context(Iterable<String> lines) {
+        for (String line : lines) {
+            hunk.add(" " + line);
+            hunkOldCount++;
+            hunkNewCount++;
+        }
+    }
+
+    private void closeHunk() {
+        int kept = Math.min(CONTEXT, trailing.size());
+        context(trailing.subList(0, kept));
+        diff.append("@@ -").append(range(hunkOldStart, hunkOldCount))
+                .append(" +").append(range(hunkNewStart, hunkNewCount)).append(" @@\n");
+        for (String line : hunk) {
+            diff.append(line).append('\n');
+        }
+        hunk.clear();
+        leading.clear();
+        for (String line : trailing.subList(Math.max(kept, trailing.size() - CONTEXT), trailing.size())) {
+            leading.addLast(line);
+        }
+        trailing.clear();
+        inHunk = false;
+    }
+
+    private static String range(int start, int count) {
+        // an empty range refers to the line just before it, as in GNU diff
+        return count == 0 ? (start - 1) + ",0" : start + "," + count;
+    }
+}
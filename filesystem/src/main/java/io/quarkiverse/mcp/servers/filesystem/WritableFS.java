@@ -3,10 +3,21 @@ package io.quarkiverse.mcp.servers.filesystem;
 import static java.nio.file.Files.exists;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.inject.Inject;
 
@@ -19,29 +30,242 @@ public class WritableFS {
     @Inject
     FSUtil util;
 
+    static final Duration UPLOAD_EXPIRY = Duration.ofMinutes(15);
+
+    private static final class Upload {
+        final Path target;
+        final String mode;
+        final Path tmp;
+        long bytes;
+        Instant lastAccess = Instant.now();
+        /** Set once the upload is completed, failed or expired, under the lock of the upload. */
+        boolean closed;
+
+        Upload(Path target, String mode, Path tmp) {
+            this.target = target;
+            this.mode = mode;
+            this.tmp = tmp;
+        }
+    }
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
     @Tool(description = """
             Create a new file or completely overwrite an existing file with new content.
             Use with caution as it will overwrite existing files without warning.
+            Existing files are replaced atomically, readers never see a partially written file.
+            Use mode 'append' to add content at the end of a file, or 'create' to fail if the file already exists.
+            Large content can be sent in chunks over several calls sharing the same uploadId;
+            the file is only written once the call with complete set to true is received.
             Handles text content with proper encoding. Only works within allowed directories.
             """)
     String write_file(@ToolArg(description = "Path where to write the file") String path,
-            @ToolArg(description = "Content to write to the file") String content) {
-        Path resolvedPath = util.validateAndResolvePath(path);
-        if (!exists(resolvedPath)) {
-            throw new ToolCallException("Path does not exist: " + path, null);
+            @ToolArg(description = "Content to write to the file") String content,
+            @ToolArg(description = "Write mode: 'overwrite' (default), 'create' or 'append'", required = false) String mode,
+            @ToolArg(description = "Identifier of a chunked upload, any unique string chosen by the caller", required = false) String uploadId,
+            @ToolArg(description = "Set to true on the last chunk of a chunked upload", required = false) Boolean complete) {
+        String effectiveMode = mode == null || mode.isBlank() ? "overwrite" : mode.toLowerCase(Locale.ROOT);
+        if (!List.of("overwrite", "create", "append").contains(effectiveMode)) {
+            throw new ToolCallException("Unknown write mode: " + mode + " (expected overwrite, create or append)", null);
+        }
+        Path resolvedPath = validatePath(path);
+        if (Files.isDirectory(resolvedPath)) {
+            throw new ToolCallException("Path is a directory: " + path, null);
+        }
+        String text = content == null ? "" : content;
+        if (uploadId != null && !uploadId.isBlank()) {
+            return upload(uploadId, resolvedPath, path, effectiveMode, text, Boolean.TRUE.equals(complete));
+        }
+        if ("create".equals(effectiveMode) && exists(resolvedPath)) {
+            throw new ToolCallException("File already exists: " + path, null);
         }
         try {
-            Files.writeString(resolvedPath, content);
+            if ("append".equals(effectiveMode)) {
+                append(resolvedPath, text);
+                return "Successfully appended to " + path;
+            }
+            writeAtomically(resolvedPath, effectiveMode, tmp -> Files.writeString(tmp, text));
             return "Successfully wrote to " + path;
+        } catch (FileAlreadyExistsException e) {
+            throw new ToolCallException("File already exists: " + path, e);
         } catch (IOException e) {
-            throw new ToolCallException("Failed to read file: " + e.getMessage(), e);
+            throw new ToolCallException("Failed to write file: " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "Make line-based edits to a text file. Each edit replaces exact line sequences with new content. Returns a git-style diff showing the changes made. Only works within allowed directories.")
+    private String upload(String uploadId, Path target, String path, String mode, String chunk, boolean complete) {
+        expireUploads(Instant.now());
+        Upload upload = uploads.get(uploadId);
+        try {
+            if (upload == null) {
+                Upload created = new Upload(target, mode, AtomicFiles.createTempSibling(target));
+                upload = uploads.putIfAbsent(uploadId, created);
+                if (upload == null) {
+                    upload = created;
+                } else {
+                    AtomicFiles.deleteQuietly(created.tmp);
+                }
+            }
+            if (!upload.target.equals(target) || !upload.mode.equals(mode)) {
+                throw new ToolCallException("Upload " + uploadId + " was started for " + upload.target
+                        + " in mode " + upload.mode, null);
+            }
+            synchronized (upload) {
+                if (upload.closed) {
+                    // a chunk racing with the completion or the expiry of the upload must not start a new file
+                    throw new ToolCallException("Upload " + uploadId + " is already completed or expired", null);
+                }
+                if ("create".equals(mode) && exists(target)) {
+                    // fail early, dropping the upload, rather than once every chunk has been received
+                    throw new FileAlreadyExistsException(target.toString());
+                }
+                Files.writeString(upload.tmp, chunk, StandardOpenOption.APPEND);
+                upload.bytes = Files.size(upload.tmp);
+                upload.lastAccess = Instant.now();
+                if (!complete) {
+                    return "Received chunk for upload " + uploadId + " (" + upload.bytes + " bytes so far)";
+                }
+                upload.closed = true;
+                uploads.remove(uploadId, upload);
+                if ("append".equals(mode)) {
+                    try (FileChannel source = FileChannel.open(upload.tmp, StandardOpenOption.READ)) {
+                        append(target, source);
+                    }
+                    AtomicFiles.deleteQuietly(upload.tmp);
+                    return "Successfully appended " + upload.bytes + " bytes to " + path;
+                }
+                if ("create".equals(mode)) {
+                    AtomicFiles.create(upload.tmp, target);
+                } else {
+                    AtomicFiles.replace(upload.tmp, target);
+                }
+                return "Successfully wrote " + upload.bytes + " bytes to " + path;
+            }
+        } catch (IOException e) {
+            if (upload != null) {
+                synchronized (upload) {
+                    upload.closed = true;
+                }
+                uploads.remove(uploadId, upload);
+                AtomicFiles.deleteQuietly(upload.tmp);
+            }
+            if (e instanceof FileAlreadyExistsException) {
+                throw new ToolCallException("File already exists: " + path, e);
+            }
+            throw new ToolCallException("Failed to write file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops the uploads that received no chunk for {@link #UPLOAD_EXPIRY} before {@code now}, with their temporary file.
+     */
+    void expireUploads(Instant now) {
+        Instant expiry = now.minus(UPLOAD_EXPIRY);
+        for (Map.Entry<String, Upload> entry : uploads.entrySet()) {
+            Upload upload = entry.getValue();
+            synchronized (upload) {
+                if (upload.closed || !upload.lastAccess.isBefore(expiry)) {
+                    continue;
+                }
+                upload.closed = true;
+            }
+            uploads.remove(entry.getKey(), upload);
+            AtomicFiles.deleteQuietly(upload.tmp);
+        }
+    }
+
+    /**
+     * @return the number of uploads in progress
+     */
+    int activeUploads() {
+        return uploads.size();
+    }
+
+    private interface ContentWriter {
+        void write(Path tmp) throws IOException;
+    }
+
+    private static void writeAtomically(Path target, String mode, ContentWriter writer) throws IOException {
+        Path tmp = AtomicFiles.createTempSibling(target);
+        try {
+            writer.write(tmp);
+            if ("create".equals(mode)) {
+                AtomicFiles.create(tmp, target);
+            } else {
+                AtomicFiles.replace(tmp, target);
+            }
+            tmp = null;
+        } finally {
+            if (tmp != null) {
+                AtomicFiles.deleteQuietly(tmp);
+            }
+        }
+    }
+
+    private static void append(Path target, String text) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(text);
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            out.force(true);
+        }
+    }
+
+    private static void append(Path target, FileChannel source) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            long position = 0;
+            long size = source.size();
+            while (position < size) {
+                position += source.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        }
+    }
+
+    @Tool(description = "Make line-based edits to a text file. Each edit replaces exact line sequences with new content. Returns a git-style diff showing the changes made. Use dryRun to preview the diff without modifying the file. Only works within allowed directories.")
     String edit_file(@ToolArg(description = "Path to the file to edit") String path,
-            @ToolArg(description = "List of line edits to apply") List<Map<String, String>> edits) {
-        throw new ToolCallException("Not implemented yet", null);
+            @ToolArg(description = "List of line edits to apply, each with an 'oldText' (exact lines to search for) and a 'newText' (lines to replace them with)") List<Map<String, String>> edits,
+            @ToolArg(description = "Preview the changes as a diff without writing them", required = false) Boolean dryRun) {
+        if (edits == null || edits.isEmpty()) {
+            throw new ToolCallException("No edits provided", null);
+        }
+        Path resolvedPath = validatePath(path);
+        if (!Files.isRegularFile(resolvedPath)) {
+            throw new ToolCallException("Path is not a file: " + path, null);
+        }
+        LineEditor editor = new LineEditor(edits.stream().map(LineEditor.Edit::of).toList());
+        UnifiedDiff diff = new UnifiedDiff(path);
+        if (Boolean.TRUE.equals(dryRun)) {
+            try (Reader in = Files.newBufferedReader(resolvedPath)) {
+                editor.apply(in, null, diff);
+            } catch (IOException e) {
+                throw new ToolCallException("Failed to read file: " + e.getMessage(), e);
+            }
+            return diff.finish();
+        }
+
+        Path tmp = null;
+        try {
+            tmp = AtomicFiles.createTempSibling(resolvedPath);
+            try (Reader in = Files.newBufferedReader(resolvedPath);
+                    Writer out = Files.newBufferedWriter(tmp)) {
+                editor.apply(in, out, diff);
+            }
+            if (diff.hasChanges()) {
+                AtomicFiles.replace(tmp, resolvedPath);
+                tmp = null;
+            }
+            return diff.finish();
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to edit file: " + e.getMessage(), e);
+        } finally {
+            if (tmp != null) {
+                AtomicFiles.deleteQuietly(tmp);
+            }
+        }
     }
 
     @Tool(description = """
@@ -63,4 +287,12 @@ public class WritableFS {
         }
         return "Directory already exists: " + path;
     }
+
+    private Path validatePath(String path) {
+        try {
+            return util.validatePath(path);
+        } catch (IOException e) {
+            throw new ToolCallException("Failed to resolve path: " + e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Tests reading, listing and searching zip archives and tarballs, and the cache of open zip file systems.
+ */
+class ArchiveFSTest {
+
+    @TempDir
+    Path dir;
+
+    private final ArchiveFS archives = new ArchiveFS();
+
+    @AfterEach
+    void tearDown() {
+        archives.close();
+    }
+
+    @Test
+    void parse_splitsAtTheFirstSeparator() {
+        assertThat(ArchiveFS.parse("/data/app.jar!/META-INF/MANIFEST.MF"))
+                .isEqualTo(new ArchiveFS.ArchivePath("/data/app.jar", "META-INF/MANIFEST.MF"));
+        assertThat(ArchiveFS.parse("/data/app.JAR!")).isEqualTo(new ArchiveFS.ArchivePath("/data/app.JAR", ""));
+        assertThat(ArchiveFS.parse("/data/logs.tar.gz!/./var/log/")).isEqualTo(
+                new ArchiveFS.ArchivePath("/data/logs.tar.gz", "var/log"));
+        // archives nested in archives are not opened, the rest is a name inside the outer one
+        assertThat(ArchiveFS.parse("/data/app.ear!/lib/inner.jar!/a.txt"))
+                .isEqualTo(new ArchiveFS.ArchivePath("/data/app.ear", "lib/inner.jar!/a.txt"));
+    }
+
+    @Test
+    void parse_ignoresOtherPaths() {
+        assertThat(ArchiveFS.parse("/data/app.jar")).isNull();
+        assertThat(ArchiveFS.parse("/data/notes.txt!/a")).isNull();
+        assertThat(ArchiveFS.parse("/data/dir!/app.jar")).isNull();
+    }
+
+    @Test
+    void zip_readsListsAndSearches() throws IOException {
+        final var archive = zip("app.jar", "META-INF/MANIFEST.MF", "Manifest-Version: 1.0", "a/b/Config.txt", "config",
+                "a/c.txt", "c");
+        final var root = ArchiveFS.parse(archive + "!");
+        assertThat(archives.read(archive, ArchiveFS.parse(archive + "!/a/b/Config.txt"))).isEqualTo("config");
+        assertThat(archives.list(archive, root)).containsEntry("META-INF", true).containsEntry("a", true).hasSize(2);
+        assertThat(archives.list(archive, ArchiveFS.parse(archive + "!/a"))).containsEntry("b", true)
+                .containsEntry("c.txt", false);
+        assertThat(archives.search(archive, root, "CONFIG")).containsExactly(archive + "!/a/b/Config.txt");
+    }
+
+    @Test
+    void zip_failsForMissingEntries() throws IOException {
+        final var archive = zip("app.jar", "a.txt", "a");
+        assertThatThrownBy(() -> archives.read(archive, ArchiveFS.parse(archive + "!/missing.txt")))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessage("Entry does not exist: " + archive + "!/missing.txt");
+        assertThatThrownBy(() -> archives.list(archive, ArchiveFS.parse(archive + "!/missing")))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Directory does not exist");
+    }
+
+    @Test
+    void zip_doesNotOpenNestedArchives() throws IOException {
+        final var archive = zip("app.ear", "lib/inner.jar", "not opened");
+        assertThatThrownBy(() -> archives.read(archive, ArchiveFS.parse(archive + "!/lib/inner.jar!/a.txt")))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Entry does not exist");
+        assertThat(archives.read(archive, ArchiveFS.parse(archive + "!/lib/inner.jar"))).isEqualTo("not opened");
+    }
+
+    @Test
+    void tar_readsListsAndSearches() throws IOException {
+        final var archive = dir.resolve("logs.tar.gz");
+        // "var" is only implied by its entries
+        final var tar = new TarReaderTest.Tar().file("var/log/app.log", "started").directory("var/log/old/")
+                .gnuLongName("var/log/old/" + "x".repeat(150) + ".log").file("truncated", "old");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(archive))) {
+            out.write(tar.bytes());
+        }
+        final var root = ArchiveFS.parse(archive + "!");
+        assertThat(archives.read(archive, ArchiveFS.parse(archive + "!/var/log/app.log"))).isEqualTo("started");
+        assertThat(archives.list(archive, root)).containsExactly("var");
+        assertThat(archives.list(archive, ArchiveFS.parse(archive + "!/var/log"))).containsEntry("app.log", false)
+                .containsEntry("old", true).hasSize(2);
+        assertThat(archives.search(archive, root, ".LOG")).containsExactly(archive + "!/var/log/app.log",
+                archive + "!/var/log/old/" + "x".repeat(150) + ".log");
+        assertThatThrownBy(() -> archives.read(archive, ArchiveFS.parse(archive + "!/var/log")))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Entry does not exist");
+        assertThatThrownBy(() -> archives.list(archive, ArchiveFS.parse(archive + "!/var/lo")))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Directory does not exist");
+    }
+
+    @Test
+    void zip_keepsTheMostRecentlyUsedArchivesOpen() throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        final List<FileSystem> opened = new ArrayList<>();
+        for (int i = 0; i < 17; i++) {
+            paths.add(zip("archive-" + i + ".zip", "entry.txt", Integer.toString(i)));
+        }
+        for (int i = 0; i < 16; i++) {
+            opened.add(archives.zip(paths.get(i)));
+        }
+        // using the first archive again makes the second one the least recently used
+        assertThat(archives.zip(paths.get(0))).isSameAs(opened.get(0));
+        archives.zip(paths.get(16));
+        assertThat(opened.get(1).isOpen()).isFalse();
+        assertThat(opened.get(0).isOpen()).isTrue();
+        assertThat(opened.subList(2, 16).stream().allMatch(FileSystem::isOpen)).isTrue();
+
+        // an evicted archive is opened again on its next use
+        assertThat(archives.read(paths.get(1), ArchiveFS.parse(paths.get(1) + "!/entry.txt"))).isEqualTo("1");
+        assertThat(opened.get(2).isOpen()).isFalse();
+
+        archives.close();
+        assertThat(opened.get(0).isOpen()).isFalse();
+    }
+
+    @Test
+    void zip_isOpenedAgainWhenItChanges() throws IOException {
+        final var archive = zip("app.zip", "a.txt", "old");
+        final var before = archives.zip(archive);
+        assertThat(archives.read(archive, ArchiveFS.parse(archive + "!/a.txt"))).isEqualTo("old");
+
+        zip("app.zip", "a.txt", "new");
+        Files.setLastModifiedTime(archive,
+                FileTime.fromMillis(Files.getLastModifiedTime(archive).toMillis() + 10_000));
+        assertThat(archives.read(archive, ArchiveFS.parse(archive + "!/a.txt"))).isEqualTo("new");
+        assertThat(before.isOpen()).isFalse();
+    }
+
+    /**
+     * @param namesAndContents entry name, content, entry name, content...
+     */
+    private Path zip(String name, String... namesAndContents) throws IOException {
+        final var archive = dir.resolve(name);
+        try (var out = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                out.putNextEntry(new ZipEntry(namesAndContents[i]));
+                out.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return archive;
+    }
+}
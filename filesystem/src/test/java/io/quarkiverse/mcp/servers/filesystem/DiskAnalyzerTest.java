@@ -0,0 +1,195 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the stages of the duplicate search, by size, by partial hash and by full hash, and the disk usage report.
+ */
+class DiskAnalyzerTest {
+
+    private static final int PARTIAL = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private DiskAnalyzer analyzer = new DiskAnalyzer();
+
+    @AfterEach
+    void tearDown() {
+        analyzer.close();
+    }
+
+    @Test
+    void duplicates_groupsIdenticalFiles() throws IOException {
+        write("a/one.txt", content(100, 'x'));
+        write("b/two.txt", content(100, 'x'));
+        write("b/c/three.txt", content(100, 'x'));
+        write("other.txt", content(100, 'y'));
+        final var duplicates = analyzer.duplicates(List.of(dir), 1, 10);
+        assertThat(duplicates.groups()).hasSize(1);
+        final var group = duplicates.groups().get(0);
+        assertThat(group.size()).isEqualTo(100);
+        assertThat(group.wastedBytes()).isEqualTo(200);
+        assertThat(group.paths()).containsExactlyInAnyOrder(path("a/one.txt"), path("b/two.txt"), path("b/c/three.txt"));
+        assertThat(duplicates.wastedBytes()).isEqualTo(200);
+        assertThat(duplicates.truncated()).isFalse();
+    }
+
+    @Test
+    void duplicates_sizeStageDropsFilesWithAUniqueSize() throws IOException {
+        write("a.txt", content(100, 'x'));
+        write("b.txt", content(101, 'x'));
+        write("c.txt", content(102, 'x'));
+        final var duplicates = analyzer.duplicates(List.of(dir), 1, 10);
+        assertThat(duplicates.groups()).isEmpty();
+        assertThat(duplicates.candidates()).isZero();
+    }
+
+    @Test
+    void duplicates_sizeStageSkipsFilesBelowTheMinimumSize() throws IOException {
+        write("small-1.txt", content(10, 'x'));
+        write("small-2.txt", content(10, 'x'));
+        write("large-1.txt", content(1000, 'x'));
+        write("large-2.txt", content(1000, 'x'));
+        final var duplicates = analyzer.duplicates(List.of(dir), 100, 10);
+        assertThat(duplicates.groups()).hasSize(1);
+        assertThat(duplicates.groups().get(0).size()).isEqualTo(1000);
+        assertThat(duplicates.candidates()).isEqualTo(2);
+    }
+
+    @Test
+    void duplicates_partialHashStageSeparatesFilesDifferingAtTheStart() throws IOException {
+        final var first = content(PARTIAL * 2, 'x');
+        final var second = first.clone();
+        second[10] = 'y';
+        write("a.bin", first);
+        write("b.bin", second);
+        final var duplicates = analyzer.duplicates(List.of(dir), 1, 10);
+        assertThat(duplicates.candidates()).isEqualTo(2);
+        assertThat(duplicates.groups()).isEmpty();
+    }
+
+    @Test
+    void duplicates_fullHashStageSeparatesFilesDifferingAfterTheStart() throws IOException {
+        final var first = content(PARTIAL * 2, 'x');
+        final var second = first.clone();
+        second[PARTIAL + 10] = 'y';
+        final var third = first.clone();
+        write("a.bin", first);
+        write("b.bin", second);
+        write("c.bin", third);
+        final var duplicates = analyzer.duplicates(List.of(dir), 1, 10);
+        assertThat(duplicates.candidates()).isEqualTo(3);
+        assertThat(duplicates.groups()).hasSize(1);
+        assertThat(duplicates.groups().get(0).paths()).containsExactlyInAnyOrder(path("a.bin"), path("c.bin"));
+    }
+
+    @Test
+    void duplicates_sortsAndLimitsGroupsByWastedBytes() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            write("small-" + i, content(10, 's'));
+        }
+        write("large-1", content(1000, 'l'));
+        write("large-2", content(1000, 'l'));
+        write("medium-1", content(100, 'm'));
+        write("medium-2", content(100, 'm'));
+        final var duplicates = analyzer.duplicates(List.of(dir), 1, 2);
+        assertThat(duplicates.groups().stream().map(DiskAnalyzer.DuplicateGroup::size).toList())
+                .containsExactly(1000L, 100L);
+        assertThat(duplicates.wastedBytes()).isEqualTo(1000 + 100 + 2 * 10);
+    }
+
+    @Test
+    void duplicates_isTruncatedAboveTheCandidateLimit() throws IOException {
+        analyzer.close();
+        analyzer = new DiskAnalyzer(3);
+        for (int i = 0; i < 5; i++) {
+            write("copy-" + i, content(100, 'x'));
+        }
+        final var duplicates = analyzer.duplicates(List.of(dir), 1, 10);
+        assertThat(duplicates.truncated()).isTrue();
+        assertThat(duplicates.candidates()).isEqualTo(3);
+        assertThat(duplicates.groups()).hasSize(1);
+        assertThat(duplicates.groups().get(0).paths()).hasSize(3);
+    }
+
+    @Test
+    void duplicates_doesNotFollowSymbolicLinks() throws IOException {
+        write("a.txt", content(100, 'x'));
+        Files.createSymbolicLink(dir.resolve("link.txt"), dir.resolve("a.txt"));
+        assertThat(analyzer.duplicates(List.of(dir), 1, 10).groups()).isEmpty();
+    }
+
+    @Test
+    void sharedSizes_neverMissesASharedSize() {
+        // a filter much smaller than the number of sizes, to have many false candidates
+        final var sizes = new DiskAnalyzer.SharedSizes(1 << 12);
+        for (long size = 0; size < 10_000; size++) {
+            sizes.add(size * 7);
+            if (size % 10 == 0) {
+                sizes.add(size * 7);
+            }
+        }
+        for (long size = 0; size < 10_000; size += 10) {
+            assertThat(sizes.mayBeShared(size * 7)).isTrue();
+        }
+    }
+
+    @Test
+    void sharedSizes_hasFewFalseCandidates() {
+        final var sizes = new DiskAnalyzer.SharedSizes(DiskAnalyzer.SharedSizes.DEFAULT_BITS);
+        for (long size = 0; size < 100_000; size++) {
+            sizes.add(size);
+        }
+        sizes.add(42);
+        assertThat(sizes.mayBeShared(42)).isTrue();
+        long falseCandidates = 0;
+        for (long size = 0; size < 100_000; size++) {
+            if (size != 42 && sizes.mayBeShared(size)) {
+                falseCandidates++;
+            }
+        }
+        assertThat(falseCandidates).isLessThan(100);
+    }
+
+    @Test
+    void usage_reportsTotalsAndLargestEntries() throws IOException {
+        write("a/big.bin", content(1000, 'x'));
+        write("a/small.bin", content(10, 'x'));
+        write("b/medium.bin", content(100, 'x'));
+        final var usage = analyzer.usage(List.of(dir), 2);
+        assertThat(usage.totalBytes()).isEqualTo(1110);
+        assertThat(usage.files()).isEqualTo(3);
+        assertThat(usage.directories()).isEqualTo(3);
+        assertThat(usage.largestFiles()).containsExactly(new DiskAnalyzer.Entry(path("a/big.bin"), 1000),
+                new DiskAnalyzer.Entry(path("b/medium.bin"), 100));
+        assertThat(usage.largestDirectories()).containsExactly(new DiskAnalyzer.Entry(dir.toString(), 1110),
+                new DiskAnalyzer.Entry(path("a"), 1010));
+    }
+
+    private void write(String name, byte[] content) throws IOException {
+        final var file = dir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    private String path(String name) {
+        return dir.resolve(name).toString();
+    }
+
+    private static byte[] content(int length, char c) {
+        final var content = new byte[length];
+        Arrays.fill(content, (byte) c);
+        return content;
+    }
+}
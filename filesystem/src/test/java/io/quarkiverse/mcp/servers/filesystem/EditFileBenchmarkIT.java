@@ -0,0 +1,141 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures edit_file on a large file, 1 GiB unless set otherwise with {@code -Dbenchmark.file-size=<bytes>}.
+ * <p>
+ * The file is streamed through the editor, so the heap retained while editing must not grow with its size: the old
+ * generation, where long-lived and large objects end up, is checked to stay far below the size of the file.
+ */
+public class EditFileBenchmarkIT {
+
+    private static final Logger LOG = Logger.getLogger(EditFileBenchmarkIT.class);
+
+    private static final long FILE_SIZE = Long.getLong("benchmark.file-size", 1L << 30);
+    private static final long MAX_RETAINED_BYTES = 256L << 20;
+    // 16 bytes per line: "line 0000000042\n"
+    private static final int LINE_LENGTH = 16;
+
+    @TempDir
+    static Path dir;
+
+    private static Path file;
+    private static long lines;
+    private static WritableFS fs;
+
+    @BeforeAll
+    static void createFile() throws IOException {
+        file = dir.resolve("large.txt");
+        lines = FILE_SIZE / LINE_LENGTH;
+        final long start = System.nanoTime();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (long i = 0; i < lines; i++) {
+                out.write(line(i));
+                out.write('\n');
+            }
+        }
+        LOG.infof("Created %s of %d MiB in %d ms", file, Files.size(file) >> 20, (System.nanoTime() - start) / 1_000_000);
+        fs = new WritableFS();
+        fs.util = new FSUtil(List.of(dir.toString()));
+    }
+
+    @Test
+    void editNearTheStart() throws IOException {
+        benchmark("near the start", 10, false);
+    }
+
+    @Test
+    void editInTheMiddle() throws IOException {
+        benchmark("in the middle", lines / 2, false);
+    }
+
+    @Test
+    void editAtTheEnd() throws IOException {
+        benchmark("at the end", lines - 1, false);
+    }
+
+    @Test
+    void dryRunAtTheEnd() throws IOException {
+        benchmark("at the end (dry run)", lines - 1, true);
+    }
+
+    private static void benchmark(String name, long index, boolean dryRun) throws IOException {
+        final String oldText = line(index);
+        // same length, so that the size and the offsets of the file don't change between the benchmarks
+        final String newText = "LINE" + oldText.substring(4);
+        final long size = Files.size(file);
+        final List<MemoryPoolMXBean> oldGen = oldGenerationPools();
+        System.gc();
+        final long retainedBefore = used(oldGen);
+        oldGen.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        final long start = System.nanoTime();
+        final String diff = fs.edit_file(file.toString(), List.of(Map.of("oldText", oldText, "newText", newText)),
+                dryRun);
+        final long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        final long retained = peak(oldGen) - retainedBefore;
+
+        LOG.infof("Edit %s of %d MiB: %d ms (%d MiB/s), old generation grew by %d KiB", name, size >> 20, millis,
+                (size >> 20) * 1000 / millis, retained >> 10);
+        assertThat(diff).contains("-" + oldText + "\n+" + newText + "\n");
+        assertThat(Files.size(file)).isEqualTo(size);
+        assertThat(lineAt(index)).isEqualTo(dryRun ? oldText : newText);
+        if (!oldGen.isEmpty()) {
+            assertThat(retained).isLessThan(Math.min(MAX_RETAINED_BYTES, size));
+        }
+        if (!dryRun) {
+            // restore the file for the other benchmarks
+            fs.edit_file(file.toString(), List.of(Map.of("oldText", newText, "newText", oldText)), false);
+        }
+    }
+
+    private static String line(long index) {
+        final String digits = Long.toString(index);
+        return "line " + "0".repeat(10 - digits.length()) + digits;
+    }
+
+    private static String lineAt(long index) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+            final byte[] line = new byte[LINE_LENGTH - 1];
+            in.seek(index * LINE_LENGTH);
+            in.readFully(line);
+            return new String(line, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * @return the heap pools of the old generation, empty with collectors that have none (e.g. ZGC)
+     */
+    private static List<MemoryPoolMXBean> oldGenerationPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .toList();
+    }
+
+    private static long used(List<MemoryPoolMXBean> pools) {
+        return pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    private static long peak(List<MemoryPoolMXBean> pools) {
+        return pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+}
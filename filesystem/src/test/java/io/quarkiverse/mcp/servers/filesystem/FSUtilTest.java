@@ -0,0 +1,120 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Tests the validation of the paths given to the tools against the allowed directories.
+ */
+class FSUtilTest {
+
+    @TempDir
+    Path dir;
+
+    private Path allowed;
+    private Path outside;
+    private FSUtil util;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        allowed = Files.createDirectory(dir.resolve("allowed")).toRealPath();
+        outside = Files.createDirectory(dir.resolve("outside")).toRealPath();
+        Files.writeString(allowed.resolve("file.txt"), "in");
+        Files.writeString(outside.resolve("secret.txt"), "out");
+        util = new FSUtil(List.of(allowed.toString()));
+    }
+
+    @Test
+    void validatePath_acceptsPathsInsideTheRoots() throws IOException {
+        assertThat(util.validatePath(allowed.toString())).isEqualTo(allowed);
+        assertThat(util.validatePath(allowed.resolve("file.txt").toString())).isEqualTo(allowed.resolve("file.txt"));
+        Files.createDirectory(allowed.resolve("sub"));
+        assertThat(util.validatePath(allowed.resolve("sub/../file.txt").toString()))
+                .isEqualTo(allowed.resolve("file.txt"));
+    }
+
+    @Test
+    void validatePath_rejectsSiblingsSharingThePrefixOfARoot() throws IOException {
+        final var sibling = Files.createDirectory(dir.resolve("allowed-not")).toRealPath();
+        assertThatThrownBy(() -> util.validatePath(sibling.toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Access denied - path outside allowed directories");
+    }
+
+    @Test
+    void validatePath_rejectsPathsEscapingTheRoots() {
+        assertThatThrownBy(() -> util.validatePath(allowed.resolve("../outside/secret.txt").toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("path outside allowed directories");
+        assertThatThrownBy(() -> util.validatePath(allowed.resolve("..").toString()))
+                .isInstanceOf(ToolCallException.class);
+        assertThatThrownBy(() -> util.validatePath(outside.resolve("secret.txt").toString()))
+                .isInstanceOf(ToolCallException.class);
+    }
+
+    @Test
+    void validatePath_rejectsSymlinksPointingOutside() throws IOException {
+        Files.createSymbolicLink(allowed.resolve("link.txt"), outside.resolve("secret.txt"));
+        Files.createSymbolicLink(allowed.resolve("linked-dir"), outside);
+        assertThatThrownBy(() -> util.validatePath(allowed.resolve("link.txt").toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("symlink target outside allowed directories");
+        assertThatThrownBy(() -> util.validatePath(allowed.resolve("linked-dir/secret.txt").toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("symlink target outside allowed directories");
+        // a new file below a symlinked directory
+        assertThatThrownBy(() -> util.validatePath(allowed.resolve("linked-dir/new.txt").toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("parent directory outside allowed directories");
+    }
+
+    @Test
+    void validatePath_resolvesSymlinksPointingInside() throws IOException {
+        Files.createSymbolicLink(allowed.resolve("link.txt"), allowed.resolve("file.txt"));
+        assertThat(util.validatePath(allowed.resolve("link.txt").toString())).isEqualTo(allowed.resolve("file.txt"));
+    }
+
+    @Test
+    void validatePath_acceptsASymlinkedRoot() throws IOException {
+        final var link = Files.createSymbolicLink(dir.resolve("root-link"), allowed);
+        final var linked = new FSUtil(List.of(link.toString()));
+        assertThat(linked.validatePath(link.resolve("file.txt").toString())).isEqualTo(allowed.resolve("file.txt"));
+        assertThat(linked.validatePath(link.resolve("new.txt").toString())).isEqualTo(link.resolve("new.txt"));
+        // the real directory isn't allowed under its own name
+        assertThatThrownBy(() -> linked.validatePath(allowed.resolve("file.txt").toString()))
+                .isInstanceOf(ToolCallException.class);
+    }
+
+    @Test
+    void validatePath_acceptsNewFilesInExistingDirectories() throws IOException {
+        assertThat(util.validatePath(allowed.resolve("new.txt").toString())).isEqualTo(allowed.resolve("new.txt"));
+        assertThatThrownBy(() -> util.validatePath(allowed.resolve("missing/new.txt").toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Parent directory does not exist");
+    }
+
+    @Test
+    void validateNoFollow_keepsTheLinkItself() throws IOException {
+        final var link = Files.createSymbolicLink(allowed.resolve("link.txt"), allowed.resolve("file.txt"));
+        assertThat(util.validateNoFollow(link.toString())).isEqualTo(link);
+    }
+
+    @Test
+    void validateAndResolvePath_rejectsPathsEscapingTheRoots() {
+        assertThat(util.validateAndResolvePath(allowed.resolve("a/../b").toString())).isEqualTo(allowed.resolve("b"));
+        assertThatThrownBy(() -> util.validateAndResolvePath(allowed.resolve("../outside").toString()))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("is not within allowed directories");
+    }
+}
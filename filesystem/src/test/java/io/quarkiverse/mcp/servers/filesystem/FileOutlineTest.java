@@ -0,0 +1,220 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Tests the outline of each supported file type.
+ */
+class FileOutlineTest {
+
+    @TempDir
+    Path dir;
+
+    private final FileOutline outlines = new FileOutline();
+
+    @Test
+    void java_listsTypesMethodsAndFields() throws IOException {
+        assertThat(outline("Sample.java", """
+                package demo;
+
+                import java.util.List;
+
+                /**
+                 * A { brace in a comment.
+                 */
+                @SuppressWarnings({ "unchecked" })
+                public class Sample<T> implements Runnable {
+
+                    private static final String TEXT = "not { a block";
+                    private final List<T> items = List.of();
+                    int[] counts, other;
+
+                    enum Color {
+                        RED, GREEN;
+
+                        Color next() {
+                            return GREEN;
+                        }
+                    }
+
+                    record Point(int x, int y) {
+                    }
+
+                    static {
+                        System.out.println("init");
+                    }
+
+                    @Override
+                    public void run() {
+                        Runnable r = () -> {
+                            class Local {
+                            }
+                        };
+                    }
+
+                    <R> R map(
+                            java.util.function.Function<T, R> f) {
+                        return null;
+                    }
+
+                    abstract static class Inner {
+                        abstract void work();
+                    }
+
+                    interface Api {
+                        String TEXT_BLOCK = \"""
+                                { not a block }
+                                \""";
+
+                        void call();
+                    }
+                }
+                """)).isEqualTo("""
+                class Sample (8-54)
+                  field TEXT (11)
+                  field items (12)
+                  enum Color (15-21)
+                    method next (18-20)
+                  record Point (23-24)
+                  method run (30-36)
+                  method map (38-41)
+                  class Inner (43-45)
+                    method work (44)
+                  interface Api (47-53)
+                    field TEXT_BLOCK (48-50)
+                    method call (52)
+                """);
+    }
+
+    @Test
+    void markdown_listsHeadingsUntilTheNextOneOfTheSameLevel() throws IOException {
+        assertThat(outline("README.md", """
+                # Title
+
+                Intro
+
+                ## Install
+                Steps
+
+                ```
+                # not a heading
+                ```
+
+                Setext
+                ------
+
+                ### Deep
+
+                # Second
+                text
+                """)).isEqualTo("""
+                h1 Title (1-16)
+                  h2 Install (5-11)
+                  h2 Setext (12-16)
+                    h3 Deep (15-16)
+                h1 Second (17-18)
+                """);
+    }
+
+    @Test
+    void yaml_listsTopLevelKeysOfEveryDocument() throws IOException {
+        assertThat(outline("application.yaml", """
+                # comment
+                server:
+                  port: 8080
+
+                "quoted key": value
+                list:
+                  - a
+                  - b
+                ---
+                second: doc
+                """)).isEqualTo("""
+                key server (2-3)
+                key "quoted key" (5)
+                key list (6-8)
+                key second (10)
+                """);
+    }
+
+    @Test
+    void json_listsTopLevelKeysUntilTheEndOfTheirValue() throws IOException {
+        assertThat(outline("package.json", """
+                {
+                  "name": "demo",
+                  "nested": {
+                    "inner": [1, 2]
+                  },
+                  "list": [
+                    {"x": 1}
+                  ],
+                  "escaped \\"key\\"": "v",
+                  "last":
+                    true
+                }
+                """)).isEqualTo("""
+                key name (2)
+                key nested (3-5)
+                key list (6-8)
+                key escaped "key" (9)
+                key last (10-12)
+                """);
+    }
+
+    @Test
+    void json_extendsTheLastKeyToTheClosingBrace() throws IOException {
+        assertThat(outline("one-line.json", "{\"a\": 1, \"b\": {\"c\": 2}}")).isEqualTo("key a (1)\nkey b (1)\n");
+        assertThat(outline("last.json", "{\n  \"a\": 1,\n  \"b\": 2\n}\n")).isEqualTo("key a (2)\nkey b (3-4)\n");
+        // keys of objects nested in a top-level array are not top-level keys
+        assertThat(outline("array.json", "[\n  {\"a\": 1}\n]\n")).isEmpty();
+    }
+
+    @Test
+    void properties_listsKeysWithTheirContinuationLines() throws IOException {
+        assertThat(outline("application.properties", """
+                # comment
+                ! other comment
+                simple=value
+                with\\ space : value
+                multi = first \\
+                  second \\
+                  third
+                empty
+                last=1
+                """)).isEqualTo("""
+                key simple (3)
+                key with\\ space (4)
+                key multi (5-7)
+                key empty (8)
+                key last (9)
+                """);
+    }
+
+    @Test
+    void outline_failsForUnsupportedFiles() throws IOException {
+        final var file = Files.writeString(dir.resolve("script.sh"), "echo");
+        assertThatThrownBy(() -> outlines.outline(file))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Unsupported file type for outline: script.sh");
+    }
+
+    @Test
+    void outline_isComputedAgainWhenTheFileChanges() throws IOException {
+        assertThat(outline("a.properties", "a=1\n")).isEqualTo("key a (1)\n");
+        assertThat(outline("a.properties", "a=1\nb=2\n")).isEqualTo("key a (1)\nkey b (2)\n");
+    }
+
+    private String outline(String name, String content) throws IOException {
+        return FileOutline.format(outlines.outline(Files.writeString(dir.resolve(name), content)));
+    }
+}
@@ -0,0 +1,182 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkiverse.mcp.server.McpLog;
+
+/**
+ * Tests copies and moves of {@link FileTransfers}, using a zip file system as a different file store.
+ */
+class FileTransfersTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<String> messages = new ArrayList<>();
+    private FileTransfers transfers;
+    private Path source;
+    private FileSystem zip;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final var log = (McpLog) Proxy.newProxyInstance(McpLog.class.getClassLoader(), new Class<?>[] { McpLog.class },
+                (proxy, method, args) -> {
+                    messages.add(method.getName() + ": " + args[0]);
+                    return null;
+                });
+        transfers = new FileTransfers(log);
+        // src/a.txt, src/sub/b.txt and src/link -> a.txt
+        source = Files.createDirectory(dir.resolve("src"));
+        Files.writeString(source.resolve("a.txt"), "a");
+        Files.writeString(Files.createDirectory(source.resolve("sub")).resolve("b.txt"), "b");
+        Files.createSymbolicLink(source.resolve("link"), Path.of("a.txt"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (zip != null) {
+            zip.close();
+        }
+    }
+
+    @Test
+    void copy_copiesTheTreeWithSymlinksAsLinks() throws IOException {
+        final var outside = Files.createSymbolicLink(source.resolve("outside"), Path.of("/etc/hostname"));
+        final var target = dir.resolve("dst");
+        transfers.copy(source, target).join();
+        assertThat(target.resolve("a.txt")).hasContent("a");
+        assertThat(target.resolve("sub/b.txt")).hasContent("b");
+        assertThat(target.resolve("link")).isSymbolicLink();
+        assertThat(Files.readSymbolicLink(target.resolve("link"))).isEqualTo(Path.of("a.txt"));
+        assertThat(Files.readSymbolicLink(target.resolve("outside"))).isEqualTo(Files.readSymbolicLink(outside));
+        assertThat(transfers.files()).isEqualTo(2);
+        assertThat(transfers.bytes()).isEqualTo(2);
+        assertThat(source.resolve("a.txt")).exists();
+    }
+
+    @Test
+    void copy_neverTouchesAnExistingTarget() throws IOException {
+        final var target = Files.createDirectory(dir.resolve("dst"));
+        Files.writeString(target.resolve("theirs.txt"), "theirs");
+        assertFailsWith(() -> transfers.copy(source, target).join(), FileAlreadyExistsException.class);
+        assertThat(target.resolve("theirs.txt")).hasContent("theirs");
+
+        final var file = Files.writeString(dir.resolve("file.txt"), "theirs");
+        assertFailsWith(() -> transfers.copy(source.resolve("a.txt"), file).join(), FileAlreadyExistsException.class);
+        assertThat(file).hasContent("theirs");
+    }
+
+    @Test
+    void copy_deletesWhatItCreatedWhenItFails() throws IOException {
+        // zip file systems don't support symbolic links: the copy fails on the link, after creating other entries
+        final var target = zip().getPath("/dst");
+        assertThatThrownBy(() -> transfers.copy(source, target).join()).isInstanceOf(CompletionException.class);
+        assertThat(target).doesNotExist();
+        assertThat(source.resolve("a.txt")).hasContent("a");
+    }
+
+    @Test
+    void copy_keepsExistingDirectoriesInsideTheTargetWhenItFails() throws IOException {
+        final var target = zip().getPath("/dst");
+        Files.createDirectory(target);
+        Files.writeString(target.resolve("theirs.txt"), "theirs");
+        assertThatThrownBy(() -> transfers.copy(source, target).join()).isInstanceOf(CompletionException.class);
+        assertThat(target.resolve("theirs.txt")).hasContent("theirs");
+    }
+
+    @Test
+    void move_renamesADirectory() throws IOException {
+        final var target = dir.resolve("dst");
+        transfers.move(source, target).join();
+        assertThat(source).doesNotExist();
+        assertThat(target.resolve("sub/b.txt")).hasContent("b");
+        assertThat(target.resolve("link")).isSymbolicLink();
+        assertThat(messages).isEmpty();
+    }
+
+    @Test
+    void move_neverReplacesAnExistingDirectory() throws IOException {
+        // renaming a directory silently replaces an empty one
+        final var target = Files.createDirectory(dir.resolve("dst"));
+        assertFailsWith(() -> transfers.move(source, target).join(), FileAlreadyExistsException.class);
+        assertThat(source.resolve("a.txt")).hasContent("a");
+        assertThat(target).isEmptyDirectory();
+    }
+
+    @Test
+    void move_linksAFile() throws IOException {
+        final var target = dir.resolve("moved.txt");
+        transfers.move(source.resolve("a.txt"), target).join();
+        assertThat(source.resolve("a.txt")).doesNotExist();
+        assertThat(target).hasContent("a");
+    }
+
+    @Test
+    void move_neverReplacesAnExistingFile() throws IOException {
+        final var target = Files.writeString(dir.resolve("theirs.txt"), "theirs");
+        assertFailsWith(() -> transfers.move(source.resolve("a.txt"), target).join(), FileAlreadyExistsException.class);
+        assertThat(source.resolve("a.txt")).hasContent("a");
+        assertThat(target).hasContent("theirs");
+    }
+
+    @Test
+    void move_movesASymbolicLinkAsALink() throws IOException {
+        final var target = source.resolve("sub/link");
+        transfers.move(source.resolve("link"), target).join();
+        assertThat(source.resolve("link")).doesNotExist();
+        assertThat(Files.readSymbolicLink(target)).isEqualTo(Path.of("a.txt"));
+    }
+
+    @Test
+    void move_copiesAcrossFileStores() throws IOException {
+        Files.delete(source.resolve("link"));
+        final var target = zip().getPath("/dst");
+        transfers.move(source, target).join();
+        assertThat(source).doesNotExist();
+        assertThat(Files.readString(target.resolve("a.txt"))).isEqualTo("a");
+        assertThat(Files.readString(target.resolve("sub/b.txt"))).isEqualTo("b");
+        assertThat(messages).containsExactly("info: Moving %s to %s across file systems");
+
+        final var file = Files.writeString(dir.resolve("file.txt"), "file");
+        transfers.move(file, zip.getPath("/file.txt")).join();
+        assertThat(file).doesNotExist();
+        assertThat(Files.readString(zip.getPath("/file.txt"))).isEqualTo("file");
+    }
+
+    @Test
+    void move_acrossFileStoresNeverReplacesAnExistingTarget() throws IOException {
+        Files.delete(source.resolve("link"));
+        final var target = zip().getPath("/dst");
+        Files.createDirectory(target);
+        assertFailsWith(() -> transfers.move(source, target).join(), FileAlreadyExistsException.class);
+        assertThat(source.resolve("a.txt")).hasContent("a");
+        assertThat(target).isEmptyDirectory();
+    }
+
+    private FileSystem zip() throws IOException {
+        zip = FileSystems.newFileSystem(dir.resolve("store.zip"), Map.of("create", "true"));
+        return zip;
+    }
+
+    private static void assertFailsWith(Runnable transfer, Class<? extends Throwable> cause) {
+        assertThatThrownBy(transfer::run).isInstanceOf(CompletionException.class).hasRootCauseInstanceOf(cause);
+    }
+}
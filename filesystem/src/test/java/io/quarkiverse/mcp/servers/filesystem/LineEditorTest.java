@@ -0,0 +1,160 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Tests the streaming line editor behind edit_file.
+ */
+class LineEditorTest {
+
+    private record Result(String content, String diff) {
+    }
+
+    @Test
+    void apply_replacesEveryEditInOnePass() throws IOException {
+        final var result = edit("a\nb\nc\nd\ne\n", "b", "B", "d", "D1\nD2");
+        assertThat(result.content()).isEqualTo("a\nB\nc\nD1\nD2\ne\n");
+        assertThat(result.diff()).isEqualTo("""
+                --- a/file.txt
+                +++ b/file.txt
+                @@ -1,5 +1,6 @@
+                 a
+                -b
+                +B
+                 c
+                -d
+                +D1
+                +D2
+                 e
+                """);
+    }
+
+    @Test
+    void apply_acceptsEditsInAnyOrder() throws IOException {
+        assertThat(edit("a\nb\nc\nd\n", "c\nd", "x", "a", "y").content()).isEqualTo("y\nb\nx\n");
+    }
+
+    @Test
+    void apply_replacesMultiLineOldText() throws IOException {
+        final var result = edit("one\ntwo\nthree\nfour\n", "two\nthree", "2 and 3");
+        assertThat(result.content()).isEqualTo("one\n2 and 3\nfour\n");
+        assertThat(result.diff()).contains("@@ -1,4 +1,3 @@\n one\n-two\n-three\n+2 and 3\n four\n");
+    }
+
+    @Test
+    void apply_deletesLinesForAnEmptyNewText() throws IOException {
+        final var result = edit("a\nb\nc\n", "b", "");
+        assertThat(result.content()).isEqualTo("a\nc\n");
+        assertThat(result.diff()).endsWith("@@ -1,3 +1,2 @@\n a\n-b\n c\n");
+    }
+
+    @Test
+    void apply_failsWhenAnOldTextIsMissing() {
+        assertThatThrownBy(() -> edit("a\nb\nc\n", "b", "B", "missing\nlines", "x"))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessage("Could not find exact match for edit:\nmissing\nlines");
+    }
+
+    @Test
+    void apply_failsWhenAnOldTextOnlyMatchesPartially() {
+        assertThatThrownBy(() -> edit("a\nb\nc\n", "b\nx", "B"))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Could not find exact match");
+    }
+
+    @Test
+    void edit_requiresAnOldText() {
+        assertThatThrownBy(() -> LineEditor.Edit.of(Map.of("oldText", "", "newText", "x")))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("non-empty 'oldText'");
+        assertThatThrownBy(() -> LineEditor.Edit.of(Map.of("newText", "x")))
+                .isInstanceOf(ToolCallException.class);
+    }
+
+    @Test
+    void apply_dryRunOnlyBuildsTheDiff() throws IOException {
+        final var content = "a\nb\nc\n";
+        final var diff = new UnifiedDiff("file.txt");
+        editor("b", "B").apply(new StringReader(content), null, diff);
+        assertThat(diff.hasChanges()).isTrue();
+        assertThat(diff.finish()).isEqualTo(edit(content, "b", "B").diff());
+    }
+
+    @Test
+    void apply_dryRunStillFailsOnAMissingOldText() {
+        assertThatThrownBy(() -> editor("x", "y").apply(new StringReader("a\n"), null, new UnifiedDiff("file.txt")))
+                .isInstanceOf(ToolCallException.class);
+    }
+
+    @Test
+    void apply_keepsCrlfLineEndings() throws IOException {
+        final var result = edit("a\r\nb\r\nc\r\n", "b", "x\ny");
+        assertThat(result.content()).isEqualTo("a\r\nx\r\ny\r\nc\r\n");
+        assertThat(result.diff()).doesNotContain("\r");
+    }
+
+    @Test
+    void apply_matchesCrlfOldText() throws IOException {
+        assertThat(edit("a\r\nb\r\nc\r\n", "a\r\nb", "z").content()).isEqualTo("z\r\nc\r\n");
+    }
+
+    @Test
+    void apply_keepsMixedLineEndingsOfUntouchedLines() throws IOException {
+        assertThat(edit("a\r\nb\nc\rd", "b", "B").content()).isEqualTo("a\r\nB\nc\rd");
+    }
+
+    @Test
+    void apply_keepsCrlfSplitAcrossTheReadBuffer() throws IOException {
+        // the \r is the last character of the first 8192 character read, the \n the first one of the next read
+        final var first = "x".repeat(8191);
+        final var result = edit(first + "\r\nb\r\n", "b", "c");
+        assertThat(result.content()).isEqualTo(first + "\r\nc\r\n");
+    }
+
+    @Test
+    void apply_keepsAMissingTrailingNewline() throws IOException {
+        assertThat(edit("a\nb", "b", "c").content()).isEqualTo("a\nc");
+        assertThat(edit("a\nb", "a", "z").content()).isEqualTo("z\nb");
+        assertThat(edit("a\nb", "b", "c\nd").content()).isEqualTo("a\nc\nd");
+        assertThat(edit("a\r\nb", "b", "c\nd").content()).isEqualTo("a\r\nc\r\nd");
+    }
+
+    @Test
+    void apply_copiesTheRestOfTheFileAfterTheLastEdit() throws IOException {
+        final var lines = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            lines.append("line ").append(i).append('\n');
+        }
+        final var result = edit(lines.toString(), "line 2", "second");
+        assertThat(result.content()).isEqualTo(lines.toString().replace("line 2\n", "second\n"));
+        // only CONTEXT lines after the edit are in the diff
+        assertThat(result.diff()).endsWith(" line 3\n line 4\n line 5\n");
+    }
+
+    private static Result edit(String content, String... oldAndNewTexts) throws IOException {
+        final var out = new StringWriter();
+        final var diff = new UnifiedDiff("file.txt");
+        editor(oldAndNewTexts).apply(new StringReader(content), out, diff);
+        return new Result(out.toString(), diff.finish());
+    }
+
+    private static LineEditor editor(String... oldAndNewTexts) {
+        final List<LineEditor.Edit> edits = new ArrayList<>();
+        for (int i = 0; i < oldAndNewTexts.length; i += 2) {
+            edits.add(LineEditor.Edit.of(Map.of("oldText", oldAndNewTexts[i], "newText", oldAndNewTexts[i + 1])));
+        }
+        return new LineEditor(edits);
+    }
+}
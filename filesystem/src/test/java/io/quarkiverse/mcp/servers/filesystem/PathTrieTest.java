@@ -0,0 +1,75 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the prefix matching of allowed directories.
+ */
+class PathTrieTest {
+
+    @Test
+    void containsPrefixOf_matchesTheDirectoryAndItsChildren() {
+        final var trie = trie("/a/b");
+        assertThat(trie.containsPrefixOf(Path.of("/a/b"))).isTrue();
+        assertThat(trie.containsPrefixOf(Path.of("/a/b/c"))).isTrue();
+        assertThat(trie.containsPrefixOf(Path.of("/a/b/c/d.txt"))).isTrue();
+    }
+
+    @Test
+    void containsPrefixOf_matchesWholeNamesOnly() {
+        final var trie = trie("/a/b");
+        assertThat(trie.containsPrefixOf(Path.of("/a/bc"))).isFalse();
+        assertThat(trie.containsPrefixOf(Path.of("/a/bc/d"))).isFalse();
+        assertThat(trie.containsPrefixOf(Path.of("/a/b.txt"))).isFalse();
+    }
+
+    @Test
+    void containsPrefixOf_doesNotMatchParentsOrSiblings() {
+        final var trie = trie("/a/b");
+        assertThat(trie.containsPrefixOf(Path.of("/a"))).isFalse();
+        assertThat(trie.containsPrefixOf(Path.of("/"))).isFalse();
+        assertThat(trie.containsPrefixOf(Path.of("/a/c"))).isFalse();
+        assertThat(trie.containsPrefixOf(Path.of("/b"))).isFalse();
+    }
+
+    @Test
+    void containsPrefixOf_doesNotMixAbsoluteAndRelativePaths() {
+        final var trie = trie("/a/b");
+        assertThat(trie.containsPrefixOf(Path.of("a/b"))).isFalse();
+        assertThat(trie("a/b").containsPrefixOf(Path.of("/a/b"))).isFalse();
+        assertThat(trie("a/b").containsPrefixOf(Path.of("a/b/c"))).isTrue();
+    }
+
+    @Test
+    void containsPrefixOf_matchesAnyOfSeveralDirectories() {
+        final var trie = trie("/a/b", "/a/c/d", "/e");
+        assertThat(trie.containsPrefixOf(Path.of("/a/c/d/f"))).isTrue();
+        assertThat(trie.containsPrefixOf(Path.of("/e/f"))).isTrue();
+        assertThat(trie.containsPrefixOf(Path.of("/a/c"))).isFalse();
+        assertThat(trie.containsPrefixOf(Path.of("/a/c/de"))).isFalse();
+    }
+
+    @Test
+    void containsPrefixOf_matchesEverythingForTheRoot() {
+        final var trie = trie("/");
+        assertThat(trie.containsPrefixOf(Path.of("/"))).isTrue();
+        assertThat(trie.containsPrefixOf(Path.of("/a/b"))).isTrue();
+    }
+
+    @Test
+    void containsPrefixOf_matchesNothingWhenEmpty() {
+        assertThat(new PathTrie().containsPrefixOf(Path.of("/a"))).isFalse();
+    }
+
+    private static PathTrie trie(String... paths) {
+        final var trie = new PathTrie();
+        for (String path : paths) {
+            trie.add(Path.of(path));
+        }
+        return trie;
+    }
+}
@@ -0,0 +1,239 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the tar reader on archives built by {@link Tar}, with ustar, GNU and pax headers.
+ */
+class TarReaderTest {
+
+    @Test
+    void next_readsUstarEntries() throws IOException {
+        final var tar = new Tar().directory("dir/").file("dir/a.txt", "hello").file("b.txt", "");
+        try (var reader = tar.reader()) {
+            assertThat(reader.next()).isEqualTo(new TarReader.Entry("dir", 0, true));
+            assertThat(reader.next()).isEqualTo(new TarReader.Entry("dir/a.txt", 5, false));
+            assertThat(new String(reader.content(), StandardCharsets.UTF_8)).isEqualTo("hello");
+            assertThat(reader.next()).isEqualTo(new TarReader.Entry("b.txt", 0, false));
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void next_skipsTheContentOfEntriesNotRead() throws IOException {
+        // 512 bytes exactly, and one more, to check the padding to the next header
+        final var tar = new Tar().file("a.bin", "x".repeat(512)).file("b.bin", "y".repeat(513)).file("c.txt", "c");
+        assertThat(names(tar)).containsExactly("a.bin", "b.bin", "c.txt");
+        try (var reader = tar.reader()) {
+            reader.next();
+            reader.next();
+            assertThat(reader.content()).hasSize(513);
+            assertThat(reader.next().name()).isEqualTo("c.txt");
+            assertThat(reader.content()).isEqualTo(new byte[] { 'c' });
+        }
+    }
+
+    @Test
+    void next_joinsTheUstarPrefix() throws IOException {
+        final var dir = "d".repeat(120);
+        final var tar = new Tar().file(dir + "/file.txt", "content");
+        assertThat(names(tar)).containsExactly(dir + "/file.txt");
+    }
+
+    @Test
+    void next_readsGnuLongNames() throws IOException {
+        final var name = "long/" + "n".repeat(300) + ".txt";
+        final var tar = new Tar().gnuLongName(name).file("truncated", "content").file("next.txt", "");
+        try (var reader = tar.reader()) {
+            assertThat(reader.next()).isEqualTo(new TarReader.Entry(name, 7, false));
+            assertThat(new String(reader.content(), StandardCharsets.UTF_8)).isEqualTo("content");
+            // the long name only applies to the entry following it
+            assertThat(reader.next().name()).isEqualTo("next.txt");
+        }
+    }
+
+    @Test
+    void next_readsPaxPaths() throws IOException {
+        final var name = "pax/" + "é".repeat(200) + ".txt";
+        final var tar = new Tar().pax("mtime=1700000000.5", "path=" + name, "uname=me").file("ignored", "x")
+                .globalPax("comment=global").file("after.txt", "y");
+        assertThat(names(tar)).containsExactly(name, "after.txt");
+    }
+
+    @Test
+    void next_keepsTheNameWithoutPaxPath() throws IOException {
+        assertThat(names(new Tar().pax("uname=me").file("plain.txt", "x"))).containsExactly("plain.txt");
+    }
+
+    @Test
+    void next_normalizesNames() throws IOException {
+        assertThat(names(new Tar().file("./a.txt", "").file("/abs/b.txt", "").directory("./dir/")))
+                .containsExactly("a.txt", "abs/b.txt", "dir");
+    }
+
+    @Test
+    void next_readsBase256Sizes() throws IOException {
+        final var tar = new Tar().file("big.txt", "12345");
+        tar.base256Size(0, 5);
+        try (var reader = tar.reader()) {
+            assertThat(reader.next().size()).isEqualTo(5);
+            assertThat(reader.content()).hasSize(5);
+        }
+    }
+
+    @Test
+    void next_stopsAtTheEndOfATruncatedArchive() throws IOException {
+        final var bytes = new Tar().file("a.txt", "a").bytes();
+        // without the end of archive blocks
+        assertThat(names(Arrays.copyOf(bytes, 1024))).containsExactly("a.txt");
+        assertThat(names(new byte[0])).isEmpty();
+    }
+
+    @Test
+    void content_failsOnATruncatedEntry() throws IOException {
+        final var bytes = new Tar().file("a.txt", "x".repeat(1000)).bytes();
+        try (var reader = new TarReader(new ByteArrayInputStream(Arrays.copyOf(bytes, 700)))) {
+            reader.next();
+            assertThatThrownBy(reader::content).isInstanceOf(EOFException.class);
+        }
+    }
+
+    private static List<String> names(Tar tar) throws IOException {
+        return names(tar.bytes());
+    }
+
+    private static List<String> names(byte[] bytes) throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (var reader = new TarReader(new ByteArrayInputStream(bytes))) {
+            for (var entry = reader.next(); entry != null; entry = reader.next()) {
+                names.add(entry.name());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Builds tar archives in memory, header by header.
+     */
+    static final class Tar {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final List<Integer> headers = new ArrayList<>();
+        private byte[] bytes;
+
+        Tar file(String name, String content) {
+            return entry(name, '0', content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Tar directory(String name) {
+            return entry(name, '5', new byte[0]);
+        }
+
+        Tar gnuLongName(String name) {
+            return entry("././@LongLink", 'L', (name + '\0').getBytes(StandardCharsets.UTF_8));
+        }
+
+        Tar pax(String... records) {
+            return entry("PaxHeaders/entry", 'x', paxRecords(records));
+        }
+
+        Tar globalPax(String... records) {
+            return entry("PaxHeaders/global", 'g', paxRecords(records));
+        }
+
+        /**
+         * Rewrites the size of the given header in the base-256 encoding GNU tar uses for values too large for octal.
+         */
+        void base256Size(int header, long size) {
+            final byte[] archive = bytes();
+            final int offset = headers.get(header) + 124;
+            Arrays.fill(archive, offset, offset + 12, (byte) 0);
+            archive[offset] = (byte) 0x80;
+            for (int i = 11; i > 0 && size != 0; i--, size >>>= 8) {
+                archive[offset + i] = (byte) size;
+            }
+        }
+
+        byte[] bytes() {
+            if (bytes == null) {
+                out.writeBytes(new byte[1024]);
+                bytes = out.toByteArray();
+            }
+            return bytes;
+        }
+
+        TarReader reader() {
+            return new TarReader(new ByteArrayInputStream(bytes()));
+        }
+
+        private Tar entry(String name, char type, byte[] content) {
+            final byte[] header = new byte[512];
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.length > 100) {
+                // ustar splits long names at a slash into a prefix and a name
+                final int slash = name.lastIndexOf('/');
+                if (slash > 0 && slash <= 155 && nameBytes.length - slash - 1 <= 100) {
+                    put(header, 345, name.substring(0, slash).getBytes(StandardCharsets.UTF_8));
+                    nameBytes = name.substring(slash + 1).getBytes(StandardCharsets.UTF_8);
+                } else {
+                    nameBytes = Arrays.copyOf(nameBytes, 100);
+                }
+            }
+            put(header, 0, nameBytes);
+            put(header, 100, octal(0644, 8));
+            put(header, 108, octal(0, 8));
+            put(header, 116, octal(0, 8));
+            put(header, 124, octal(content.length, 12));
+            put(header, 136, octal(0, 12));
+            header[156] = (byte) type;
+            put(header, 257, "ustar\0".getBytes(StandardCharsets.US_ASCII));
+            put(header, 263, "00".getBytes(StandardCharsets.US_ASCII));
+            Arrays.fill(header, 148, 156, (byte) ' ');
+            int checksum = 0;
+            for (byte b : header) {
+                checksum += b & 0xff;
+            }
+            put(header, 148, octal(checksum, 7));
+            headers.add(out.size());
+            out.writeBytes(header);
+            out.writeBytes(content);
+            out.writeBytes(new byte[(512 - content.length % 512) % 512]);
+            return this;
+        }
+
+        private static byte[] paxRecords(String... records) {
+            final var content = new ByteArrayOutputStream();
+            for (String record : records) {
+                // the length includes itself, the space and the newline
+                final int length = record.getBytes(StandardCharsets.UTF_8).length + 2;
+                int total = length + Integer.toString(length).length();
+                if (Integer.toString(total).length() > Integer.toString(length).length()) {
+                    total++;
+                }
+                content.writeBytes((total + " " + record + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return content.toByteArray();
+        }
+
+        private static byte[] octal(long value, int length) {
+            final var digits = Long.toOctalString(value);
+            return ("0".repeat(length - 1 - digits.length()) + digits + "\0").getBytes(StandardCharsets.US_ASCII);
+        }
+
+        private static void put(byte[] header, int offset, byte[] value) {
+            System.arraycopy(value, 0, header, offset, value.length);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the hunks built by the streaming diff.
+ */
+class UnifiedDiffTest {
+
+    @Test
+    void finish_isEmptyWithoutChanges() {
+        final var diff = new UnifiedDiff("file.txt");
+        diff.unchanged("a");
+        assertThat(diff.hasChanges()).isFalse();
+        assertThat(diff.finish()).isEmpty();
+    }
+
+    @Test
+    void finish_startsWithTheFileHeader() {
+        assertThat(diff(3, Set.of(2))).startsWith("--- a/file.txt\n+++ b/file.txt\n@@ -1,3 +1,3 @@\n");
+    }
+
+    @Test
+    void hunk_atTheStartOfTheFileHasNoLeadingContext() {
+        assertThat(hunks(20, Set.of(1))).containsExactly("@@ -1,4 +1,4 @@");
+    }
+
+    @Test
+    void hunk_atTheEndOfTheFileHasNoTrailingContext() {
+        assertThat(hunks(20, Set.of(20))).containsExactly("@@ -17,4 +17,4 @@");
+        assertThat(diff(20, Set.of(20))).endsWith(" l19\n-l20\n+L20\n");
+    }
+
+    @Test
+    void hunk_hasThreeLinesOfContext() {
+        assertThat(diff(20, Set.of(10))).endsWith("""
+                @@ -7,7 +7,7 @@
+                 l7
+                 l8
+                 l9
+                -l10
+                +L10
+                 l11
+                 l12
+                 l13
+                """);
+    }
+
+    @Test
+    void hunks_areMergedWhenTheirContextsTouch() {
+        // 6 unchanged lines between the changes: the trailing context of the first one is the leading context of the second
+        assertThat(hunks(20, Set.of(5, 12))).containsExactly("@@ -2,14 +2,14 @@");
+    }
+
+    @Test
+    void hunks_areSplitWhenTheirContextsDoNotTouch() {
+        assertThat(hunks(20, Set.of(5, 13))).containsExactly("@@ -2,7 +2,7 @@", "@@ -10,7 +10,7 @@");
+        assertThat(diff(20, Set.of(5, 13))).contains("""
+                 l8
+                @@ -10,7 +10,7 @@
+                 l10
+                """);
+    }
+
+    @Test
+    void hunks_farApartAreSplit() {
+        assertThat(hunks(100, Set.of(5, 50, 95))).containsExactly("@@ -2,7 +2,7 @@", "@@ -47,7 +47,7 @@",
+                "@@ -92,7 +92,7 @@");
+    }
+
+    @Test
+    void hunk_countsAddedAndRemovedLines() {
+        final var diff = new UnifiedDiff("file.txt");
+        for (int i = 1; i <= 4; i++) {
+            diff.unchanged("l" + i);
+        }
+        diff.changed(List.of("l5"), List.of("a", "b", "c"));
+        for (int i = 6; i <= 10; i++) {
+            diff.unchanged("l" + i);
+        }
+        diff.changed(List.of("l11", "l12"), List.of());
+        diff.unchanged("l13");
+        // the second hunk starts 2 lines later in the new file
+        assertThat(diff.finish()).contains("@@ -2,12 +2,12 @@\n");
+
+        final var split = new UnifiedDiff("file.txt");
+        split.changed(List.of("l1"), List.of("a", "b", "c"));
+        for (int i = 2; i <= 20; i++) {
+            split.unchanged("l" + i);
+        }
+        split.changed(List.of("l21"), List.of("x"));
+        assertThat(split.finish()).contains("@@ -1,4 +1,6 @@\n", "@@ -18,4 +20,4 @@\n");
+    }
+
+    @Test
+    void hunk_removingTheWholeFileIsEmptyOnTheNewSide() {
+        final var diff = new UnifiedDiff("file.txt");
+        diff.changed(List.of("a", "b"), List.of());
+        assertThat(diff.finish()).endsWith("@@ -1,2 +0,0 @@\n-a\n-b\n");
+    }
+
+    /**
+     * @return the diff of a file of {@code lines} lines l1, l2... where the given (1-based) lines are upper-cased
+     */
+    private static String diff(int lines, Set<Integer> changed) {
+        final var diff = new UnifiedDiff("file.txt");
+        for (int i = 1; i <= lines; i++) {
+            if (changed.contains(i)) {
+                diff.changed(List.of("l" + i), List.of("L" + i));
+            } else {
+                diff.unchanged("l" + i);
+            }
+        }
+        return diff.finish();
+    }
+
+    private static List<String> hunks(int lines, Set<Integer> changed) {
+        return diff(lines, changed).lines().filter(line -> line.startsWith("@@")).toList();
+    }
+}
@@ -0,0 +1,256 @@
+package io.quarkiverse.mcp.servers.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Tests the write modes, the chunked uploads and the edits of {@link WritableFS}.
+ */
+class WritableFSTest {
+
+    @TempDir
+    Path dir;
+
+    private WritableFS fs;
+
+    @BeforeEach
+    void setUp() {
+        fs = new WritableFS();
+        fs.util = new FSUtil(List.of(dir.toString()));
+    }
+
+    @Test
+    void writeFile_overwriteCreatesAndReplaces() throws IOException {
+        final var file = dir.resolve("file.txt");
+        assertThat(fs.write_file(file.toString(), "one", null, null, null)).startsWith("Successfully wrote");
+        assertThat(file).hasContent("one");
+        fs.write_file(file.toString(), "two", "overwrite", null, null);
+        assertThat(file).hasContent("two");
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void writeFile_overwriteKeepsThePermissions() throws IOException {
+        final var file = dir.resolve("script.sh");
+        Files.writeString(file, "old");
+        if (Files.getFileAttributeView(file, PosixFileAttributeView.class) == null) {
+            return;
+        }
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-x---"));
+        fs.write_file(file.toString(), "new", null, null, null);
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rwxr-x---");
+    }
+
+    @Test
+    void writeFile_createFailsIfTheFileExists() throws IOException {
+        final var file = dir.resolve("file.txt");
+        fs.write_file(file.toString(), "first", "create", null, null);
+        assertThat(file).hasContent("first");
+        assertThatThrownBy(() -> fs.write_file(file.toString(), "second", "create", null, null))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("File already exists");
+        assertThat(file).hasContent("first");
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void create_neverOverwritesAFileCreatedMeanwhile() throws IOException {
+        // the target appears after write_file checked that it doesn't exist
+        final var file = dir.resolve("file.txt");
+        final var tmp = AtomicFiles.createTempSibling(file);
+        Files.writeString(tmp, "mine");
+        Files.writeString(file, "theirs");
+        assertThatThrownBy(() -> AtomicFiles.create(tmp, file)).isInstanceOf(FileAlreadyExistsException.class);
+        assertThat(file).hasContent("theirs");
+        AtomicFiles.deleteQuietly(tmp);
+    }
+
+    @Test
+    void create_movesTheTemporaryFile() throws IOException {
+        final var file = dir.resolve("file.txt");
+        final var tmp = AtomicFiles.createTempSibling(file);
+        Files.writeString(tmp, "content");
+        AtomicFiles.create(tmp, file);
+        assertThat(file).hasContent("content");
+        assertThat(tmp).doesNotExist();
+    }
+
+    @Test
+    void writeFile_appendsToExistingAndMissingFiles() throws IOException {
+        final var file = dir.resolve("log.txt");
+        assertThat(fs.write_file(file.toString(), "a\n", "append", null, null)).startsWith("Successfully appended");
+        fs.write_file(file.toString(), "b\n", "APPEND", null, null);
+        assertThat(file).hasContent("a\nb\n");
+    }
+
+    @Test
+    void writeFile_rejectsUnknownModesAndDirectories() {
+        assertThatThrownBy(() -> fs.write_file(dir.resolve("file.txt").toString(), "x", "truncate", null, null))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Unknown write mode");
+        assertThatThrownBy(() -> fs.write_file(dir.toString(), "x", null, null, null))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Path is a directory");
+    }
+
+    @Test
+    void upload_writesTheFileOnlyOnCompletion() throws IOException {
+        final var file = dir.resolve("upload.txt");
+        Files.writeString(file, "old");
+        assertThat(fs.write_file(file.toString(), "hello ", null, "up-1", null)).contains("6 bytes so far");
+        fs.write_file(file.toString(), "big ", null, "up-1", false);
+        assertThat(file).hasContent("old");
+        assertThat(fs.write_file(file.toString(), "world", null, "up-1", true))
+                .isEqualTo("Successfully wrote 15 bytes to " + file);
+        assertThat(file).hasContent("hello big world");
+        assertThat(fs.activeUploads()).isZero();
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void upload_appendsOnCompletion() throws IOException {
+        final var file = dir.resolve("log.txt");
+        Files.writeString(file, "0\n");
+        fs.write_file(file.toString(), "1\n", "append", "up-1", false);
+        fs.write_file(file.toString(), "2\n", "append", "up-1", true);
+        assertThat(file).hasContent("0\n1\n2\n");
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void upload_inCreateModeFailsIfTheFileAppeared() throws IOException {
+        final var file = dir.resolve("new.txt");
+        fs.write_file(file.toString(), "mine", "create", "up-1", false);
+        Files.writeString(file, "theirs");
+        assertThatThrownBy(() -> fs.write_file(file.toString(), "", "create", "up-1", true))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("File already exists");
+        assertThat(file).hasContent("theirs");
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void upload_isBoundToItsTargetAndMode() {
+        final var file = dir.resolve("file.txt").toString();
+        fs.write_file(file, "a", null, "up-1", false);
+        assertThatThrownBy(() -> fs.write_file(dir.resolve("other.txt").toString(), "b", null, "up-1", false))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("was started for");
+        assertThatThrownBy(() -> fs.write_file(file, "b", "append", "up-1", false))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("in mode overwrite");
+    }
+
+    @Test
+    void upload_expiresWithItsTemporaryFile() throws IOException {
+        final var file = dir.resolve("file.txt");
+        fs.write_file(file.toString(), "stale", null, "up-1", false);
+        assertThat(temporaryFiles()).hasSize(1);
+
+        fs.expireUploads(Instant.now());
+        assertThat(fs.activeUploads()).isEqualTo(1);
+
+        fs.expireUploads(Instant.now().plus(WritableFS.UPLOAD_EXPIRY).plusSeconds(1));
+        assertThat(fs.activeUploads()).isZero();
+        assertThat(temporaryFiles()).isEmpty();
+        assertThat(file).doesNotExist();
+
+        // the id can be reused for a new upload, without the expired chunks
+        fs.write_file(file.toString(), "fresh", null, "up-1", true);
+        assertThat(file).hasContent("fresh");
+    }
+
+    @Test
+    void upload_chunkRacingWithTheCompletionIsNeverLost() throws Exception {
+        final var file = dir.resolve("file.txt");
+        for (int i = 0; i < 200; i++) {
+            final var id = "up-" + i;
+            fs.write_file(file.toString(), "a", null, id, false);
+            final var start = new CountDownLatch(1);
+            final var complete = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return fs.write_file(file.toString(), "b", null, id, true);
+            });
+            final var late = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                try {
+                    return fs.write_file(file.toString(), "c", null, id, false);
+                } catch (ToolCallException e) {
+                    return e.getMessage();
+                }
+            });
+            start.countDown();
+            assertThat(complete.get()).startsWith("Successfully wrote");
+            final var content = Files.readString(file);
+            final var lateResult = late.get();
+            if (content.equals("acb")) {
+                assertThat(lateResult).startsWith("Received chunk");
+            } else {
+                // after the completion the chunk either starts a new upload or is refused, it never touches the file
+                assertThat(content).isEqualTo("ab");
+                assertThat(lateResult.startsWith("Received chunk") || lateResult.contains("already completed or expired"))
+                        .isTrue();
+            }
+        }
+        fs.expireUploads(Instant.now().plus(WritableFS.UPLOAD_EXPIRY).plusSeconds(1));
+        assertThat(fs.activeUploads()).isZero();
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void editFile_dryRunLeavesTheFileUntouched() throws IOException {
+        final var file = dir.resolve("file.txt");
+        Files.writeString(file, "a\nb\nc\n");
+        final var edits = List.of(Map.of("oldText", "b", "newText", "B"));
+        final var preview = fs.edit_file(file.toString(), edits, true);
+        assertThat(preview).contains("-b\n+B\n");
+        assertThat(file).hasContent("a\nb\nc\n");
+        assertThat(fs.edit_file(file.toString(), edits, false)).isEqualTo(preview);
+        assertThat(file).hasContent("a\nB\nc\n");
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void editFile_failedEditLeavesTheFileUntouched() throws IOException {
+        final var file = dir.resolve("file.txt");
+        Files.writeString(file, "a\nb\n");
+        assertThatThrownBy(() -> fs.edit_file(file.toString(), List.of(Map.of("oldText", "x", "newText", "y")), false))
+                .isInstanceOf(ToolCallException.class)
+                .hasMessageContaining("Could not find exact match");
+        assertThat(file).hasContent("a\nb\n");
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    private List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(".")).toList();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
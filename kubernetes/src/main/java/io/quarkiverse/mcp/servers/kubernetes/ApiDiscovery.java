@@ -0,0 +1,271 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.fabric8.kubernetes.api.model.APIGroup;
+import io.fabric8.kubernetes.api.model.APIResource;
+import io.fabric8.kubernetes.api.model.APIResourceList;
+import io.fabric8.kubernetes.api.model.GroupVersionForDiscovery;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.quarkiverse.mcp.server.ToolCallException;
+import io.quarkus.logging.Log;
+
+/**
+ * Cache of the API resources served by the cluster.
+ * <p>
+ * Discovery is done once on first use and then refreshed in the background, and on demand (at most every
+ * {@link #MIN_REFRESH_INTERVAL}) when a kind can't be found, e.g. because its CRD was just installed.
+ * It's used to resolve the kind, plural or short name given by the LLM to the right apiVersion and kind, and to reject
+ * invalid requests locally instead of letting them fail against the API server.
+ * <p>
+ * When discovery isn't available, for the whole cluster or for the requested apiVersion, requests are passed through
+ * unchanged. A discovery that found nothing is retried on the next use, at most every {@link #MIN_REFRESH_INTERVAL}.
+ */
+@ApplicationScoped
+public class ApiDiscovery {
+
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * A resource served by the cluster, the plural is null when it couldn't be discovered.
+     */
+    public record ApiResource(String kind, String apiVersion, String plural, boolean namespaced, List<String> shortNames,
+            List<String> verbs, boolean preferred) {
+
+        String group() {
+            final int slash = apiVersion.indexOf('/');
+            return slash < 0 ? "" : apiVersion.substring(0, slash);
+        }
+
+        String version() {
+            return apiVersion.substring(apiVersion.indexOf('/') + 1);
+        }
+
+        /**
+         * A resource of a group version that couldn't be discovered, left for the API server to resolve.
+         */
+        static ApiResource undiscovered(String apiVersion, String kind) {
+            return new ApiResource(kind, apiVersion, null, true, List.of(), List.of(), true);
+        }
+
+        boolean matches(String name) {
+            return kind.equalsIgnoreCase(name) || (plural != null && plural.equalsIgnoreCase(name))
+                    || shortNames.stream().anyMatch(shortName -> shortName.equalsIgnoreCase(name));
+        }
+    }
+
+    private record Snapshot(List<ApiResource> resources, long fetchedAt) {
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @ConfigProperty(name = "kubernetes.discovery.refresh-interval", defaultValue = "5m")
+    Duration refreshInterval;
+
+    @Inject
+    SharedExecutors executors;
+
+    private volatile Snapshot snapshot;
+    private ScheduledFuture<?> refresh;
+
+    /**
+     * @param filter optional text contained in the kind, plural, short names or apiVersion of the resources
+     * @return the resources served by the cluster, preferred versions first
+     */
+    List<ApiResource> resources(String filter) {
+        final String needle = filter == null ? "" : filter.trim().toLowerCase(Locale.ROOT);
+        return snapshot().resources().stream()
+                .filter(resource -> needle.isEmpty() || resource.matches(needle)
+                        || resource.kind().toLowerCase(Locale.ROOT).contains(needle)
+                        || resource.apiVersion().contains(needle))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves the kind, plural or short name of a resource to its kind and apiVersion.
+     *
+     * @param apiVersion the apiVersion given by the LLM, null or blank to use the preferred version of the kind
+     * @throws ToolCallException if the kind is unknown or isn't served by the given apiVersion
+     */
+    ApiResource resolve(String apiVersion, String kind) {
+        if (kind == null || kind.isBlank()) {
+            throw new ToolCallException("kind is required", null);
+        }
+        Snapshot current = snapshot();
+        if (current.resources().isEmpty()) {
+            if (apiVersion == null || apiVersion.isBlank()) {
+                throw new ToolCallException("apiVersion is required, API discovery isn't available", null);
+            }
+            return ApiResource.undiscovered(apiVersion, kind);
+        }
+        ApiResource resolved = find(current, apiVersion, kind);
+        if (resolved == null && refreshIfStale(current)) {
+            current = snapshot;
+            resolved = find(current, apiVersion, kind);
+        }
+        if (resolved != null) {
+            return resolved;
+        }
+        final var candidates = current.resources().stream()
+                .filter(resource -> resource.matches(kind))
+                .map(resource -> resource.apiVersion() + " " + resource.kind())
+                .distinct()
+                .toList();
+        if (!candidates.isEmpty()) {
+            throw new ToolCallException(kind + " is not served by apiVersion " + apiVersion + ", available as: "
+                    + String.join(", ", candidates), null);
+        }
+        if (apiVersion != null && !apiVersion.isBlank()
+                && current.resources().stream().noneMatch(resource -> resource.apiVersion().equals(apiVersion))) {
+            // the group version couldn't be discovered (e.g. an unavailable aggregated API), let the API server decide
+            return ApiResource.undiscovered(apiVersion, kind);
+        }
+        throw new ToolCallException("Unknown kind " + kind
+                + (apiVersion == null || apiVersion.isBlank() ? "" : " in apiVersion " + apiVersion)
+                + ", use the api_resources tool to list the available ones", null);
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (refresh != null) {
+            refresh.cancel(true);
+        }
+    }
+
+    private static ApiResource find(Snapshot snapshot, String apiVersion, String kind) {
+        final boolean anyVersion = apiVersion == null || apiVersion.isBlank();
+        ApiResource found = null;
+        for (ApiResource resource : snapshot.resources()) {
+            if (!resource.matches(kind) || (!anyVersion && !resource.apiVersion().equals(apiVersion))) {
+                continue;
+            }
+            // an exact kind match wins over plurals and short names, a preferred version over the others
+            if (found == null || (resource.kind().equals(kind) && !found.kind().equals(kind))
+                    || (resource.preferred() && !found.preferred() && resource.kind().equals(found.kind()))) {
+                found = resource;
+            }
+        }
+        return found;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = discover();
+                    scheduleRefresh();
+                }
+                current = snapshot;
+            }
+        }
+        if (current.resources().isEmpty() && refreshIfStale(current)) {
+            // the discovery failed, e.g. the API server wasn't reachable yet, an empty result is never kept for long
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private synchronized boolean refreshIfStale(Snapshot seen) {
+        if (snapshot != seen) {
+            // refreshed by another call in the meantime
+            return true;
+        }
+        if (System.nanoTime() - seen.fetchedAt() < MIN_REFRESH_INTERVAL.toNanos()) {
+            return false;
+        }
+        snapshot = discover();
+        return true;
+    }
+
+    private void scheduleRefresh() {
+        final long period = Math.max(MIN_REFRESH_INTERVAL.toSeconds(), refreshInterval.toSeconds());
+        refresh = executors.scheduler().scheduleWithFixedDelay(() -> {
+            final Snapshot refreshed = discover();
+            if (!refreshed.resources().isEmpty()) {
+                snapshot = refreshed;
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Fetches the resources of every group version concurrently.
+     */
+    private Snapshot discover() {
+        final Set<String> preferred = new LinkedHashSet<>();
+        final Set<String> groupVersions = new LinkedHashSet<>();
+        preferred.add("v1");
+        groupVersions.add("v1");
+        try {
+            final var groups = kubernetesClient.getApiGroups();
+            if (groups != null && groups.getGroups() != null) {
+                for (APIGroup group : groups.getGroups()) {
+                    if (group.getPreferredVersion() != null) {
+                        preferred.add(group.getPreferredVersion().getGroupVersion());
+                    }
+                    if (group.getVersions() != null) {
+                        group.getVersions().stream().map(GroupVersionForDiscovery::getGroupVersion)
+                                .filter(Objects::nonNull).forEach(groupVersions::add);
+                    }
+                }
+            }
+        } catch (KubernetesClientException e) {
+            Log.debug("Failed to discover the API groups: " + e.getMessage());
+        }
+        final Map<String, CompletableFuture<APIResourceList>> lists = new LinkedHashMap<>();
+        groupVersions.forEach(groupVersion -> lists.put(groupVersion,
+                CompletableFuture.supplyAsync(() -> resources(groupVersion), executors.worker())));
+        final List<ApiResource> resources = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<APIResourceList>> entry : lists.entrySet()) {
+            final String groupVersion = entry.getKey();
+            final APIResourceList list = entry.getValue().join();
+            if (list == null || list.getResources() == null) {
+                continue;
+            }
+            for (APIResource resource : list.getResources()) {
+                if (resource.getName() == null || resource.getName().contains("/") || resource.getKind() == null) {
+                    // subresources such as pods/log
+                    continue;
+                }
+                resources.add(new ApiResource(resource.getKind(), groupVersion, resource.getName(),
+                        Boolean.TRUE.equals(resource.getNamespaced()),
+                        resource.getShortNames() == null ? List.of() : List.copyOf(resource.getShortNames()),
+                        resource.getVerbs() == null ? List.of() : List.copyOf(resource.getVerbs()),
+                        preferred.contains(groupVersion)));
+            }
+        }
+        resources.sort(Comparator.comparing(ApiResource::preferred).reversed()
+                .thenComparing(ApiResource::apiVersion).thenComparing(ApiResource::kind));
+        return new Snapshot(List.copyOf(resources), System.nanoTime());
+    }
+
+    private APIResourceList resources(String groupVersion) {
+        try {
+            return kubernetesClient.getApiResources(groupVersion);
+        } catch (KubernetesClientException e) {
+            Log.debug("Failed to discover the resources of " + groupVersion + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.readiness.Readiness;
+import io.quarkus.logging.Log;
+
+/**
+ * Applies several resources with server-side apply.
+ * <p>
+ * Resources are applied in dependency order: Namespaces and CustomResourceDefinitions first (waiting for the CRDs to be
+ * established), then the resources usually referenced by workloads (ServiceAccounts, RBAC, ConfigMaps, Secrets,
+ * volumes...), then everything else. The resources of each of these tiers are applied concurrently. A failure doesn't
+ * stop the rest of the batch, the outcome of each resource is reported instead.
+ * <p>
+ * Fields managed by another field manager are only taken over when conflicts are forced. Workloads are waited for with
+ * an informer each, so that waiting doesn't hold a thread of the shared executor.
+ */
+final class BatchApply {
+
+    static final int DEFAULT_WAIT_SECONDS = 60;
+    static final int MAX_WAIT_SECONDS = 600;
+
+    private static final Duration CRD_ESTABLISHED_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Set<String> FIRST = Set.of("Namespace", "CustomResourceDefinition");
+
+    private static final Set<String> SECOND = Set.of("ServiceAccount", "Role", "ClusterRole", "RoleBinding",
+            "ClusterRoleBinding", "ConfigMap", "Secret", "PersistentVolume", "PersistentVolumeClaim", "StorageClass",
+            "ResourceQuota", "LimitRange", "PriorityClass");
+
+    /**
+     * Kinds for which the client knows how to tell whether they're ready.
+     */
+    private static final Set<String> READINESS = Set.of("Deployment", "StatefulSet", "ReplicaSet", "Pod",
+            "ReplicationController");
+
+    record Result(HasMetadata resource, HasMetadata applied, String error, String readiness) {
+
+        @Override
+        public String toString() {
+            final StringBuilder line = new StringBuilder().append(resource.getKind()).append(' ');
+            final var metadata = applied == null ? resource.getMetadata() : applied.getMetadata();
+            if (metadata != null && metadata.getNamespace() != null) {
+                line.append(metadata.getNamespace()).append('/');
+            }
+            line.append(metadata == null ? "<unnamed>" : metadata.getName()).append(": ");
+            if (error != null) {
+                return line.append("failed: ").append(error).toString();
+            }
+            line.append("applied");
+            return readiness == null ? line.toString() : line.append(", ").append(readiness).toString();
+        }
+    }
+
+    private BatchApply() {
+    }
+
+    /**
+     * @param resources a single JSON or YAML resource, a List, or several YAML documents separated by {@code ---}
+     */
+    static List<HasMetadata> parse(KubernetesClient kubernetesClient, String resources) {
+        return kubernetesClient.load(new ByteArrayInputStream(resources.getBytes(StandardCharsets.UTF_8))).items().stream()
+                .filter(Objects::nonNull)
+                .map(HasMetadata.class::cast)
+                .toList();
+    }
+
+    /**
+     * @param forceConflicts whether to take over the fields managed by other field managers instead of failing
+     */
+    static HasMetadata apply(KubernetesClient kubernetesClient, HasMetadata resource, boolean forceConflicts) {
+        if (resource.getMetadata() != null) {
+            // rejected by server-side apply, present when the resource was copied from a get
+            resource.getMetadata().setManagedFields(null);
+        }
+        final var applicable = kubernetesClient.resource(resource);
+        return forceConflicts ? applicable.forceConflicts().serverSideApply() : applicable.serverSideApply();
+    }
+
+    /**
+     * @param waitTimeout how long to wait for the applied workloads to be ready, or null not to wait
+     */
+    static List<Result> apply(KubernetesClient kubernetesClient, List<HasMetadata> resources, boolean forceConflicts,
+            ExecutorService executor, Duration waitTimeout) {
+        final Map<Integer, List<HasMetadata>> tiers = new TreeMap<>();
+        resources.forEach(resource -> tiers.computeIfAbsent(tier(resource), tier -> new ArrayList<>()).add(resource));
+        final List<Result> results = new ArrayList<>();
+        for (List<HasMetadata> tier : tiers.values()) {
+            final List<Result> applied = join(tier.stream()
+                    .map(resource -> CompletableFuture.supplyAsync(
+                            () -> applySafely(kubernetesClient, resource, forceConflicts), executor))
+                    .toList());
+            applied.stream()
+                    .filter(result -> result.error() == null
+                            && "CustomResourceDefinition".equals(result.resource().getKind()))
+                    .forEach(result -> awaitEstablished(kubernetesClient, result.applied()));
+            results.addAll(applied);
+        }
+        if (waitTimeout == null) {
+            return results;
+        }
+        return join(results.stream().map(result -> awaitReady(kubernetesClient, result, waitTimeout)).toList());
+    }
+
+    static String report(List<Result> results) {
+        final long failed = results.stream().filter(result -> result.error() != null).count();
+        final StringBuilder report = new StringBuilder()
+                .append("Applied ").append(results.size() - failed).append(" of ").append(results.size())
+                .append(results.size() == 1 ? " resource" : " resources")
+                .append(failed > 0 ? ", " + failed + " failed" : "").append(":\n");
+        results.forEach(result -> report.append(result).append('\n'));
+        return report.toString();
+    }
+
+    private static int tier(HasMetadata resource) {
+        if (FIRST.contains(resource.getKind())) {
+            return 0;
+        }
+        return SECOND.contains(resource.getKind()) ? 1 : 2;
+    }
+
+    private static List<Result> join(List<CompletableFuture<Result>> futures) {
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static Result applySafely(KubernetesClient kubernetesClient, HasMetadata resource, boolean forceConflicts) {
+        try {
+            return new Result(resource, apply(kubernetesClient, resource, forceConflicts), null, null);
+        } catch (Exception e) {
+            return new Result(resource, null, e.getMessage(), null);
+        }
+    }
+
+    /**
+     * The kinds a CRD defines can only be applied once it's established.
+     */
+    private static void awaitEstablished(KubernetesClient kubernetesClient, HasMetadata crd) {
+        try {
+            kubernetesClient.genericKubernetesResources("apiextensions.k8s.io/v1", "CustomResourceDefinition")
+                    .withName(crd.getMetadata().getName())
+                    .waitUntilCondition(BatchApply::isEstablished, CRD_ESTABLISHED_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Log.debug("CustomResourceDefinition " + crd.getMetadata().getName() + " not established: " + e.getMessage());
+        }
+    }
+
+    private static boolean isEstablished(GenericKubernetesResource crd) {
+        if (crd == null || !(crd.get("status", "conditions") instanceof List<?> conditions)) {
+            return false;
+        }
+        return conditions.stream().anyMatch(condition -> condition instanceof Map<?, ?> map
+                && "Established".equals(map.get("type")) && "True".equals(map.get("status")));
+    }
+
+    /**
+     * The informer of the returned future is stopped once it completes, whether the workload is ready or the wait timed
+     * out.
+     */
+    private static CompletableFuture<Result> awaitReady(KubernetesClient kubernetesClient, Result result,
+            Duration timeout) {
+        if (result.error() != null || !READINESS.contains(result.applied().getKind())) {
+            return CompletableFuture.completedFuture(result);
+        }
+        final Readiness readiness = Readiness.getInstance();
+        return kubernetesClient.resource(result.applied())
+                .informOnCondition(items -> items.stream().anyMatch(readiness::isReady))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((items, e) -> new Result(result.resource(), result.applied(), null, e == null ? "ready"
+                        : unwrap(e) instanceof TimeoutException ? "not ready after " + timeout.toSeconds() + "s"
+                                : "readiness unknown: " + unwrap(e).getMessage()));
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,104 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.openshift.api.model.Route;
+
+/**
+ * Deletes the Pods, Services and Routes matching a label selector.
+ * <p>
+ * The kinds are listed concurrently and every matching resource is then deleted concurrently with background
+ * propagation, without waiting for the deletions to complete, so that cleaning up many resources takes about as long as
+ * a single request. A failed deletion doesn't stop the others, the outcome of each resource is reported instead.
+ */
+final class BulkDelete {
+
+    record Result(HasMetadata resource, String error, boolean found) {
+
+        @Override
+        public String toString() {
+            final String name = resource.getKind() + " " + resource.getMetadata().getNamespace() + "/"
+                    + resource.getMetadata().getName() + ": ";
+            if (error != null) {
+                return name + "failed: " + error;
+            }
+            return name + (found ? "deleted" : "already deleted");
+        }
+    }
+
+    private static final List<String> KINDS = List.of("Pod", "Service", "Route");
+
+    private BulkDelete() {
+    }
+
+    /**
+     * @param namespace the namespace of the resources, null for all of them
+     */
+    static List<Result> delete(KubernetesClient kubernetesClient, String namespace, String labelSelector,
+            ExecutorService executor) {
+        final List<MixedOperation<? extends HasMetadata, ? extends KubernetesResourceList<? extends HasMetadata>, ?>> kinds = new ArrayList<>();
+        kinds.add(kubernetesClient.pods());
+        kinds.add(kubernetesClient.services());
+        if (kubernetesClient.supports(Route.class)) {
+            kinds.add(kubernetesClient.resources(Route.class));
+        }
+        final List<CompletableFuture<List<? extends HasMetadata>>> lists = kinds.stream()
+                .map(kind -> CompletableFuture.<List<? extends HasMetadata>> supplyAsync(
+                        () -> inNamespace(kind, namespace).withLabelSelector(labelSelector).list().getItems(), executor))
+                .toList();
+        final List<HasMetadata> resources = new ArrayList<>();
+        try {
+            lists.forEach(list -> resources.addAll(list.join()));
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        final List<CompletableFuture<Result>> deletions = resources.stream()
+                .map(resource -> CompletableFuture.supplyAsync(() -> delete(kubernetesClient, resource), executor))
+                .toList();
+        return deletions.stream().map(CompletableFuture::join)
+                .sorted(Comparator.comparing((Result result) -> KINDS.indexOf(result.resource().getKind()))
+                        .thenComparing(result -> result.resource().getMetadata().getNamespace())
+                        .thenComparing(result -> result.resource().getMetadata().getName()))
+                .toList();
+    }
+
+    static String report(List<Result> results) {
+        final long failed = results.stream().filter(result -> result.error() != null).count();
+        final StringBuilder report = new StringBuilder()
+                .append("Deleted ").append(results.size() - failed).append(" of ").append(results.size())
+                .append(results.size() == 1 ? " resource" : " resources")
+                .append(failed > 0 ? ", " + failed + " failed" : "").append(results.isEmpty() ? "\n" : ":\n");
+        results.forEach(result -> report.append(result).append('\n'));
+        return report.toString();
+    }
+
+    private static FilterWatchListDeletable<? extends HasMetadata, ? extends KubernetesResourceList<? extends HasMetadata>, ?> inNamespace(
+            MixedOperation<? extends HasMetadata, ? extends KubernetesResourceList<? extends HasMetadata>, ?> kind, String namespace) {
+        if (namespace == null) {
+            return kind.inAnyNamespace();
+        }
+        return kind.inNamespace(namespace);
+    }
+
+    private static Result delete(KubernetesClient kubernetesClient, HasMetadata resource) {
+        try {
+            final var details = kubernetesClient.resource(resource)
+                    .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                    .delete();
+            return new Result(resource, null, !details.isEmpty());
+        } catch (RuntimeException e) {
+            return new Result(resource, e.getMessage(), true);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
+import io.fabric8.kubernetes.client.dsl.Listable;
+
+/**
+ * A whole collection of resources listed in chunks of {@link #CHUNK_SIZE} using the {@code limit} and {@code continue}
+ * LIST options.
+ * <p>
+ * The first chunk is fetched eagerly so that errors (e.g. missing permissions) surface when the list is created.
+ * The following ones are fetched while iterating, so only one chunk of resources is held in memory at a time, no matter
+ * how large the collection is. The API server serves all the chunks from the same snapshot of the collection.
+ * <p>
+ * The iterator is a {@link Cursor}, which tells the continue token listing the rest of the collection after the items
+ * returned so far, e.g. when the response is cut before the end of the collection.
+ */
+final class ChunkedList implements Iterable<HasMetadata> {
+
+    static final long CHUNK_SIZE = 500;
+
+    private final Listable<? extends KubernetesResourceList<?>> listable;
+    private final ListOptions options;
+    private final KubernetesResourceList<?> first;
+
+    private ChunkedList(Listable<? extends KubernetesResourceList<?>> listable, ListOptions options) {
+        this.listable = listable;
+        this.options = options == null ? new ListOptions() : options;
+        this.first = fetch(this.options.getContinue());
+    }
+
+    /**
+     * @param options the label and field selectors of the list and the continue token to start from, any limit is
+     *        replaced
+     */
+    static ChunkedList of(Listable<? extends KubernetesResourceList<?>> listable, ListOptions options) {
+        return new ChunkedList(listable, options);
+    }
+
+    @Override
+    public Cursor iterator() {
+        return new Cursor();
+    }
+
+    final class Cursor implements Iterator<HasMetadata> {
+        /** The continue token the current chunk was fetched with. */
+        private String chunkToken = options.getContinue();
+        private KubernetesResourceList<?> chunk = first;
+        private Iterator<? extends HasMetadata> items = first.getItems().iterator();
+        /** The number of items of the current chunk returned so far. */
+        private long returned;
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                final String next = continueToken(chunk);
+                if (next == null) {
+                    return false;
+                }
+                chunkToken = next;
+                chunk = fetch(next);
+                items = chunk.getItems().iterator();
+                returned = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public HasMetadata next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            returned++;
+            return items.next();
+        }
+
+        /**
+         * @return the continue token listing the items after those returned so far, null if there are none
+         */
+        String continueToken() {
+            if (!items.hasNext()) {
+                return ChunkedList.continueToken(chunk);
+            }
+            if (returned == 0) {
+                return chunkToken;
+            }
+            // the token after the items returned from the middle of the chunk, from the same snapshot
+            return ChunkedList.continueToken(listable.list(new ListOptionsBuilder(options)
+                    .withLimit(returned)
+                    .withContinue(chunkToken)
+                    .build()));
+        }
+    }
+
+    private KubernetesResourceList<?> fetch(String continueToken) {
+        return listable.list(new ListOptionsBuilder(options)
+                .withLimit(CHUNK_SIZE)
+                .withContinue(continueToken)
+                .build());
+    }
+
+    private static String continueToken(KubernetesResourceList<?> page) {
+        if (page.getMetadata() == null || page.getMetadata().getContinue() == null
+                || page.getMetadata().getContinue().isEmpty()) {
+            return null;
+        }
+        return page.getMetadata().getContinue();
+    }
+}
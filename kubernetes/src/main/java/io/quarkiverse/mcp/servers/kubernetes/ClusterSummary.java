@@ -0,0 +1,302 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodCondition;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.client.KubernetesClient;
+
+/**
+ * Aggregates the state of the Pods and Nodes of the cluster into a few compact tables.
+ * <p>
+ * Pods and Nodes are read from the informer cache when it's enabled, otherwise listed in chunks. Each Pod is reduced to a
+ * {@link PodRow} which is memoized by uid and resourceVersion, so that only the Pods that changed since the previous
+ * summary are processed again.
+ */
+@ApplicationScoped
+public class ClusterSummary {
+
+    private static final int MAX_REASON_LENGTH = 120;
+    private static final List<String> PHASES = List.of("Running", "Pending", "Succeeded", "Failed", "Unknown");
+
+    record PodRow(String resourceVersion, String namespace, String name, String phase, String node, int restarts,
+            String restartReason, String pendingReason, long cpuRequestMillis, long memoryRequestBytes) {
+
+        boolean isActive() {
+            return !phase.equals("Succeeded") && !phase.equals("Failed");
+        }
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    ResourceCache resourceCache;
+
+    private volatile Map<String, PodRow> rows = Map.of();
+
+    /**
+     * @param namespace only summarize the Pods of this namespace, null for all of them
+     * @param top the number of restart leaders to show
+     */
+    String summary(String namespace, int top) {
+        final StringBuilder summary = new StringBuilder();
+        final List<PodRow> pods = pods(namespace, summary);
+        podPhases(pods, summary);
+        restartLeaders(pods, top, summary);
+        pendingPods(pods, summary);
+        nodes(pods, namespace, summary);
+        return summary.toString();
+    }
+
+    private List<PodRow> pods(String namespace, StringBuilder summary) {
+        final boolean allNamespaces = namespace == null || namespace.isBlank();
+        final Optional<ResourceCache.Snapshot> cached = resourceCache.list("v1", "Pod", namespace);
+        final Iterable<? extends HasMetadata> items;
+        if (cached.isPresent()) {
+            items = cached.get().items();
+            summary.append("Source: informer cache, resourceVersion ").append(cached.get().resourceVersion())
+                    .append(cached.get().watching() ? ", watching" : ", reconnecting").append(", last change ")
+                    .append(cached.get().metadata().get("secondsSinceLastEvent")).append("s ago\n\n");
+        } else if (!allNamespaces) {
+            items = ChunkedList.of(kubernetesClient.pods().inNamespace(namespace), null);
+            summary.append("Source: API server\n\n");
+        } else {
+            Iterable<? extends HasMetadata> anyNamespace;
+            try {
+                anyNamespace = ChunkedList.of(kubernetesClient.pods().inAnyNamespace(), null);
+                summary.append("Source: API server\n\n");
+            } catch (RuntimeException e) {
+                if (!NamespaceAccess.isForbidden(e)) {
+                    throw e;
+                }
+                anyNamespace = ChunkedList.of(kubernetesClient.pods(), null);
+                summary.append("Source: API server, namespace ").append(kubernetesClient.getNamespace())
+                        .append(" only (listing Pods in all namespaces is forbidden)\n\n");
+            }
+            items = anyNamespace;
+        }
+        final Map<String, PodRow> previous = rows;
+        final Map<String, PodRow> current = new ConcurrentHashMap<>();
+        final List<PodRow> pods = new ArrayList<>();
+        for (HasMetadata item : items) {
+            final String uid = item.getMetadata().getUid();
+            PodRow row = uid == null ? null : previous.get(uid);
+            if (row == null || !row.resourceVersion().equals(item.getMetadata().getResourceVersion())) {
+                row = row(item instanceof Pod pod ? pod
+                        : kubernetesClient.getKubernetesSerialization().convertValue(item, Pod.class));
+            }
+            if (uid != null) {
+                current.put(uid, row);
+            }
+            pods.add(row);
+        }
+        // only the rows of the latest summary are kept, for the namespaces it covered
+        if (allNamespaces) {
+            rows = current;
+        } else {
+            final Map<String, PodRow> merged = new ConcurrentHashMap<>(current);
+            previous.forEach((uid, row) -> {
+                if (!namespace.equals(row.namespace())) {
+                    merged.putIfAbsent(uid, row);
+                }
+            });
+            rows = merged;
+        }
+        return pods;
+    }
+
+    /**
+     * @return the number of memoized rows of the Pods of the namespace
+     */
+    long memoizedRows(String namespace) {
+        return rows.values().stream().filter(row -> namespace.equals(row.namespace())).count();
+    }
+
+    private static PodRow row(Pod pod) {
+        final var status = pod.getStatus();
+        final String phase = status == null || status.getPhase() == null ? "Unknown" : status.getPhase();
+        int restarts = 0;
+        int mostRestarts = -1;
+        String restartReason = null;
+        String waitingReason = null;
+        if (status != null && status.getContainerStatuses() != null) {
+            for (ContainerStatus container : status.getContainerStatuses()) {
+                final int containerRestarts = container.getRestartCount() == null ? 0 : container.getRestartCount();
+                restarts += containerRestarts;
+                final String waiting = container.getState() != null && container.getState().getWaiting() != null
+                        ? container.getState().getWaiting().getReason()
+                        : null;
+                if (waiting != null && waitingReason == null) {
+                    waitingReason = waiting;
+                }
+                if (containerRestarts > mostRestarts) {
+                    mostRestarts = containerRestarts;
+                    final String lastTermination = container.getLastState() != null
+                            && container.getLastState().getTerminated() != null
+                                    ? container.getLastState().getTerminated().getReason()
+                                    : null;
+                    restartReason = waiting == null ? lastTermination
+                            : lastTermination == null ? waiting : waiting + " (last: " + lastTermination + ")";
+                }
+            }
+        }
+        String pendingReason = null;
+        if (phase.equals("Pending")) {
+            pendingReason = waitingReason;
+            if (status != null && status.getConditions() != null) {
+                for (PodCondition condition : status.getConditions()) {
+                    if ("PodScheduled".equals(condition.getType()) && "False".equals(condition.getStatus())) {
+                        pendingReason = condition.getReason()
+                                + (condition.getMessage() == null ? "" : ": " + condition.getMessage());
+                    }
+                }
+            }
+            if (pendingReason == null) {
+                pendingReason = pod.getSpec() != null && pod.getSpec().getNodeName() == null ? "Not scheduled yet"
+                        : "ContainerCreating";
+            }
+        }
+        long cpu = 0;
+        long memory = 0;
+        if (pod.getSpec() != null && pod.getSpec().getContainers() != null) {
+            for (Container container : pod.getSpec().getContainers()) {
+                cpu += request(container, "cpu", 1000);
+                memory += request(container, "memory", 1);
+            }
+            // init containers run one at a time, before the others
+            if (pod.getSpec().getInitContainers() != null) {
+                for (Container container : pod.getSpec().getInitContainers()) {
+                    cpu = Math.max(cpu, request(container, "cpu", 1000));
+                    memory = Math.max(memory, request(container, "memory", 1));
+                }
+            }
+        }
+        return new PodRow(pod.getMetadata().getResourceVersion() == null ? "" : pod.getMetadata().getResourceVersion(),
+                pod.getMetadata().getNamespace(), pod.getMetadata().getName(), phase,
+                pod.getSpec() == null ? null : pod.getSpec().getNodeName(), restarts, restartReason, pendingReason, cpu,
+                memory);
+    }
+
+    private static long request(Container container, String resource, int scale) {
+        if (container.getResources() == null || container.getResources().getRequests() == null) {
+            return 0;
+        }
+        return amount(container.getResources().getRequests().get(resource), scale);
+    }
+
+    private static long amount(Quantity quantity, int scale) {
+        if (quantity == null) {
+            return 0;
+        }
+        return Quantity.getAmountInBytes(quantity).multiply(BigDecimal.valueOf(scale)).longValue();
+    }
+
+    private static void podPhases(List<PodRow> pods, StringBuilder summary) {
+        final Map<String, int[]> namespaces = new TreeMap<>();
+        for (PodRow pod : pods) {
+            final int[] counts = namespaces.computeIfAbsent(pod.namespace(), namespace -> new int[PHASES.size() + 1]);
+            counts[0]++;
+            final int phase = PHASES.indexOf(pod.phase());
+            counts[phase < 0 ? PHASES.size() : phase + 1]++;
+        }
+        final TextTable table = new TextTable("NAMESPACE", "PODS", "RUNNING", "PENDING", "SUCCEEDED", "FAILED", "UNKNOWN");
+        // pods with an unexpected phase are counted as unknown
+        namespaces.forEach((namespace, counts) -> table.row(namespace, counts[0], counts[1], counts[2], counts[3],
+                counts[4], counts[5]));
+        summary.append("Pods by namespace (").append(pods.size()).append(" Pods)\n").append(table).append('\n');
+    }
+
+    private static void restartLeaders(List<PodRow> pods, int top, StringBuilder summary) {
+        final List<PodRow> leaders = pods.stream()
+                .filter(pod -> pod.restarts() > 0)
+                .sorted(Comparator.comparingInt(PodRow::restarts).reversed())
+                .limit(top)
+                .toList();
+        if (leaders.isEmpty()) {
+            summary.append("Restart leaders: none\n\n");
+            return;
+        }
+        final TextTable table = new TextTable("POD", "RESTARTS", "REASON");
+        leaders.forEach(pod -> table.row(pod.namespace() + "/" + pod.name(), pod.restarts(), pod.restartReason()));
+        summary.append("Restart leaders (top ").append(top).append(")\n").append(table).append('\n');
+    }
+
+    private static void pendingPods(List<PodRow> pods, StringBuilder summary) {
+        final List<PodRow> pending = pods.stream().filter(pod -> pod.pendingReason() != null).toList();
+        if (pending.isEmpty()) {
+            summary.append("Pending Pods: none\n\n");
+            return;
+        }
+        final TextTable table = new TextTable("POD", "REASON");
+        pending.forEach(pod -> table.row(pod.namespace() + "/" + pod.name(), truncate(pod.pendingReason())));
+        summary.append("Pending Pods\n").append(table).append('\n');
+    }
+
+    private void nodes(List<PodRow> pods, String namespace, StringBuilder summary) {
+        final Optional<ResourceCache.Snapshot> cached = resourceCache.list("v1", "Node", null);
+        final Iterable<? extends HasMetadata> items;
+        try {
+            items = cached.isPresent() ? cached.get().items() : ChunkedList.of(kubernetesClient.nodes(), null);
+            if (!items.iterator().hasNext()) {
+                summary.append("Nodes: none\n");
+                return;
+            }
+        } catch (RuntimeException e) {
+            summary.append("Nodes: not available (").append(e.getMessage()).append(")\n");
+            return;
+        }
+        final Map<String, long[]> requests = new TreeMap<>();
+        for (PodRow pod : pods) {
+            if (pod.node() != null && pod.isActive()) {
+                final long[] node = requests.computeIfAbsent(pod.node(), name -> new long[3]);
+                node[0]++;
+                node[1] += pod.cpuRequestMillis();
+                node[2] += pod.memoryRequestBytes();
+            }
+        }
+        final TextTable table = new TextTable("NODE", "PODS", "CPU REQUESTS", "MEMORY REQUESTS");
+        for (HasMetadata item : items) {
+            final Node node = item instanceof Node typed ? typed
+                    : kubernetesClient.getKubernetesSerialization().convertValue(item, Node.class);
+            final long[] requested = requests.getOrDefault(node.getMetadata().getName(), new long[3]);
+            final Map<String, Quantity> allocatable = node.getStatus() == null || node.getStatus().getAllocatable() == null
+                    ? Map.of()
+                    : node.getStatus().getAllocatable();
+            table.row(node.getMetadata().getName(), requested[0],
+                    usage(requested[1], amount(allocatable.get("cpu"), 1000), "m"),
+                    usage(requested[2] / (1024 * 1024), amount(allocatable.get("memory"), 1) / (1024 * 1024), "Mi"));
+        }
+        summary.append("Node allocation");
+        if (namespace != null && !namespace.isBlank()) {
+            summary.append(" (requests of the Pods of namespace ").append(namespace).append(" only)");
+        }
+        summary.append('\n').append(table);
+    }
+
+    private static String usage(long requested, long allocatable, String unit) {
+        if (allocatable <= 0) {
+            return requested + unit;
+        }
+        return requested + unit + "/" + allocatable + unit + " (" + (requested * 100 / allocatable) + "%)";
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_REASON_LENGTH ? value : value.substring(0, MAX_REASON_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,271 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventList;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.quarkus.logging.Log;
+
+/**
+ * The recent Events of each namespace, deduplicated and newest first.
+ * <p>
+ * The Events of a namespace are listed once, the first time they're requested, and then watched. Events of the same
+ * object with the same reason are merged into a single occurrence counting all of them, and only the
+ * {@link #BUFFER_SIZE} most recently seen occurrences of each namespace are kept. Namespaces whose Events haven't been
+ * requested for {@link #IDLE_TIMEOUT} stop being watched.
+ */
+@ApplicationScoped
+public class EventStream {
+
+    static final int DEFAULT_LIMIT = 30;
+    static final int BUFFER_SIZE = 500;
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+    private static final int MAX_OWNER_DEPTH = 5;
+
+    record Occurrence(String type, String reason, String object, String message, int count, Instant firstSeen,
+            Instant lastSeen) {
+    }
+
+    private static final class Buffer implements Watcher<Event> {
+
+        private final String namespace;
+        private final Map<String, Occurrence> occurrences = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Occurrence> eldest) {
+                return size() > BUFFER_SIZE;
+            }
+        };
+        // the count last seen for each Event, as the API server updates the count of repeated Events in place
+        private final Map<String, Integer> counts = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > BUFFER_SIZE * 2;
+            }
+        };
+        private volatile Watch watch;
+        private volatile boolean closed;
+        private volatile long lastAccess = System.nanoTime();
+
+        Buffer(String namespace) {
+            this.namespace = namespace;
+        }
+
+        synchronized void add(Event event) {
+            final String object = event.getInvolvedObject().getKind() + "/" + event.getInvolvedObject().getName();
+            final String key = object + "/" + event.getReason();
+            final int count = Math.max(1, Objects.requireNonNullElse(event.getCount(), 1));
+            final Integer previousCount = counts.put(event.getMetadata().getUid(), count);
+            final int added = previousCount == null ? count : Math.max(0, count - previousCount);
+            final Instant seen = lastSeen(event);
+            final Occurrence previous = occurrences.remove(key);
+            if (previous == null) {
+                occurrences.put(key, new Occurrence(event.getType(), event.getReason(), object, event.getMessage(), count,
+                        seen, seen));
+            } else {
+                final boolean newer = !seen.isBefore(previous.lastSeen());
+                occurrences.put(key, new Occurrence(newer ? event.getType() : previous.type(), event.getReason(), object,
+                        newer ? event.getMessage() : previous.message(), previous.count() + added,
+                        seen.isBefore(previous.firstSeen()) ? seen : previous.firstSeen(),
+                        newer ? seen : previous.lastSeen()));
+            }
+        }
+
+        synchronized List<Occurrence> occurrences() {
+            return List.copyOf(occurrences.values());
+        }
+
+        @Override
+        public void eventReceived(Action action, Event event) {
+            // deleted Events (expired by the API server after an hour by default) are still worth showing
+            if (action == Action.ADDED || action == Action.MODIFIED) {
+                add(event);
+            }
+        }
+
+        @Override
+        public void onClose(WatcherException cause) {
+            // e.g. the resource version is too old, the Events are listed again on the next request
+            Log.debug("Watch of the Events of " + namespace + " closed: " + cause.getMessage());
+            closed = true;
+        }
+
+        @Override
+        public void onClose() {
+            closed = true;
+        }
+
+        void close() {
+            closed = true;
+            if (watch != null) {
+                watch.close();
+            }
+        }
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    SharedExecutors executors;
+
+    private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> eviction;
+
+    /**
+     * @param objects the objects whose Events are returned (as Kind/name), null for all of them
+     * @return the most recently seen Events of the namespace as a table
+     */
+    String events(String namespace, Set<String> objects, int limit) {
+        final List<Occurrence> occurrences = buffer(namespace).occurrences().stream()
+                .filter(occurrence -> objects == null || objects.contains(occurrence.object()))
+                .sorted(Comparator.comparing(Occurrence::lastSeen).reversed())
+                .toList();
+        final Instant now = Instant.now();
+        final TextTable table = new TextTable("LAST SEEN", "TYPE", "REASON", "OBJECT", "COUNT", "MESSAGE");
+        occurrences.stream().limit(limit).forEach(occurrence -> table.row(age(occurrence.lastSeen(), now),
+                occurrence.type(), occurrence.reason(), occurrence.object(), occurrence.count(),
+                occurrence.message() == null ? null : occurrence.message().strip().replace('\n', ' ')));
+        return (occurrences.isEmpty() ? "No events" : Math.min(limit, occurrences.size()) + " of " + occurrences.size()
+                + " events, newest first") + " in namespace " + namespace
+                + (objects == null ? "" : " for " + String.join(", ", objects)) + "\n"
+                + (occurrences.isEmpty() ? "" : table.toString());
+    }
+
+    /**
+     * @return the Kind/name of the resource and of its owners, e.g. a Pod, its ReplicaSet and its Deployment
+     */
+    Set<String> withOwners(HasMetadata resource) {
+        final Set<String> objects = new LinkedHashSet<>();
+        objects.add(resource.getKind() + "/" + resource.getMetadata().getName());
+        addOwners(resource.getMetadata().getNamespace(), resource.getMetadata().getOwnerReferences(), objects, 1);
+        return objects;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        buffers.values().forEach(Buffer::close);
+        buffers.clear();
+    }
+
+    private void addOwners(String namespace, List<OwnerReference> owners, Set<String> objects, int depth) {
+        if (owners == null || depth > MAX_OWNER_DEPTH) {
+            return;
+        }
+        for (OwnerReference owner : owners) {
+            if (!objects.add(owner.getKind() + "/" + owner.getName())) {
+                continue;
+            }
+            try {
+                final var resource = kubernetesClient.genericKubernetesResources(owner.getApiVersion(), owner.getKind())
+                        .inNamespace(namespace).withName(owner.getName()).get();
+                if (resource != null) {
+                    addOwners(namespace, resource.getMetadata().getOwnerReferences(), objects, depth + 1);
+                }
+            } catch (KubernetesClientException e) {
+                // the Events of the owners found so far are still returned
+                Log.debug("Failed to get the owner " + owner.getKind() + "/" + owner.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Buffer buffer(String namespace) {
+        Buffer buffer = buffers.computeIfAbsent(namespace, this::start);
+        if (buffer.closed) {
+            buffers.remove(namespace, buffer);
+            buffer = buffers.computeIfAbsent(namespace, this::start);
+        }
+        buffer.lastAccess = System.nanoTime();
+        return buffer;
+    }
+
+    private Buffer start(String namespace) {
+        final Buffer buffer = new Buffer(namespace);
+        final var events = kubernetesClient.v1().events().inNamespace(namespace);
+        final EventList list = events.list();
+        list.getItems().stream().sorted(Comparator.comparing(EventStream::lastSeen)).forEach(buffer::add);
+        buffer.watch = events.watch(new ListOptionsBuilder()
+                .withResourceVersion(list.getMetadata().getResourceVersion()).build(), buffer);
+        scheduleEviction();
+        return buffer;
+    }
+
+    private synchronized void scheduleEviction() {
+        if (eviction != null) {
+            return;
+        }
+        eviction = executors.scheduler().scheduleWithFixedDelay(this::evictIdle, 60, 60, TimeUnit.SECONDS);
+    }
+
+    private void evictIdle() {
+        final long now = System.nanoTime();
+        buffers.forEach((namespace, buffer) -> {
+            if (now - buffer.lastAccess > IDLE_TIMEOUT.toNanos() && buffers.remove(namespace, buffer)) {
+                buffer.close();
+                Log.debug("Stopped watching the Events of " + namespace);
+            }
+        });
+    }
+
+    private static Instant lastSeen(Event event) {
+        if (event.getSeries() != null && event.getSeries().getLastObservedTime() != null) {
+            return instant(event.getSeries().getLastObservedTime().getTime());
+        }
+        if (event.getLastTimestamp() != null) {
+            return instant(event.getLastTimestamp());
+        }
+        if (event.getEventTime() != null) {
+            return instant(event.getEventTime().getTime());
+        }
+        return instant(event.getMetadata().getCreationTimestamp());
+    }
+
+    private static Instant instant(String timestamp) {
+        try {
+            return timestamp == null ? Instant.EPOCH : Instant.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private static String age(Instant instant, Instant now) {
+        if (instant.equals(Instant.EPOCH)) {
+            return "-";
+        }
+        final long seconds = Math.max(0, Duration.between(instant, now).toSeconds());
+        if (seconds < 120) {
+            return seconds + "s";
+        }
+        if (seconds < 7200) {
+            return seconds / 60 + "m";
+        }
+        return seconds < 172800 ? seconds / 3600 + "h" : seconds / 86400 + "d";
+    }
+}
@@ -0,0 +1,96 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.quarkus.logging.Log;
+
+/**
+ * Lists resources in several namespaces concurrently and merges the results as they arrive.
+ * <p>
+ * At most {@code parallelism} namespaces are being listed at any time. The items of a namespace are returned as soon as
+ * its first chunk arrived, in completion order, while the remaining namespaces are still being listed. Namespaces that
+ * fail to list are skipped.
+ */
+final class FanOutList implements Iterable<HasMetadata> {
+
+    private final List<String> namespaces;
+    private final Function<String, Iterable<HasMetadata>> list;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    FanOutList(List<String> namespaces, Function<String, Iterable<HasMetadata>> list, ExecutorService executor,
+            int parallelism) {
+        this.namespaces = namespaces;
+        this.list = list;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public Iterator<HasMetadata> iterator() {
+        final ExecutorCompletionService<Iterable<HasMetadata>> completion = new ExecutorCompletionService<>(executor);
+        final Iterator<String> pending = namespaces.iterator();
+        return new Iterator<>() {
+            private int running;
+            private Iterator<HasMetadata> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    submitPending();
+                    if (running == 0) {
+                        return false;
+                    }
+                    current = take();
+                }
+                return true;
+            }
+
+            @Override
+            public HasMetadata next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+
+            private void submitPending() {
+                while (pending.hasNext() && running < parallelism) {
+                    final String namespace = pending.next();
+                    running++;
+                    completion.submit(() -> {
+                        try {
+                            return list.apply(namespace);
+                        } catch (RuntimeException e) {
+                            Log.debug("Failed to list namespace " + namespace + ": " + e.getMessage());
+                            return List.of();
+                        }
+                    });
+                }
+            }
+
+            private Iterator<HasMetadata> take() {
+                try {
+                    return completion.take().get().iterator();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while listing namespaces", e);
+                } catch (ExecutionException e) {
+                    return Collections.emptyIterator();
+                } finally {
+                    // the next namespace is only submitted once this one is being consumed, bounding both the
+                    // concurrent requests and the number of first chunks held in memory
+                    running--;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,314 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkiverse.mcp.server.ToolCallException;
+
+/**
+ * Keeps only the requested fields of a resource.
+ * <p>
+ * Fields are JSONPath-like paths such as {@code metadata.name}, {@code .status.phase},
+ * {@code spec.containers[*].image}, {@code spec.containers[0].name} or {@code metadata.labels['app.kubernetes.io/name']}.
+ * The projected resource keeps the structure of the original one, e.g. {@code {"status":{"phase":"Running"}}}.
+ * {@code [*]} keeps every element of an array, {@code [n]} keeps only the n-th one and {@code [?(@.type=="Ready")]} keeps
+ * the elements whose key has the given value; combining them on the same array is not supported.
+ * <p>
+ * Projections without {@code [?()]} filters are applied while the resource is serialized (see {@link #tokenFilter()}),
+ * so that only the selected fields are written. A filter needs the whole array element to decide whether to keep it,
+ * so projections with filters are applied to the resource converted to a tree instead (see {@link #apply(JsonNode)}).
+ */
+final class FieldProjection {
+
+    private sealed interface Segment {
+    }
+
+    private record Key(String name) implements Segment {
+    }
+
+    private record Index(int index) implements Segment {
+    }
+
+    private record Wildcard() implements Segment {
+    }
+
+    private record Filter(String key, String value) implements Segment {
+
+        boolean matches(JsonNode element) {
+            return element.isObject() && element.hasNonNull(key) && element.get(key).asText().equals(value);
+        }
+    }
+
+    private final List<List<Segment>> paths;
+
+    private FieldProjection(List<List<Segment>> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * @return the projection of the given fields, or null if there are none (the whole resource is kept)
+     */
+    static FieldProjection of(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        final List<List<Segment>> paths = new ArrayList<>();
+        for (String field : fields) {
+            if (field != null && !field.isBlank()) {
+                paths.add(parse(field.trim()));
+            }
+        }
+        return paths.isEmpty() ? null : new FieldProjection(paths);
+    }
+
+    /**
+     * @return whether the projection can be applied while serializing, i.e. it has no {@code [?()]} filter
+     */
+    boolean isStreamable() {
+        return paths.stream().flatMap(List::stream).noneMatch(Filter.class::isInstance);
+    }
+
+    /**
+     * @return a filter for {@link com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate} writing only the fields
+     *         of the projection, only for {@link #isStreamable() streamable} projections
+     */
+    TokenFilter tokenFilter() {
+        return new PathFilter(paths);
+    }
+
+    JsonNode apply(JsonNode resource) {
+        final ObjectNode projected = JsonNodeFactory.instance.objectNode();
+        for (List<Segment> path : paths) {
+            copy(resource, projected, path, 0);
+        }
+        return projected;
+    }
+
+    /**
+     * @return the values found at the paths of the projection, e.g. the status of every Ready condition for
+     *         {@code status.conditions[?(@.type=="Ready")].status}
+     */
+    List<JsonNode> values(JsonNode resource) {
+        final List<JsonNode> values = new ArrayList<>();
+        for (List<Segment> path : paths) {
+            collect(resource, path, 0, values);
+        }
+        return values;
+    }
+
+    private static void collect(JsonNode node, List<Segment> path, int index, List<JsonNode> values) {
+        if (node == null || node.isMissingNode()) {
+            return;
+        }
+        if (index == path.size()) {
+            values.add(node);
+            return;
+        }
+        final Segment segment = path.get(index);
+        if (segment instanceof Key key) {
+            collect(node.isObject() ? node.get(key.name()) : null, path, index + 1, values);
+        } else if (segment instanceof Index selected) {
+            collect(node.isArray() ? node.get(selected.index()) : null, path, index + 1, values);
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                if (!(segment instanceof Filter filter) || filter.matches(element)) {
+                    collect(element, path, index + 1, values);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the value found at {@code path[index..]} below {@code source} into the same location below {@code target},
+     * creating the intermediate objects and arrays on the way.
+     */
+    private static void copy(JsonNode source, JsonNode target, List<Segment> path, int index) {
+        final Segment segment = path.get(index);
+        final boolean last = index == path.size() - 1;
+        if (segment instanceof Key key) {
+            final JsonNode child = source.isObject() ? source.get(key.name()) : null;
+            if (child == null || !(target instanceof ObjectNode targetObject)) {
+                return;
+            }
+            if (last || child.isValueNode() || child.isNull()) {
+                targetObject.set(key.name(), child);
+                return;
+            }
+            JsonNode targetChild = targetObject.get(key.name());
+            if (targetChild == null || targetChild.getNodeType() != child.getNodeType()) {
+                targetChild = child.isArray() ? targetObject.putArray(key.name()) : targetObject.putObject(key.name());
+            }
+            copy(child, targetChild, path, index + 1);
+            return;
+        }
+        if (!source.isArray() || !(target instanceof ArrayNode targetArray)) {
+            return;
+        }
+        if (segment instanceof Index selected) {
+            final JsonNode element = source.get(selected.index());
+            if (element != null) {
+                copyElement(element, targetArray, 0, path, index, last);
+            }
+            return;
+        }
+        if (segment instanceof Filter filter) {
+            // the matching elements are kept next to each other
+            int position = 0;
+            for (JsonNode element : source) {
+                if (filter.matches(element)) {
+                    copyElement(element, targetArray, position++, path, index, last);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < source.size(); i++) {
+            copyElement(source.get(i), targetArray, i, path, index, last);
+        }
+    }
+
+    private static void copyElement(JsonNode element, ArrayNode target, int position, List<Segment> path, int index,
+            boolean last) {
+        while (target.size() <= position) {
+            target.addNull();
+        }
+        if (last || element.isValueNode() || element.isNull()) {
+            target.set(position, element);
+            return;
+        }
+        JsonNode targetElement = target.get(position);
+        if (targetElement.getNodeType() != element.getNodeType()) {
+            targetElement = element.isArray() ? JsonNodeFactory.instance.arrayNode() : JsonNodeFactory.instance.objectNode();
+            target.set(position, targetElement);
+        }
+        copy(element, targetElement, path, index + 1);
+    }
+
+    /**
+     * Keeps the values at the remaining segments of the paths, and everything below the values they end at.
+     */
+    private static final class PathFilter extends TokenFilter {
+
+        private final List<List<Segment>> remaining;
+
+        PathFilter(List<List<Segment>> remaining) {
+            this.remaining = remaining;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return next(segment -> segment instanceof Key key && key.name().equals(name));
+        }
+
+        @Override
+        public TokenFilter includeElement(int index) {
+            return next(segment -> segment instanceof Wildcard
+                    || (segment instanceof Index selected && selected.index() == index));
+        }
+
+        @Override
+        protected boolean _includeScalar() {
+            // a scalar where the path goes on, e.g. metadata.name.first
+            return false;
+        }
+
+        private TokenFilter next(Predicate<Segment> matches) {
+            final List<List<Segment>> next = new ArrayList<>();
+            for (List<Segment> path : remaining) {
+                if (matches.test(path.get(0))) {
+                    if (path.size() == 1) {
+                        return TokenFilter.INCLUDE_ALL;
+                    }
+                    next.add(path.subList(1, path.size()));
+                }
+            }
+            return next.isEmpty() ? null : new PathFilter(next);
+        }
+    }
+
+    private static List<Segment> parse(String field) {
+        String path = field;
+        if (path.startsWith("{") && path.endsWith("}")) {
+            // kubectl style {.metadata.name}
+            path = path.substring(1, path.length() - 1);
+        }
+        final List<Segment> segments = new ArrayList<>();
+        int i = 0;
+        while (i < path.length()) {
+            final char c = path.charAt(i);
+            if (c == '.') {
+                i++;
+            } else if (c == '[') {
+                final int close = closingBracket(path, i, field);
+                final String inside = path.substring(i + 1, close).trim();
+                if (inside.equals("*")) {
+                    segments.add(new Wildcard());
+                } else if (inside.startsWith("?(") && inside.endsWith(")")) {
+                    segments.add(filter(inside.substring(2, inside.length() - 1).trim(), field));
+                } else if (inside.length() >= 2 && (inside.charAt(0) == '\'' || inside.charAt(0) == '"')
+                        && inside.charAt(inside.length() - 1) == inside.charAt(0)) {
+                    segments.add(new Key(inside.substring(1, inside.length() - 1)));
+                } else {
+                    try {
+                        segments.add(new Index(Integer.parseInt(inside)));
+                    } catch (NumberFormatException e) {
+                        throw new ToolCallException("Invalid field '" + field + "': unsupported selector [" + inside + "]",
+                                null);
+                    }
+                }
+                i = close + 1;
+            } else {
+                int end = i;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                segments.add(new Key(path.substring(i, end)));
+                i = end;
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new ToolCallException("Invalid field '" + field + "'", null);
+        }
+        return segments;
+    }
+
+    /**
+     * Parses {@code @.key=="value"} (single quotes and a single = are accepted too).
+     */
+    private static Filter filter(String expression, String field) {
+        final int equals = expression.indexOf('=');
+        if (!expression.startsWith("@.") || equals < 0) {
+            throw new ToolCallException("Invalid field '" + field + "': unsupported filter " + expression, null);
+        }
+        final String key = expression.substring(2, equals).trim();
+        String value = expression.substring(expression.charAt(equals + 1) == '=' ? equals + 2 : equals + 1).trim();
+        if (value.length() >= 2 && (value.charAt(0) == '\'' || value.charAt(0) == '"')
+                && value.charAt(value.length() - 1) == value.charAt(0)) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return new Filter(key, value);
+    }
+
+    private static int closingBracket(String path, int open, String field) {
+        char quote = 0;
+        for (int i = open + 1; i < path.length(); i++) {
+            final char c = path.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == ']') {
+                return i;
+            }
+        }
+        throw new ToolCallException("Invalid field '" + field + "': missing ]", null);
+    }
+}
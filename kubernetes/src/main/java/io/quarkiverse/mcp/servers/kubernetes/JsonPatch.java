@@ -0,0 +1,92 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.Iterator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Computes the JSON Patch (RFC 6902) turning a JSON document into another.
+ * <p>
+ * The patch isn't minimal for arrays: elements appended to or removed from the end of an array are patched individually,
+ * and so are the elements of arrays of the same size, any other change replaces the whole array.
+ */
+final class JsonPatch {
+
+    private JsonPatch() {
+    }
+
+    static ArrayNode diff(JsonNode source, JsonNode target) {
+        final ArrayNode operations = JsonNodeFactory.instance.arrayNode();
+        diff("", source, target, operations);
+        return operations;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            final Iterator<String> names = source.fieldNames();
+            while (names.hasNext()) {
+                final String name = names.next();
+                if (!target.has(name)) {
+                    operation(operations, "remove", path + "/" + escape(name), null);
+                }
+            }
+            final Iterator<String> targetNames = target.fieldNames();
+            while (targetNames.hasNext()) {
+                final String name = targetNames.next();
+                if (source.has(name)) {
+                    diff(path + "/" + escape(name), source.get(name), target.get(name), operations);
+                } else {
+                    operation(operations, "add", path + "/" + escape(name), target.get(name));
+                }
+            }
+        } else if (source.isArray() && target.isArray() && isPrefix(source, target)) {
+            final int common = Math.min(source.size(), target.size());
+            for (int i = common; i < target.size(); i++) {
+                operation(operations, "add", path + "/" + i, target.get(i));
+            }
+            // removed from the last one so that the indexes of the remaining ones don't change
+            for (int i = source.size() - 1; i >= common; i--) {
+                operation(operations, "remove", path + "/" + i, null);
+            }
+        } else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+            for (int i = 0; i < source.size(); i++) {
+                diff(path + "/" + i, source.get(i), target.get(i), operations);
+            }
+        } else {
+            operation(operations, "replace", path, target);
+        }
+    }
+
+    /**
+     * @return whether the shorter array is the beginning of the longer one
+     */
+    private static boolean isPrefix(JsonNode source, JsonNode target) {
+        if (source.size() == target.size()) {
+            return false;
+        }
+        final int common = Math.min(source.size(), target.size());
+        for (int i = 0; i < common; i++) {
+            if (!source.get(i).equals(target.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void operation(ArrayNode operations, String op, String path, JsonNode value) {
+        final ObjectNode operation = operations.addObject().put("op", op).put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,158 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.fabric8.kubernetes.api.model.NamedContext;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.http.HttpClient;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import io.quarkiverse.mcp.server.ToolCallException;
+import io.quarkus.logging.Log;
+
+/**
+ * Kubernetes clients for the contexts of the kubeconfig other than the current one.
+ * <p>
+ * The client of a context is created the first time the context is used and closed once it hasn't been used for the
+ * configured idle timeout. All of them share a single HTTP client factory, the worker executor of the server and the
+ * serialization of the client of the current context, so that another context only costs its own connections.
+ */
+@ApplicationScoped
+public class KubernetesContexts {
+
+    record Context(String name, String cluster, String user, String namespace, boolean current, boolean connected) {
+    }
+
+    private static final class Entry {
+        final KubernetesClient client;
+        volatile long lastAccess = System.nanoTime();
+
+        Entry(KubernetesClient client) {
+            this.client = client;
+        }
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    SharedExecutors executors;
+
+    @ConfigProperty(name = "kubernetes.contexts.idle-timeout", defaultValue = "10m")
+    Duration idleTimeout;
+
+    private final Map<String, Entry> clients = new ConcurrentHashMap<>();
+    private HttpClient.Factory httpClientFactory;
+    private ScheduledFuture<?> eviction;
+
+    /**
+     * @param context the name of the context, null for the current one
+     */
+    KubernetesClient client(String context) {
+        return client(context, Duration.ZERO);
+    }
+
+    /**
+     * @param inUseFor how long the client is going to be used for, e.g. by a port forwarding, it isn't evicted until then
+     */
+    KubernetesClient client(String context, Duration inUseFor) {
+        if (isCurrent(context)) {
+            return kubernetesClient;
+        }
+        final Entry entry = clients.computeIfAbsent(context, this::create);
+        entry.lastAccess = Math.max(entry.lastAccess, System.nanoTime() + inUseFor.toNanos());
+        return entry.client;
+    }
+
+    boolean isCurrent(String context) {
+        return context == null || context.isBlank() || context.equals(currentContext());
+    }
+
+    List<Context> contexts() {
+        final String current = currentContext();
+        return contexts(kubernetesClient.getConfiguration()).stream()
+                .map(context -> new Context(context.getName(),
+                        context.getContext() == null ? null : context.getContext().getCluster(),
+                        context.getContext() == null ? null : context.getContext().getUser(),
+                        context.getContext() == null ? null : context.getContext().getNamespace(),
+                        context.getName().equals(current),
+                        context.getName().equals(current) || clients.containsKey(context.getName())))
+                .toList();
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        clients.values().forEach(entry -> entry.client.close());
+        clients.clear();
+    }
+
+    private String currentContext() {
+        final NamedContext current = kubernetesClient.getConfiguration().getCurrentContext();
+        return current == null ? null : current.getName();
+    }
+
+    private Entry create(String context) {
+        final List<NamedContext> known = contexts(kubernetesClient.getConfiguration());
+        if (known.stream().noneMatch(namedContext -> namedContext.getName().equals(context))) {
+            throw new ToolCallException("Unknown context " + context + (known.isEmpty() ? ", the kubeconfig has no contexts"
+                    : ", the available ones are: " + String.join(", ", known.stream().map(NamedContext::getName).toList())),
+                    null);
+        }
+        final KubernetesClient client = new KubernetesClientBuilder()
+                .withConfig(Config.autoConfigure(context))
+                .withHttpClientFactory(httpClientFactory())
+                .withTaskExecutor(executors.worker())
+                .withKubernetesSerialization(kubernetesClient.getKubernetesSerialization())
+                .build();
+        scheduleEviction();
+        Log.debug("Created the Kubernetes client for the context " + context);
+        return new Entry(client);
+    }
+
+    private static List<NamedContext> contexts(Config config) {
+        return Objects.requireNonNullElse(config.getContexts(), List.<NamedContext> of()).stream()
+                .filter(context -> context.getName() != null)
+                .toList();
+    }
+
+    private synchronized HttpClient.Factory httpClientFactory() {
+        if (httpClientFactory == null) {
+            httpClientFactory = HttpClientUtils.getHttpClientFactory();
+        }
+        return httpClientFactory;
+    }
+
+    private synchronized void scheduleEviction() {
+        if (eviction != null) {
+            return;
+        }
+        final long period = Math.max(1, Math.min(idleTimeout.toSeconds(), 60));
+        eviction = executors.scheduler().scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    private void evictIdle() {
+        final long now = System.nanoTime();
+        clients.forEach((context, entry) -> {
+            if (now - entry.lastAccess > idleTimeout.toNanos() && clients.remove(context, entry)) {
+                entry.client.close();
+                Log.debug("Closed the idle Kubernetes client for the context " + context);
+            }
+        });
+    }
+}
@@ -1,13 +1,25 @@
 package io.quarkiverse.mcp.servers.kubernetes;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import javax.annotation.Priority;
 
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.quarkiverse.mcp.server.Content;
 import io.quarkiverse.mcp.server.TextContent;
 import io.quarkiverse.mcp.server.ToolResponse;
 import io.quarkiverse.mcp.server.ToolResponseEncoder;
@@ -16,17 +28,86 @@ import io.quarkiverse.mcp.server.ToolResponseEncoder;
 @Priority(1)
 public class KubernetesResourceEncoder implements ToolResponseEncoder<Object> {
 
+    // the encoder is created when the server starts, the client only once a tool returns something to encode
+    @Inject
+    Instance<KubernetesClient> kubernetesClient;
+
     @Inject
-    KubernetesClient kubernetesClient;
+    ObjectMapperCustomizer objectMapperCustomizer;
+
+    @ConfigProperty(name = "kubernetes.list.max-response-size", defaultValue = "1048576")
+    int maxResponseSize;
 
     @Override
     public boolean supports(Class<?> runtimeType) {
         return true;
     }
 
+    /**
+     * Lists are cut once their items exceed the maximum response size, so that the response held in memory doesn't grow
+     * with the collection. The items of a collection listed in chunks can be resumed with a continue token, the other
+     * ones can only be narrowed down.
+     */
     @Override
     public ToolResponse encode(Object value) {
-        return new ToolResponse(false, List.of(new TextContent(
-                kubernetesClient.getKubernetesSerialization().asJson(value))));
+        if (value instanceof ListResult result) {
+            final var serialization = kubernetesClient.get().getKubernetesSerialization();
+            final List<Content> contents = new ArrayList<>();
+            final var projection = FieldProjection.of(result.fields());
+            final Map<String, Object> metadata = new LinkedHashMap<>(
+                    result.metadata() == null ? Map.of() : result.metadata());
+            final var json = new StringBuilder().append('[');
+            try {
+                final Iterator<?> items = result.items().iterator();
+                int count = 0;
+                while (items.hasNext()) {
+                    if (count > 0) {
+                        json.append(',');
+                    }
+                    final Object item = items.next();
+                    json.append(projection == null ? objectMapperCustomizer.asJson(item)
+                            : objectMapperCustomizer.asJson(item, projection));
+                    count++;
+                    if (json.length() >= maxResponseSize && items.hasNext()) {
+                        truncated(metadata, count, items);
+                        break;
+                    }
+                }
+            } catch (KubernetesClientException | JsonProcessingException | IllegalArgumentException e) {
+                return ToolResponse.error("Failed to list resources: " + e.getMessage());
+            }
+            contents.add(new TextContent(json.append(']').toString()));
+            if (!metadata.isEmpty()) {
+                contents.add(new TextContent(serialization.asJson(metadata)));
+            }
+            return new ToolResponse(false, contents);
+        }
+        if (value instanceof String text) {
+            // tools returning either a resource or a message
+            return new ToolResponse(false, List.of(new TextContent(text)));
+        }
+        // make sure the client, and thus its ObjectMapper, was initialized
+        kubernetesClient.get().getKubernetesSerialization();
+        try {
+            return new ToolResponse(false, List.of(new TextContent(objectMapperCustomizer.asJson(value))));
+        } catch (JsonProcessingException e) {
+            return ToolResponse.error("Failed to serialize the response: " + e.getMessage());
+        }
+    }
+
+    private static void truncated(Map<String, Object> metadata, int count, Iterator<?> items) {
+        metadata.put("truncated", true);
+        metadata.put("returnedItems", count);
+        metadata.remove("remainingItemCount");
+        if (items instanceof ChunkedList.Cursor cursor) {
+            metadata.put("continue", Objects.requireNonNullElse(cursor.continueToken(), ""));
+            metadata.put("message", "The response was cut after " + count
+                    + " items, pass the continue token to list the next ones");
+        } else {
+            // the continue token of a page would skip the items that were cut
+            metadata.remove("continue");
+            metadata.put("message", "The response was cut after " + count
+                    + " items, use a smaller limit, selectors or fields to list fewer resources");
+        }
     }
 }
@@ -0,0 +1,23 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Items returned by a list tool together with metadata describing the list, such as where it was read from and the
+ * resourceVersion it reflects.
+ * <p>
+ * {@link KubernetesResourceEncoder} encodes the items as the first content of the tool response, exactly like a plain
+ * collection, and the metadata, when there is any, as a second content. When fields are provided, only those fields of
+ * each item are encoded (see {@link FieldProjection}).
+ * <p>
+ * Items may be fetched lazily while they're encoded (see {@link ChunkedList}), they're then encoded one by one so that
+ * they can be garbage collected as soon as they're written. The response itself is cut once it reaches
+ * {@code kubernetes.list.max-response-size}, with a continue token to resume the items of a {@link ChunkedList}.
+ */
+public record ListResult(Iterable<?> items, Map<String, Object> metadata, List<String> fields) {
+
+    public ListResult(Iterable<?> items, Map<String, Object> metadata) {
+        this(items, metadata, null);
+    }
+}
@@ -1,36 +1,55 @@
 ///usr/bin/env jbang "$0" "$@" ; exit $?
 package io.quarkiverse.mcp.servers.kubernetes;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 //JAVA 17+
 //DEPS io.quarkus:quarkus-bom:3.18.1@pom
 //DEPS io.quarkus:quarkus-kubernetes-client
 //DEPS io.quarkiverse.mcp:quarkus-mcp-server-stdio:1.0.0.Beta1
 //DEPS io.fabric8:openshift-model
 import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.GenericKubernetesResourceList;
 import io.fabric8.kubernetes.api.model.HasMetadata;
-import io.fabric8.kubernetes.api.model.Namespace;
-import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.api.model.ServiceSpecBuilder;
 import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.Listable;
+import io.fabric8.kubernetes.client.dsl.Loggable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.ResourceDefinitionContext;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
 import io.fabric8.openshift.api.model.RouteSpecBuilder;
+import io.quarkiverse.mcp.server.McpConnection;
+import io.quarkiverse.mcp.server.McpLog;
 import io.quarkiverse.mcp.server.Tool;
 import io.quarkiverse.mcp.server.ToolArg;
 import io.quarkiverse.mcp.server.ToolCallException;
-import io.quarkus.logging.Log;
-import io.quarkus.runtime.Startup;
 
 @SuppressWarnings("unused")
 @ApplicationScoped
@@ -42,79 +61,250 @@ public class MCPServerKubernetes {
     private static final String KUBERNETES_PART_OF = "app.kubernetes.io/part-of";
     private static final String MCP_SERVER_NAME = "mcp-server-kubernetes";
     private static final String MCP_SERVER_APP_GROUP = "mcp-kubernetes-run-sandbox";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String API_VERSION_DESCRIPTION = "apiVersion of the resources (examples of valid apiVersion are: v1, apps/v1, networking.k8s.io/v1). "
+            + "Optional, the preferred version of the kind is used if not provided";
+    private static final String KIND_DESCRIPTION = "kind of the resources, its plural or short name are accepted too "
+            + "(examples of valid kind are: Pod, Service, Deployment, Ingress, deploy, svc)";
+    private static final String LABEL_SELECTOR_DESCRIPTION = "Label selector to filter the resources (e.g. app=nginx,tier!=frontend or environment in (prod,staging))";
+    private static final String FIELD_SELECTOR_DESCRIPTION = "Field selector to filter the resources (e.g. status.phase=Running or metadata.name=my-pod)";
+    private static final String LIMIT_DESCRIPTION = "Maximum number of resources to return, the response then includes a continue token if there are more";
+    private static final String CONTINUE_DESCRIPTION = "The continue token returned by a previous call with a limit or cut short, to fetch the next resources";
+    private static final String CONTAINER_DESCRIPTION = "Name of the container to get the logs from (Optional, required if the Pod has several containers)";
+    private static final String TAIL_LINES_DESCRIPTION = "Number of lines to return from the end of the log (default " + PodLogs.DEFAULT_TAIL_LINES
+            + " unless sinceSeconds is provided)";
+    private static final String SINCE_SECONDS_DESCRIPTION = "Only return the lines logged during the last given seconds";
+    private static final String PREVIOUS_DESCRIPTION = "Return the logs of the previous, terminated, container instance (e.g. after a crash)";
+    private static final String MAX_BYTES_DESCRIPTION = "Maximum number of bytes of log to return (default " + PodLogs.DEFAULT_MAX_BYTES
+            + ", at most " + PodLogs.MAX_BYTES_LIMIT + ")";
+    private static final String FOLLOW_DESCRIPTION = "Follow the log, sending new lines as log notifications until followSeconds elapse";
+    private static final String FOLLOW_SECONDS_DESCRIPTION = "How long to follow the log in seconds (default " + PodLogs.DEFAULT_FOLLOW_SECONDS
+            + ", at most " + PodLogs.MAX_FOLLOW_SECONDS + ")";
+    private static final int MAX_LOG_PODS = 50;
+    private static final int DEFAULT_RESTART_LEADERS = 10;
+    private static final String SORT_BY_DESCRIPTION = "Sort by cpu or memory (default cpu)";
+    private static final String DIFF_DESCRIPTION = "Return only what changed since the resource was last returned in this session, "
+            + "as \"unchanged\" or a JSON Patch, instead of the whole resource";
+    private static final String SINCE_RESOURCE_VERSION_DESCRIPTION = "The resourceVersion of the resource already returned in this session, "
+            + "to return only what changed since that version, as \"unchanged\" or a JSON Patch";
+    static final int PARALLELISM = 8;
+    private static final String CONTEXT_DESCRIPTION = "Name of the kubeconfig context of the cluster to use (Optional, the current context if not provided), "
+            + "see contexts_list";
+    private static final ApiDiscovery.ApiResource PODS = new ApiDiscovery.ApiResource("Pod", "v1", "pods", true, List.of("po"),
+            List.of(), true);
+    private static final String FIELDS_DESCRIPTION = "Fields to include for each resource instead of the whole resource, as JSONPath-like paths "
+            + "(e.g. metadata.name, status.phase, spec.containers[*].image, metadata.labels['app.kubernetes.io/name'])";
 
     @Inject
     KubernetesClient kubernetesClient;
 
-    @Startup
-    void init() {
-        Log.info("Starting Kubernetes server with master URL: " + kubernetesClient.getConfiguration().getMasterUrl());
-    }
+    @Inject
+    ResourceCache resourceCache;
+
+    @Inject
+    NamespaceAccess namespaceAccess;
+
+    @Inject
+    ApiDiscovery apiDiscovery;
+
+    @Inject
+    ClusterSummary clusterSummary;
+
+    @Inject
+    ResourceMetrics resourceMetrics;
+
+    @Inject
+    PortForwards portForwards;
+
+    @Inject
+    ResponseHistory responseHistory;
+
+    @Inject
+    EventStream eventStream;
+
+    @Inject
+    KubernetesContexts kubernetesContexts;
+
+    @Inject
+    SharedExecutors executors;
 
     @Tool(description = "Get the current Kubernetes configuration")
-    public Config configuration_get() {
+    public Config configuration_get(
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
         try {
-            return kubernetesClient.getConfiguration();
+            return kubernetesContexts.client(context).getConfiguration();
         } catch (Exception e) {
             throw new ToolCallException("Failed to get configuration: " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "List Kubernetes resources in the current cluster by providing their apiVersion and kind and optionally the namespace")
-    public Collection<GenericKubernetesResource> resources_list(
-            @ToolArg(description = "apiVersion of the resources (examples of valid apiVersion are: v1, apps/v1, networking.k8s.io/v1") String apiVersion,
-            @ToolArg(description = "kind of the resources (examples of valid kind are: Pod, Service, Deployment, Ingress)") String kind,
-            @ToolArg(description = "Namespace to retrieve the namespaced resources from (ignored in case of cluster scoped resources)", required = false) String namespace) {
+    @Tool(description = "List the contexts of the kubeconfig, i.e. the clusters and users the other tools can use with their context argument")
+    public List<KubernetesContexts.Context> contexts_list() {
+        try {
+            return kubernetesContexts.contexts();
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to list the contexts: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "List the kinds of resources served by the current cluster with their apiVersion, plural, short names, "
+            + "supported verbs and whether they are namespaced (similar to kubectl api-resources)")
+    public List<ApiDiscovery.ApiResource> api_resources(
+            @ToolArg(description = "Only return the resources whose kind, plural, short name or apiVersion contain this text (e.g. deploy, networking.k8s.io)", required = false) String filter) {
+        try {
+            return apiDiscovery.resources(filter);
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to discover the API resources: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "List Kubernetes resources in the current cluster by providing their apiVersion and kind and optionally the namespace. "
+            + "Results can be filtered with label and field selectors, paginated with limit and continue, "
+            + "and reduced to the given fields")
+    public ListResult resources_list(
+            @ToolArg(description = API_VERSION_DESCRIPTION, required = false) String apiVersion,
+            @ToolArg(description = KIND_DESCRIPTION) String kind,
+            @ToolArg(description = "Namespace to retrieve the namespaced resources from (ignored in case of cluster scoped resources)", required = false) String namespace,
+            @ToolArg(description = LABEL_SELECTOR_DESCRIPTION, required = false) String labelSelector,
+            @ToolArg(description = FIELD_SELECTOR_DESCRIPTION, required = false) String fieldSelector,
+            @ToolArg(description = LIMIT_DESCRIPTION, required = false) Integer limit,
+            @ToolArg(name = "continue", description = CONTINUE_DESCRIPTION, required = false) String continueToken,
+            @ToolArg(description = FIELDS_DESCRIPTION, required = false) List<String> fields,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
+        try {
+            final var apiResource = resolve(context, apiVersion, kind);
+            final var options = listOptions(labelSelector, fieldSelector, limit, continueToken);
+            final var cached = options == null && kubernetesContexts.isCurrent(context)
+                    ? resourceCache.list(apiResource.apiVersion(), apiResource.kind(), apiResource.namespaced() ? namespace : null)
+                    : Optional.<ResourceCache.Snapshot> empty();
+            if (cached.isPresent()) {
+                return new ListResult(cached.get().items(), cached.get().metadata(), fields);
+            }
+            final var resource = genericResources(client, apiResource);
+            if (!apiResource.namespaced()) {
+                return list(resource, options, fields);
+            }
+            if (namespace != null && !namespace.isBlank()) {
+                return list(resource.inNamespace(namespace), options, fields);
+            }
+            return listAllNamespaces(apiResource, kubernetesContexts.isCurrent(context), resource.inAnyNamespace(),
+                    resource::inNamespace, resource, options, fields);
+        } catch (ToolCallException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to get resources for " + apiVersion + " " + kind + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "List one page of Kubernetes resources in the current cluster by providing their apiVersion and kind and optionally the namespace. "
+            + "The response includes a continue token to pass to the next call, it's empty once the last page was returned")
+    public ListResult resources_list_page(
+            @ToolArg(description = API_VERSION_DESCRIPTION, required = false) String apiVersion,
+            @ToolArg(description = KIND_DESCRIPTION) String kind,
+            @ToolArg(description = "Namespace to retrieve the namespaced resources from (ignored in case of cluster scoped resources)", required = false) String namespace,
+            @ToolArg(description = LABEL_SELECTOR_DESCRIPTION, required = false) String labelSelector,
+            @ToolArg(description = FIELD_SELECTOR_DESCRIPTION, required = false) String fieldSelector,
+            @ToolArg(description = "Maximum number of resources in the page (default " + DEFAULT_PAGE_SIZE + ")", required = false) Integer pageSize,
+            @ToolArg(name = "continue", description = CONTINUE_DESCRIPTION, required = false) String continueToken,
+            @ToolArg(description = FIELDS_DESCRIPTION, required = false) List<String> fields,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
         try {
-            final var resource = kubernetesClient.genericKubernetesResources(apiVersion, kind);
+            final var apiResource = resolve(context, apiVersion, kind);
+            final var options = listOptions(labelSelector, fieldSelector, pageSize == null ? DEFAULT_PAGE_SIZE : pageSize,
+                    continueToken);
+            final var resource = genericResources(client, apiResource);
+            if (!apiResource.namespaced()) {
+                return page(resource, options, fields, true);
+            }
             if (namespace != null && !namespace.isBlank()) {
-                return resource.inNamespace(namespace).list().getItems();
+                return page(resource.inNamespace(namespace), options, fields, true);
             }
             try {
-                return resource.inAnyNamespace().list().getItems();
+                return page(resource.inAnyNamespace(), options, fields, true);
             } catch (Exception e) {
-                return resource.list().getItems();
+                return page(resource, options, fields, true);
             }
+        } catch (ToolCallException e) {
+            throw e;
         } catch (Exception e) {
             throw new ToolCallException("Failed to get resources for " + apiVersion + " " + kind + ": " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "Get a Kubernetes resource in the current cluster by providing its apiVersion, kind, optionally the namespace, and its name")
-    public GenericKubernetesResource resources_get(
-            @ToolArg(description = "apiVersion of the resources (examples of valid apiVersion are: v1, apps/v1, networking.k8s.io/v1") String apiVersion,
-            @ToolArg(description = "kind of the resources (examples of valid kind are: Pod, Service, Deployment, Ingress)") String kind,
+    @Tool(description = "Get a Kubernetes resource in the current cluster by providing its apiVersion, kind, optionally the namespace, and its name. "
+            + "When checking the same resource repeatedly, use diff to get only what changed")
+    public Object resources_get(
+            @ToolArg(description = API_VERSION_DESCRIPTION, required = false) String apiVersion,
+            @ToolArg(description = KIND_DESCRIPTION) String kind,
             @ToolArg(description = "Namespace to retrieve the namespaced resource from (ignored in case of cluster scoped resources)", required = false) String namespace,
-            @ToolArg(description = "Name of the resource", required = false) String name) {
+            @ToolArg(description = "Name of the resource", required = false) String name,
+            @ToolArg(description = DIFF_DESCRIPTION, required = false) Boolean diff,
+            @ToolArg(description = SINCE_RESOURCE_VERSION_DESCRIPTION, required = false) String sinceResourceVersion,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context,
+            McpConnection connection) {
+        final var client = kubernetesContexts.client(context);
+        final var apiResource = resolve(context, apiVersion, kind);
         try {
-            return kubernetesClient.genericKubernetesResources(apiVersion, kind)
-                    .inNamespace(namespace == null ? kubernetesClient.getNamespace() : namespace)
+            return responseHistory.respond(connection.id(), context, genericResources(client, apiResource)
+                    .inNamespace(namespace == null ? client.getNamespace() : namespace)
                     .withName(name)
-                    .get();
+                    .get(), sinceResourceVersion, Boolean.TRUE.equals(diff));
         } catch (Exception e) {
             throw new ToolCallException("Failed to get the resource for " + apiVersion + " " + kind + ": " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "Create or update a Kubernetes resource in the current cluster by providing a YAML or JSON representation of the resource")
-    public HasMetadata resources_create_or_update(
-            @ToolArg(description = "A JSON or YAML containing a representation of the Kubernetes resource. Should include top-level fields such as apiVersion,kind,metadata, and spec") String resource) {
+    @Tool(description = "Create or update one or more Kubernetes resources in the current cluster with server-side apply by providing "
+            + "a YAML or JSON representation of them. Several resources can be applied at once as YAML documents separated by --- "
+            + "or as a List, Namespaces and CustomResourceDefinitions are applied first and the rest concurrently. "
+            + "Returns the resource when a single one is applied, otherwise the outcome of each of them")
+    public Object resources_create_or_update(
+            @ToolArg(description = "A JSON or YAML containing a representation of the Kubernetes resources. Each should include top-level fields such as apiVersion,kind,metadata, and spec") String resource,
+            @ToolArg(description = "Wait for the applied Deployments, StatefulSets, ReplicaSets and Pods to be ready", required = false) Boolean waitForReady,
+            @ToolArg(description = "How long to wait for the resources to be ready in seconds (default " + BatchApply.DEFAULT_WAIT_SECONDS
+                    + ", at most " + BatchApply.MAX_WAIT_SECONDS + ")", required = false) Integer waitTimeoutSeconds,
+            @ToolArg(description = "Take over the fields managed by other field managers (e.g. kubectl or a controller) when they conflict "
+                    + "(Optional, conflicting resources fail by default)", required = false) Boolean forceConflicts,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
+        final List<HasMetadata> resources;
         try {
-            return kubernetesClient.resource(resource).createOr(NonDeletingOperation::update);
+            resources = BatchApply.parse(client, resource);
         } catch (Exception e) {
-            throw new ToolCallException("Failed to create or update the resource: " + e.getMessage(), e);
+            throw new ToolCallException("Failed to parse the resources: " + e.getMessage(), e);
+        }
+        if (resources.isEmpty()) {
+            throw new ToolCallException("No resources to create or update", null);
+        }
+        final boolean wait = Boolean.TRUE.equals(waitForReady);
+        if (resources.size() == 1 && !wait) {
+            try {
+                return BatchApply.apply(client, resources.get(0), Boolean.TRUE.equals(forceConflicts));
+            } catch (Exception e) {
+                throw new ToolCallException("Failed to create or update the resource: " + e.getMessage(), e);
+            }
         }
+        final Duration waitTimeout = !wait ? null
+                : Duration.ofSeconds(waitTimeoutSeconds == null || waitTimeoutSeconds <= 0 ? BatchApply.DEFAULT_WAIT_SECONDS
+                        : Math.min(waitTimeoutSeconds, BatchApply.MAX_WAIT_SECONDS));
+        return BatchApply.report(BatchApply.apply(client, resources, Boolean.TRUE.equals(forceConflicts),
+                executors.worker(), waitTimeout));
     }
 
     @Tool(description = "Delete a Kubernetes resource in the current cluster by providing its apiVersion, kind, optionally the namespace, and its name")
     public String resources_delete(
-            @ToolArg(description = "apiVersion of the resources (examples of valid apiVersion are: v1, apps/v1, networking.k8s.io/v1") String apiVersion,
-            @ToolArg(description = "kind of the resources (examples of valid kind are: Pod, Service, Deployment, Ingress)") String kind,
+            @ToolArg(description = API_VERSION_DESCRIPTION, required = false) String apiVersion,
+            @ToolArg(description = KIND_DESCRIPTION) String kind,
             @ToolArg(description = "Namespace to retrieve the namespaced resource from (ignored in case of cluster scoped resources)", required = false) String namespace,
-            @ToolArg(description = "Name of the resource", required = false) String name) {
+            @ToolArg(description = "Name of the resource", required = false) String name,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
+        final var apiResource = resolve(context, apiVersion, kind);
         try {
-            kubernetesClient.genericKubernetesResources(apiVersion, kind)
-                    .inNamespace(namespace == null ? kubernetesClient.getNamespace() : namespace)
+            genericResources(client, apiResource)
+                    .inNamespace(namespace == null ? client.getNamespace() : namespace)
                     .withName(name)
                     .withTimeout(10, TimeUnit.SECONDS)
                     .delete();
@@ -125,46 +315,183 @@ public class MCPServerKubernetes {
         }
     }
 
+    @Tool(description = "Wait until a Kubernetes resource reaches a condition, watching it instead of polling it. "
+            + "Conditions are: ready (Pods, Deployments, StatefulSets, DaemonSets, Jobs and resources with a Ready or Available condition), "
+            + "rollout (Deployments, StatefulSets and DaemonSets), deleted, or a JSONPath condition such as {.status.phase}=Running "
+            + "or {.status.conditions[?(@.type==\"Ready\")].status}=True. Progress is reported as log notifications")
+    public String wait_for(
+            @ToolArg(description = API_VERSION_DESCRIPTION, required = false) String apiVersion,
+            @ToolArg(description = KIND_DESCRIPTION) String kind,
+            @ToolArg(description = "Namespace of the resource (ignored in case of cluster scoped resources)", required = false) String namespace,
+            @ToolArg(description = "Name of the resource") String name,
+            @ToolArg(description = "The condition to wait for (default ready)", required = false) String condition,
+            @ToolArg(description = "How long to wait in seconds (default " + WaitFor.DEFAULT_TIMEOUT_SECONDS + ", at most "
+                    + WaitFor.MAX_TIMEOUT_SECONDS + ")", required = false) Integer timeoutSeconds,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context,
+            McpLog log) {
+        final var client = kubernetesContexts.client(context);
+        final var apiResource = resolve(context, apiVersion, kind);
+        final var effectiveNamespace = namespace == null ? client.getNamespace() : namespace;
+        final var resource = genericResources(client, apiResource).inNamespace(effectiveNamespace).withName(name);
+        final var serialization = client.getKubernetesSerialization();
+        return WaitFor.await(resource,
+                apiResource.kind() + " " + (apiResource.namespaced() ? effectiveNamespace + "/" : "") + name,
+                condition,
+                Duration.ofSeconds(timeoutSeconds == null || timeoutSeconds <= 0 ? WaitFor.DEFAULT_TIMEOUT_SECONDS
+                        : Math.min(timeoutSeconds, WaitFor.MAX_TIMEOUT_SECONDS)),
+                current -> serialization.convertValue(current, JsonNode.class),
+                log);
+    }
+
+    @Tool(description = "Summarize the state of the current cluster as compact tables: Pod phase counts per namespace, "
+            + "the Pods with the most restarts, the reasons Pods are pending, and the CPU and memory requested on each Node "
+            + "versus what it can allocate. Prefer it over listing Pods to find crash-looping or pending Pods")
+    public String cluster_summary(
+            @ToolArg(description = "Only summarize the Pods of this namespace (Optional, all namespaces if not provided)", required = false) String namespace,
+            @ToolArg(description = "Number of Pods with the most restarts to show (default " + DEFAULT_RESTART_LEADERS + ")", required = false) Integer top) {
+        try {
+            return clusterSummary.summary(namespace, top == null || top <= 0 ? DEFAULT_RESTART_LEADERS : top);
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to summarize the cluster: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Get the recent Events of a namespace, newest first, with the repeated Events of an object merged into one line "
+            + "with their count. Optionally only the Events of one object and of its owners (e.g. a Pod, its ReplicaSet and its Deployment)")
+    public String events(
+            @ToolArg(description = "Namespace of the Events (Optional, current namespace if not provided)", required = false) String namespace,
+            @ToolArg(description = "Kind of the object to get the Events of (Optional, Pod if only the name is provided)", required = false) String kind,
+            @ToolArg(description = "Name of the object to get the Events of (Optional, all the Events of the namespace if not provided)", required = false) String name,
+            @ToolArg(description = "Number of Events to return (default " + EventStream.DEFAULT_LIMIT + ")", required = false) Integer limit) {
+        final var effectiveNamespace = isBlank(namespace) ? kubernetesClient.getNamespace() : namespace;
+        Set<String> objects = null;
+        if (!isBlank(name)) {
+            final var apiResource = apiDiscovery.resolve(null, isBlank(kind) ? "Pod" : kind);
+            try {
+                final var resource = genericResources(kubernetesClient, apiResource).inNamespace(effectiveNamespace).withName(name).get();
+                // the Events of a deleted object are still returned
+                objects = resource == null ? Set.of(apiResource.kind() + "/" + name) : eventStream.withOwners(resource);
+            } catch (Exception e) {
+                throw new ToolCallException("Failed to get the " + apiResource.kind() + " " + name + ": " + e.getMessage(), e);
+            }
+        }
+        try {
+            return eventStream.events(effectiveNamespace, objects,
+                    limit == null || limit <= 0 ? EventStream.DEFAULT_LIMIT : limit);
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to get the events: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Show the Pods using the most CPU or memory (similar to kubectl top pods), from the metrics API. "
+            + "The last samples of each Pod are shown too, to see whether the usage grows")
+    public String top_pods(
+            @ToolArg(description = "Namespace of the Pods (Optional, all namespaces if not provided)", required = false) String namespace,
+            @ToolArg(description = LABEL_SELECTOR_DESCRIPTION, required = false) String labelSelector,
+            @ToolArg(description = SORT_BY_DESCRIPTION, required = false) String sortBy,
+            @ToolArg(description = "Number of Pods to return (default " + ResourceMetrics.DEFAULT_LIMIT + ")", required = false) Integer limit) {
+        try {
+            return resourceMetrics.topPods(namespace, labelSelector, sortBy(sortBy), metricsLimit(limit));
+        } catch (ToolCallException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to get the Pod metrics: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Show the Nodes using the most CPU or memory with the percentage of what they can allocate "
+            + "(similar to kubectl top nodes), from the metrics API")
+    public String top_nodes(
+            @ToolArg(description = SORT_BY_DESCRIPTION, required = false) String sortBy,
+            @ToolArg(description = "Number of Nodes to return (default " + ResourceMetrics.DEFAULT_LIMIT + ")", required = false) Integer limit) {
+        try {
+            return resourceMetrics.topNodes(sortBy(sortBy), metricsLimit(limit));
+        } catch (ToolCallException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to get the Node metrics: " + e.getMessage(), e);
+        }
+    }
+
     @Tool(description = "List all the Kubernetes namespaces in the current cluster")
-    public Collection<Namespace> namespaces_list() {
+    public ListResult namespaces_list(
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
         try {
-            return kubernetesClient.namespaces().list().getItems();
+            final var cached = kubernetesContexts.isCurrent(context) ? resourceCache.list("v1", "Namespace", null)
+                    : Optional.<ResourceCache.Snapshot> empty();
+            if (cached.isPresent()) {
+                return new ListResult(cached.get().items(), cached.get().metadata());
+            }
+            return new ListResult(client.namespaces().list().getItems(), Map.of());
         } catch (Exception e) {
             throw new ToolCallException("Failed to list namespaces: " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "List all the Kubernetes pods in the current cluster")
-    public Collection<Pod> pods_list() {
+    @Tool(description = "List all the Kubernetes pods in the current cluster, optionally filtered with label and field selectors, "
+            + "paginated with limit and continue, and reduced to the given fields")
+    public ListResult pods_list(
+            @ToolArg(description = LABEL_SELECTOR_DESCRIPTION, required = false) String labelSelector,
+            @ToolArg(description = FIELD_SELECTOR_DESCRIPTION, required = false) String fieldSelector,
+            @ToolArg(description = LIMIT_DESCRIPTION, required = false) Integer limit,
+            @ToolArg(name = "continue", description = CONTINUE_DESCRIPTION, required = false) String continueToken,
+            @ToolArg(description = FIELDS_DESCRIPTION, required = false) List<String> fields,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
+        final var options = listOptions(labelSelector, fieldSelector, limit, continueToken);
+        final var cached = options == null && kubernetesContexts.isCurrent(context) ? resourceCache.list("v1", "Pod", null)
+                : Optional.<ResourceCache.Snapshot> empty();
+        if (cached.isPresent()) {
+            return new ListResult(cached.get().items(), cached.get().metadata(), fields);
+        }
         try {
-            return kubernetesClient.pods().inAnyNamespace().list().getItems();
+            final var pods = client.pods();
+            return listAllNamespaces(PODS, kubernetesContexts.isCurrent(context), pods.inAnyNamespace(), pods::inNamespace, pods,
+                    options, fields);
+        } catch (ToolCallException e) {
+            throw e;
         } catch (Exception e) {
-            try {
-                return kubernetesClient.pods().list().getItems();
-            } catch (Exception e2) {
-                throw new ToolCallException("Failed to list pods: " + e2.getMessage(), e2);
-            }
+            throw new ToolCallException("Failed to list pods: " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "List all the Kubernetes pods in the specified namespace in the current cluster")
-    public Collection<Pod> pods_list_in_namespace(@ToolArg(description = "Namespace to list pods from") String namespace) {
+    @Tool(description = "List all the Kubernetes pods in the specified namespace in the current cluster, optionally filtered with label and field selectors, "
+            + "paginated with limit and continue, and reduced to the given fields")
+    public ListResult pods_list_in_namespace(
+            @ToolArg(description = "Namespace to list pods from") String namespace,
+            @ToolArg(description = LABEL_SELECTOR_DESCRIPTION, required = false) String labelSelector,
+            @ToolArg(description = FIELD_SELECTOR_DESCRIPTION, required = false) String fieldSelector,
+            @ToolArg(description = LIMIT_DESCRIPTION, required = false) Integer limit,
+            @ToolArg(name = "continue", description = CONTINUE_DESCRIPTION, required = false) String continueToken,
+            @ToolArg(description = FIELDS_DESCRIPTION, required = false) List<String> fields,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
         try {
-            return kubernetesClient.pods().inNamespace(namespace).list().getItems();
+            return list(client.pods().inNamespace(namespace), listOptions(labelSelector, fieldSelector, limit, continueToken),
+                    fields);
+        } catch (ToolCallException e) {
+            throw e;
         } catch (Exception e) {
             throw new ToolCallException("Failed to list pods in namespace: " + e.getMessage(), e);
         }
     }
 
-    @Tool(description = "Get a Kubernetes Pod in the current namespace with the provided name")
-    public Pod pods_get(
+    @Tool(description = "Get a Kubernetes Pod in the current namespace with the provided name. "
+            + "When checking the same Pod repeatedly, use diff to get only what changed")
+    public Object pods_get(
             @ToolArg(description = "Namespace to get the Pod from", required = false) String namespace,
-            @ToolArg(description = "Name of the Pod", required = false) String name) {
+            @ToolArg(description = "Name of the Pod", required = false) String name,
+            @ToolArg(description = DIFF_DESCRIPTION, required = false) Boolean diff,
+            @ToolArg(description = SINCE_RESOURCE_VERSION_DESCRIPTION, required = false) String sinceResourceVersion,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context,
+            McpConnection connection) {
+        final var client = kubernetesContexts.client(context);
         try {
-            return kubernetesClient.pods()
-                    .inNamespace(namespace == null ? kubernetesClient.getNamespace() : namespace)
+            return responseHistory.respond(connection.id(), context, client.pods()
+                    .inNamespace(namespace == null ? client.getNamespace() : namespace)
                     .withName(name)
-                    .get();
+                    .get(), sinceResourceVersion, Boolean.TRUE.equals(diff));
         } catch (Exception e) {
             throw new ToolCallException("Failed to get pod: " + e.getMessage(), e);
         }
@@ -173,67 +500,256 @@ public class MCPServerKubernetes {
     @Tool(description = "Delete a Kubernetes Pod in the current namespace with the provided name")
     public String pods_delete(
             @ToolArg(description = "Namespace to delete the Pod from", required = false) String namespace,
-            @ToolArg(description = "Name of the Pod to delete") String name) {
+            @ToolArg(description = "Name of the Pod to delete") String name,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
         try {
-            final var effectiveNamespace = namespace == null ? kubernetesClient.getNamespace() : namespace;
-            final var podResource = kubernetesClient.pods()
+            final var effectiveNamespace = namespace == null ? client.getNamespace() : namespace;
+            final var podResource = client.pods()
                     .inNamespace(effectiveNamespace)
                     .withName(name);
             final var currentPod = podResource.get();
             final var isManaged = currentPod != null && currentPod.getMetadata().getLabels()
                     .getOrDefault(KUBERNETES_MANAGED_BY, "").equals(MCP_SERVER_NAME);
+            // the Service and Route exposing a Pod started by pods_run are deleted along with it, concurrently
+            final List<CompletableFuture<?>> deletions = new ArrayList<>();
             if (isManaged) {
-                kubernetesClient.services().inNamespace(effectiveNamespace)
+                deletions.add(CompletableFuture.runAsync(() -> client.services().inNamespace(effectiveNamespace)
                         .withLabel(KUBERNETES_MANAGED_BY, MCP_SERVER_NAME)
                         .withLabel(KUBERNETES_NAME, currentPod.getMetadata().getLabels().get(KUBERNETES_NAME))
                         .withTimeout(10, TimeUnit.SECONDS)
-                        .delete();
+                        .delete(), executors.worker()));
             }
-            if (isManaged && kubernetesClient.supports(Route.class)) {
-                kubernetesClient.resources(Route.class).inNamespace(effectiveNamespace)
+            if (isManaged && client.supports(Route.class)) {
+                deletions.add(CompletableFuture.runAsync(() -> client.resources(Route.class).inNamespace(effectiveNamespace)
                         .withLabel(KUBERNETES_MANAGED_BY, MCP_SERVER_NAME)
                         .withLabel(KUBERNETES_NAME, currentPod.getMetadata().getLabels().get(KUBERNETES_NAME))
                         .withTimeout(10, TimeUnit.SECONDS)
-                        .delete();
+                        .delete(), executors.worker()));
             }
-            podResource.withTimeout(10, TimeUnit.SECONDS).delete();
+            deletions.add(CompletableFuture.runAsync(() -> podResource.withTimeout(10, TimeUnit.SECONDS).delete(),
+                    executors.worker()));
+            CompletableFuture.allOf(deletions.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new ToolCallException("Failed to delete Pod: " + e.getCause().getMessage(), e.getCause());
         } catch (Exception e) {
             throw new ToolCallException("Failed to delete Pod: " + e.getMessage(), e);
         }
         return "Pod deleted successfully";
     }
 
-    @Tool(description = "Get the logs of a Kubernetes Pod in the current namespace with the provided name")
+    @Tool(description = "Delete all the Pods started by pods_run, with their Services and Routes, concurrently. "
+            + "Returns the outcome of each deletion, the resources are removed in the background")
+    public String cleanup_sandbox(
+            @ToolArg(description = "Namespace to delete the resources from (Optional, all namespaces if not provided)", required = false) String namespace,
+            @ToolArg(description = "Additional label selector to only delete some of the resources (e.g. app.kubernetes.io/name=my-pod)", required = false) String labelSelector,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
+        final var selector = KUBERNETES_PART_OF + "=" + MCP_SERVER_APP_GROUP
+                + (isBlank(labelSelector) ? "" : "," + labelSelector);
+        try {
+            return BulkDelete.report(
+                    BulkDelete.delete(client, isBlank(namespace) ? null : namespace, selector, executors.worker()));
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to clean up the sandbox: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Get the logs of a Kubernetes Pod in the current namespace with the provided name. "
+            + "Returns the last lines of the log by default, or streams new lines as log notifications in follow mode")
     public String pods_log(
             @ToolArg(description = "Namespace to get the Pod from", required = false) String namespace,
-            @ToolArg(description = "Name of the Pod", required = false) String name) {
+            @ToolArg(description = "Name of the Pod", required = false) String name,
+            @ToolArg(description = CONTAINER_DESCRIPTION, required = false) String container,
+            @ToolArg(description = TAIL_LINES_DESCRIPTION, required = false) Integer tailLines,
+            @ToolArg(description = SINCE_SECONDS_DESCRIPTION, required = false) Integer sinceSeconds,
+            @ToolArg(description = PREVIOUS_DESCRIPTION, required = false) Boolean previous,
+            @ToolArg(description = MAX_BYTES_DESCRIPTION, required = false) Integer maxBytes,
+            @ToolArg(description = FOLLOW_DESCRIPTION, required = false) Boolean follow,
+            @ToolArg(description = FOLLOW_SECONDS_DESCRIPTION, required = false) Integer followSeconds,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context,
+            McpLog log) {
+        final var client = kubernetesContexts.client(context);
         try {
-            return kubernetesClient.pods()
-                    .inNamespace(namespace == null ? kubernetesClient.getNamespace() : namespace)
-                    .withName(name)
-                    .limitBytes(512)
-                    .getLog();
+            final var options = PodLogs.Options.of(container, tailLines, sinceSeconds, previous, maxBytes);
+            final var pod = client.pods()
+                    .inNamespace(namespace == null ? client.getNamespace() : namespace)
+                    .withName(name);
+            if (Boolean.TRUE.equals(follow)) {
+                return PodLogs.follow(Map.of(String.valueOf(name), PodLogs.loggable(pod, options)), followDuration(followSeconds),
+                        options.maxBytes(), executors.streams(), log);
+            }
+            return PodLogs.read(pod, options);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ToolCallException("Interrupted while following logs for pod", e);
         } catch (Exception e) {
             throw new ToolCallException("Failed to get logs for pod: " + e.getMessage(), e);
         }
     }
 
+    @Tool(description = "Get the logs of all the Kubernetes Pods matching a label selector, fetched concurrently. "
+            + "Returns the last lines of each log by default, or streams new lines prefixed by the Pod name as log notifications in follow mode")
+    public String pods_log_by_label(
+            @ToolArg(description = "Namespace to get the Pods from", required = false) String namespace,
+            @ToolArg(description = "Label selector of the Pods (e.g. app=nginx)") String labelSelector,
+            @ToolArg(description = CONTAINER_DESCRIPTION, required = false) String container,
+            @ToolArg(description = TAIL_LINES_DESCRIPTION, required = false) Integer tailLines,
+            @ToolArg(description = SINCE_SECONDS_DESCRIPTION, required = false) Integer sinceSeconds,
+            @ToolArg(description = PREVIOUS_DESCRIPTION, required = false) Boolean previous,
+            @ToolArg(description = MAX_BYTES_DESCRIPTION + " for each Pod", required = false) Integer maxBytes,
+            @ToolArg(description = FOLLOW_DESCRIPTION, required = false) Boolean follow,
+            @ToolArg(description = FOLLOW_SECONDS_DESCRIPTION, required = false) Integer followSeconds,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context,
+            McpLog log) {
+        final var client = kubernetesContexts.client(context);
+        try {
+            final var options = PodLogs.Options.of(container, tailLines, sinceSeconds, previous, maxBytes);
+            final var pods = client.pods()
+                    .inNamespace(namespace == null ? client.getNamespace() : namespace);
+            final var names = pods.list(new ListOptionsBuilder().withLabelSelector(labelSelector).build()).getItems().stream()
+                    .map(pod -> pod.getMetadata().getName())
+                    .sorted()
+                    .toList();
+            if (names.isEmpty()) {
+                return "No Pods match the label selector " + labelSelector;
+            }
+            if (names.size() > MAX_LOG_PODS) {
+                throw new ToolCallException(names.size() + " Pods match the label selector " + labelSelector
+                        + ", please use a more specific selector (at most " + MAX_LOG_PODS + " Pods)", null);
+            }
+            if (Boolean.TRUE.equals(follow)) {
+                final Map<String, Loggable> sources = new LinkedHashMap<>();
+                names.forEach(podName -> sources.put(podName, PodLogs.loggable(pods.withName(podName), options)));
+                return PodLogs.follow(sources, followDuration(followSeconds), (long) options.maxBytes() * names.size(),
+                        executors.streams(), log);
+            }
+            final var logs = names.stream()
+                    .map(podName -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return PodLogs.read(pods.withName(podName), options);
+                        } catch (Exception e) {
+                            return "Failed to get logs: " + e.getMessage();
+                        }
+                    }, executors.worker()))
+                    .toList();
+            final var result = new StringBuilder();
+            for (int i = 0; i < names.size(); i++) {
+                final var podLog = logs.get(i).join();
+                result.append("==> ").append(names.get(i)).append(" <==\n").append(podLog);
+                if (!podLog.isEmpty() && !podLog.endsWith("\n")) {
+                    result.append('\n');
+                }
+            }
+            return result.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ToolCallException("Interrupted while following logs for pods", e);
+        } catch (ToolCallException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to get logs for pods: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Execute a command in a container of a running Kubernetes Pod and return its exit code, output and error. "
+            + "Only the last bytes of the output and error are kept when they exceed maxBytes")
+    public String pods_exec(
+            @ToolArg(description = "Namespace of the Pod", required = false) String namespace,
+            @ToolArg(description = "Name of the Pod") String name,
+            @ToolArg(description = "Name of the container to run the command in (Optional, required if the Pod has several containers)", required = false) String container,
+            @ToolArg(description = "The command and its arguments, e.g. [\"ls\", \"-l\", \"/tmp\"] (use [\"sh\", \"-c\", \"...\"] for pipes and redirections)") List<String> command,
+            @ToolArg(description = "How long to wait for the command to complete in seconds (default " + PodExec.DEFAULT_TIMEOUT_SECONDS
+                    + ", at most " + PodExec.MAX_TIMEOUT_SECONDS + ")", required = false) Integer timeoutSeconds,
+            @ToolArg(description = "Maximum number of bytes of output and of error to return (default " + PodExec.DEFAULT_MAX_BYTES
+                    + ", at most " + PodExec.MAX_BYTES_LIMIT + ")", required = false) Integer maxBytes,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        if (command == null || command.isEmpty()) {
+            throw new ToolCallException("command is required", null);
+        }
+        final var client = kubernetesContexts.client(context);
+        try {
+            final var pod = client.pods()
+                    .inNamespace(namespace == null ? client.getNamespace() : namespace)
+                    .withName(name);
+            return PodExec.exec(pod, container, command,
+                    Duration.ofSeconds(timeoutSeconds == null || timeoutSeconds <= 0 ? PodExec.DEFAULT_TIMEOUT_SECONDS
+                            : Math.min(timeoutSeconds, PodExec.MAX_TIMEOUT_SECONDS)),
+                    maxBytes == null || maxBytes <= 0 ? PodExec.DEFAULT_MAX_BYTES
+                            : Math.min(maxBytes, PodExec.MAX_BYTES_LIMIT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ToolCallException("Interrupted while executing the command in the pod", e);
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to execute the command in the pod: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Forward a local port to a port of a Kubernetes Pod or Service, so that it can be reached on localhost. "
+            + "The forwarding lasts until port_forward_stop is called or its duration elapses")
+    public String port_forward(
+            @ToolArg(description = "Namespace of the Pod or Service", required = false) String namespace,
+            @ToolArg(description = "Name of the Pod or Service") String name,
+            @ToolArg(description = "Pod or Service (default Pod)", required = false) String kind,
+            @ToolArg(description = "The port of the Pod or Service to forward to") Integer port,
+            @ToolArg(description = "The local port to listen on (Optional, a random free port if not provided)", required = false) Integer localPort,
+            @ToolArg(description = "How long to keep forwarding in seconds (default " + PortForwards.DEFAULT_DURATION_SECONDS
+                    + ", at most " + PortForwards.MAX_DURATION_SECONDS + ")", required = false) Integer durationSeconds,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        if (port == null || port <= 0) {
+            throw new ToolCallException("port is required", null);
+        }
+        final var duration = Duration.ofSeconds(durationSeconds == null || durationSeconds <= 0
+                ? PortForwards.DEFAULT_DURATION_SECONDS
+                : Math.min(durationSeconds, PortForwards.MAX_DURATION_SECONDS));
+        // the client of another context must outlive the forwarding
+        final var client = kubernetesContexts.client(context, duration);
+        final var effectiveNamespace = namespace == null ? client.getNamespace() : namespace;
+        final boolean service = kind != null && kind.trim().equalsIgnoreCase("Service");
+        try {
+            final var session = portForwards.start(
+                    service ? client.services().inNamespace(effectiveNamespace).withName(name)
+                            : client.pods().inNamespace(effectiveNamespace).withName(name),
+                    (service ? "service " : "pod ") + effectiveNamespace + "/" + name, port,
+                    localPort == null || localPort < 0 ? 0 : localPort, duration);
+            return "Forwarding " + session;
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to forward the port: " + e.getMessage(), e);
+        }
+    }
+
+    @Tool(description = "Stop a port forwarding started with port_forward")
+    public String port_forward_stop(
+            @ToolArg(description = "The id of the port forwarding returned by port_forward") String id) {
+        final var session = portForwards.stop(id);
+        if (session == null) {
+            final var active = portForwards.sessions();
+            throw new ToolCallException("No port forwarding with id " + id + (active.isEmpty() ? ", there are none active"
+                    : ", the active ones are:\n" + active.stream().map(Object::toString).collect(Collectors.joining("\n"))),
+                    null);
+        }
+        return "Stopped " + session.id() + " (localhost:" + session.forward().getLocalPort() + " -> " + session.target() + ":"
+                + session.port() + ")";
+    }
+
     @Tool(description = "Run a Kubernetes Pod in the current namespace with the provided container image and optional name")
     public Collection<HasMetadata> pods_run(
             @ToolArg(description = "Namespace to run the Pod in", required = false) String namespace,
             @ToolArg(description = "Name of the Pod (Optional, random name if not provided)", required = false) String name,
             @ToolArg(description = "Container Image to run in the Pod") String image,
-            @ToolArg(description = "TCP/IP port to expose from the Pod container (Optional, no port exposed if not provided)", required = false) Integer port) {
+            @ToolArg(description = "TCP/IP port to expose from the Pod container (Optional, no port exposed if not provided)", required = false) Integer port,
+            @ToolArg(description = CONTEXT_DESCRIPTION, required = false) String context) {
+        final var client = kubernetesContexts.client(context);
         try {
             final Collection<HasMetadata> createdResources = new ArrayList<>();
             final var effectiveName = name == null ? "mcp-kubernetes-pod-" + System.currentTimeMillis() : name;
-            final var effectiveNamespace = namespace == null ? kubernetesClient.getNamespace() : namespace;
+            final var effectiveNamespace = namespace == null ? client.getNamespace() : namespace;
             final var labels = Map.of(
                     KUBERNETES_NAME, effectiveName,
                     KUBERNETES_COMPONENT, effectiveName,
                     KUBERNETES_MANAGED_BY, MCP_SERVER_NAME,
                     KUBERNETES_PART_OF, MCP_SERVER_APP_GROUP);
-            final var runCommand = kubernetesClient.run()
+            final var runCommand = client.run()
                     .inNamespace(effectiveNamespace)
                     .withName(effectiveName)
                     .withImage(image)
@@ -251,9 +767,9 @@ public class MCPServerKubernetes {
                                 .withProtocol("TCP").endPort()
                                 .build())
                         .build();
-                createdResources.add(kubernetesClient.resource(service).unlock().createOr(NonDeletingOperation::update));
+                createdResources.add(client.resource(service).unlock().createOr(NonDeletingOperation::update));
             }
-            if (port != null && kubernetesClient.supports(Route.class)) {
+            if (port != null && client.supports(Route.class)) {
                 final var route = new RouteBuilder()
                         .withNewMetadata().withName(effectiveName).withNamespace(effectiveNamespace).withLabels(labels)
                         .endMetadata()
@@ -263,7 +779,7 @@ public class MCPServerKubernetes {
                                 .withNewTls().withTermination("edge").withInsecureEdgeTerminationPolicy("Redirect").endTls()
                                 .build())
                         .build();
-                createdResources.add(kubernetesClient.resource(route).unlock().createOr(NonDeletingOperation::update));
+                createdResources.add(client.resource(route).unlock().createOr(NonDeletingOperation::update));
             }
             createdResources.add(runCommand.done());
             return createdResources;
@@ -271,4 +787,138 @@ public class MCPServerKubernetes {
             throw new ToolCallException("Failed to run pod: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * @return the options of a LIST request, or null if none of them is set
+     */
+    private static ListOptions listOptions(String labelSelector, String fieldSelector, Integer limit, String continueToken) {
+        if (isBlank(labelSelector) && isBlank(fieldSelector) && limit == null && isBlank(continueToken)) {
+            return null;
+        }
+        if (limit != null && limit <= 0) {
+            throw new ToolCallException("limit must be a positive number", null);
+        }
+        return new ListOptionsBuilder()
+                .withLabelSelector(isBlank(labelSelector) ? null : labelSelector)
+                .withFieldSelector(isBlank(fieldSelector) ? null : fieldSelector)
+                .withLimit(limit == null ? null : limit.longValue())
+                .withContinue(isBlank(continueToken) ? null : continueToken)
+                .build();
+    }
+
+    /**
+     * Lists the resources across all namespaces. When that's forbidden, lists them concurrently in each namespace the user
+     * is allowed to list them from, or only in the current namespace if there is none. The namespaces the user is allowed
+     * to list them from are only reviewed in the current context.
+     */
+    private ListResult listAllNamespaces(ApiDiscovery.ApiResource apiResource, boolean currentContext,
+            Listable<? extends KubernetesResourceList<?>> anyNamespace,
+            Function<String, Listable<? extends KubernetesResourceList<?>>> inNamespace,
+            Listable<? extends KubernetesResourceList<?>> currentNamespace,
+            ListOptions options, List<String> fields) {
+        // a continue token of a cut response resumes the cluster-wide list it was returned for
+        final boolean wholeCollection = options == null || (options.getLimit() == null && options.getContinue() == null);
+        if (!wholeCollection || !currentContext
+                || !namespaceAccess.isClusterWideForbidden(apiResource.apiVersion(), apiResource.kind())) {
+            try {
+                return list(anyNamespace, options, fields);
+            } catch (Exception e) {
+                if (!NamespaceAccess.isForbidden(e) || !wholeCollection || !currentContext) {
+                    return list(currentNamespace, options, fields);
+                }
+                namespaceAccess.clusterWideForbidden(apiResource.apiVersion(), apiResource.kind());
+            }
+        }
+        final var namespaces = namespaceAccess.listableNamespaces(apiResource.group(),
+                apiResource.plural() == null ? apiResource.kind().toLowerCase(Locale.ROOT) + "s" : apiResource.plural(),
+                executors.worker());
+        if (namespaces.isEmpty()) {
+            return list(currentNamespace, options, fields);
+        }
+        final var merged = new FanOutList(namespaces, namespace -> ChunkedList.of(inNamespace.apply(namespace), options),
+                executors.worker(), PARALLELISM);
+        return new ListResult(merged, Map.of("namespaces", namespaces), fields);
+    }
+
+    /**
+     * Resolves the kind with the API discovery of the current context. The resources of the other contexts aren't
+     * discovered, their apiVersion is required and the client resolves them itself.
+     */
+    private ApiDiscovery.ApiResource resolve(String context, String apiVersion, String kind) {
+        if (kubernetesContexts.isCurrent(context)) {
+            return apiDiscovery.resolve(apiVersion, kind);
+        }
+        if (isBlank(apiVersion) || isBlank(kind)) {
+            throw new ToolCallException("apiVersion and kind are required when using the context " + context, null);
+        }
+        return ApiDiscovery.ApiResource.undiscovered(apiVersion, kind);
+    }
+
+    /**
+     * Uses the discovered resource definition so that the client doesn't need to discover it again on each request.
+     */
+    private static MixedOperation<GenericKubernetesResource, GenericKubernetesResourceList, Resource<GenericKubernetesResource>> genericResources(
+            KubernetesClient client, ApiDiscovery.ApiResource apiResource) {
+        if (apiResource.plural() == null) {
+            return client.genericKubernetesResources(apiResource.apiVersion(), apiResource.kind());
+        }
+        return client.genericKubernetesResources(new ResourceDefinitionContext.Builder()
+                .withGroup(apiResource.group())
+                .withVersion(apiResource.version())
+                .withKind(apiResource.kind())
+                .withPlural(apiResource.plural())
+                .withNamespaced(apiResource.namespaced())
+                .build());
+    }
+
+    /**
+     * Lists the resources, either the single page requested with a limit or the whole collection in chunks.
+     */
+    private static ListResult list(Listable<? extends KubernetesResourceList<?>> listable, ListOptions options,
+            List<String> fields) {
+        if (options == null || options.getLimit() == null) {
+            return new ListResult(ChunkedList.of(listable, options), Map.of(), fields);
+        }
+        return page(listable, options, fields, false);
+    }
+
+    private static ListResult page(Listable<? extends KubernetesResourceList<?>> listable, ListOptions options,
+            List<String> fields, boolean alwaysIncludeContinue) {
+        final var list = listable.list(options);
+        final var continueToken = list.getMetadata() == null ? null : list.getMetadata().getContinue();
+        final Map<String, Object> metadata = new LinkedHashMap<>();
+        if (!isBlank(continueToken) || alwaysIncludeContinue) {
+            metadata.put("continue", isBlank(continueToken) ? "" : continueToken);
+        }
+        if (!isBlank(continueToken) && list.getMetadata().getRemainingItemCount() != null) {
+            metadata.put("remainingItemCount", list.getMetadata().getRemainingItemCount());
+        }
+        return new ListResult(list.getItems(), metadata, fields);
+    }
+
+    private static ResourceMetrics.SortBy sortBy(String sortBy) {
+        if (isBlank(sortBy)) {
+            return ResourceMetrics.SortBy.CPU;
+        }
+        try {
+            return ResourceMetrics.SortBy.valueOf(sortBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ToolCallException("Invalid sortBy " + sortBy + ", expected cpu or memory", e);
+        }
+    }
+
+    private static int metricsLimit(Integer limit) {
+        return limit == null || limit <= 0 ? ResourceMetrics.DEFAULT_LIMIT : limit;
+    }
+
+    private static Duration followDuration(Integer followSeconds) {
+        if (followSeconds == null || followSeconds <= 0) {
+            return Duration.ofSeconds(PodLogs.DEFAULT_FOLLOW_SECONDS);
+        }
+        return Duration.ofSeconds(Math.min(followSeconds, PodLogs.MAX_FOLLOW_SECONDS));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
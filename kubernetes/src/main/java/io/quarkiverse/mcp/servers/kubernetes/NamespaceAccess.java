@@ -0,0 +1,149 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.fabric8.kubernetes.api.model.authorization.v1.ResourceRule;
+import io.fabric8.kubernetes.api.model.authorization.v1.SelfSubjectRulesReviewBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.quarkus.logging.Log;
+
+/**
+ * Finds the namespaces in which the current user may list a given resource, for when listing it across all namespaces
+ * is forbidden.
+ * <p>
+ * The candidate namespaces are all the namespaces of the cluster when they can be listed, otherwise the configured ones
+ * and the current namespace. The rules of the user in each candidate namespace are obtained with a
+ * SelfSubjectRulesReview and cached, as are the resources for which a cluster-wide list was forbidden, so that the
+ * failing request isn't repeated on every call.
+ */
+@ApplicationScoped
+public class NamespaceAccess {
+
+    private record Rules(List<ResourceRule> rules, long fetchedAt) {
+    }
+
+    private record Candidates(List<String> namespaces, long fetchedAt) {
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @ConfigProperty(name = "kubernetes.namespaces")
+    Optional<List<String>> configuredNamespaces;
+
+    @ConfigProperty(name = "kubernetes.access-review.ttl", defaultValue = "5m")
+    Duration ttl;
+
+    private final Map<String, Rules> rules = new ConcurrentHashMap<>();
+    private final Map<String, Long> clusterWideForbidden = new ConcurrentHashMap<>();
+    private volatile Candidates candidates;
+
+    /**
+     * @return whether a previous attempt to list the resource across all namespaces was forbidden
+     */
+    boolean isClusterWideForbidden(String apiVersion, String kind) {
+        final Long forbiddenAt = clusterWideForbidden.get(apiVersion + "/" + kind);
+        return forbiddenAt != null && !expired(forbiddenAt);
+    }
+
+    void clusterWideForbidden(String apiVersion, String kind) {
+        clusterWideForbidden.put(apiVersion + "/" + kind, System.nanoTime());
+    }
+
+    /**
+     * Reviews the rules of the candidate namespaces concurrently.
+     *
+     * @return the namespaces in which the user may list the resource
+     */
+    List<String> listableNamespaces(String group, String plural, ExecutorService executor) {
+        final var reviews = candidateNamespaces().stream()
+                .map(namespace -> CompletableFuture.supplyAsync(
+                        () -> canList(rules(namespace), group, plural) ? namespace : null, executor))
+                .toList();
+        final List<String> namespaces = new ArrayList<>();
+        for (CompletableFuture<String> review : reviews) {
+            final String namespace = review.join();
+            if (namespace != null) {
+                namespaces.add(namespace);
+            }
+        }
+        return namespaces;
+    }
+
+    static boolean isForbidden(Exception e) {
+        return e instanceof KubernetesClientException kce && kce.getCode() == 403;
+    }
+
+    private List<String> candidateNamespaces() {
+        final Candidates current = candidates;
+        if (current != null && !expired(current.fetchedAt())) {
+            return current.namespaces();
+        }
+        final Set<String> namespaces = new LinkedHashSet<>();
+        try {
+            kubernetesClient.namespaces().list().getItems()
+                    .forEach(namespace -> namespaces.add(namespace.getMetadata().getName()));
+        } catch (KubernetesClientException e) {
+            Log.debug("Unable to list namespaces, using the configured ones: " + e.getMessage());
+            configuredNamespaces.ifPresent(namespaces::addAll);
+            if (kubernetesClient.getNamespace() != null) {
+                namespaces.add(kubernetesClient.getNamespace());
+            }
+        }
+        candidates = new Candidates(List.copyOf(namespaces), System.nanoTime());
+        return candidates.namespaces();
+    }
+
+    private List<ResourceRule> rules(String namespace) {
+        final Rules cached = rules.get(namespace);
+        if (cached != null && !expired(cached.fetchedAt())) {
+            return cached.rules();
+        }
+        List<ResourceRule> resourceRules;
+        try {
+            final var review = kubernetesClient.authorization().v1().selfSubjectRulesReview()
+                    .create(new SelfSubjectRulesReviewBuilder().withNewSpec().withNamespace(namespace).endSpec().build());
+            resourceRules = review.getStatus() == null || review.getStatus().getResourceRules() == null ? List.of()
+                    : review.getStatus().getResourceRules();
+        } catch (KubernetesClientException e) {
+            Log.debug("Unable to review the rules of namespace " + namespace + ": " + e.getMessage());
+            resourceRules = List.of();
+        }
+        rules.put(namespace, new Rules(resourceRules, System.nanoTime()));
+        return resourceRules;
+    }
+
+    private static boolean canList(List<ResourceRule> rules, String group, String plural) {
+        for (ResourceRule rule : rules) {
+            if (matches(rule.getVerbs(), "list") && matches(rule.getApiGroups(), group)
+                    && matches(rule.getResources(), plural)
+                    && (rule.getResourceNames() == null || rule.getResourceNames().isEmpty())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(List<String> values, String value) {
+        return values != null && (values.contains("*") || values.contains(value));
+    }
+
+    private boolean expired(long since) {
+        return System.nanoTime() - since > ttl.toNanos();
+    }
+}
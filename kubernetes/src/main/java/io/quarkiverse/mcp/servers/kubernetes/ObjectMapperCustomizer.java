@@ -1,14 +1,42 @@
 package io.quarkiverse.mcp.servers.kubernetes;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.inject.Singleton;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.KubernetesResource;
 import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.PodStatus;
+import io.fabric8.kubernetes.api.model.apps.DeploymentSpec;
 import io.quarkus.kubernetes.client.KubernetesClientObjectMapperCustomizer;
 
 /**
@@ -21,18 +49,101 @@ import io.quarkus.kubernetes.client.KubernetesClientObjectMapperCustomizer;
  * In addition, inference providers may also impose rate limits, usually involving the number of tokens per minute.
  * <p>
  * Any data that's not needed for the LLM to make a decision should be removed to reduce the amount of input tokens.
- * Currently, we remove the following fields:
+ * We always remove the following fields:
  * <ul>
  * <li>managedFields: Only useful for server-side apply, completely useless for LLMs (they contain redundant information already
  * present in spec)</li>
  * </ul>
+ * <p>
+ * Further fields are removed from the tool responses depending on the {@code kubernetes.serialization.profile}:
+ * <ul>
+ * <li>{@code full} (default): nothing else is removed.</li>
+ * <li>{@code compact}: the last-applied-configuration annotation, condition timestamps, owner reference details
+ * and fields that usually hold default values (termination message path, DNS policy, scheduler name...).</li>
+ * <li>{@code summary}: in addition, annotations, owner references, finalizers, condition messages, container environment,
+ * volumes and mounts, probes, security contexts, tolerations and affinity.</li>
+ * </ul>
+ * The profile is applied with a Jackson property filter only when writing the responses sent to the MCP client, the
+ * requests sent to the API server are never affected.
  */
 @Singleton
 public class ObjectMapperCustomizer implements KubernetesClientObjectMapperCustomizer {
 
+    public enum Profile {
+        FULL,
+        COMPACT,
+        SUMMARY
+    }
+
+    static final String PROFILE_FILTER = "mcp-serialization-profile";
+
+    @ConfigProperty(name = "kubernetes.serialization.profile", defaultValue = "full")
+    Profile profile;
+
+    private volatile ObjectMapper objectMapper;
+    private volatile ObjectWriter profileWriter;
+
     @Override
     public void customize(ObjectMapper objectMapper) {
         objectMapper.addMixIn(ObjectMeta.class, ObjectMetaMixin.class);
+        objectMapper.addMixIn(KubernetesResource.class, ProfileFilterMixin.class);
+        // regular serialization (including the requests sent to the API server) keeps every field
+        objectMapper.setFilterProvider(new SimpleFilterProvider()
+                .addFilter(PROFILE_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+        this.objectMapper = objectMapper;
+        this.profileWriter = objectMapper.writer(new SimpleFilterProvider()
+                .addFilter(PROFILE_FILTER, profile == Profile.FULL ? SimpleBeanPropertyFilter.serializeAll()
+                        : new ProfileFilter(profile)));
+    }
+
+    /**
+     * Serializes a value sent to the MCP client, removing the fields excluded by the configured profile.
+     */
+    String asJson(Object value) throws JsonProcessingException {
+        if (profileWriter == null) {
+            throw new IllegalStateException("The Kubernetes client ObjectMapper hasn't been customized yet");
+        }
+        return profileWriter.writeValueAsString(profile == Profile.FULL ? value : typed(value));
+    }
+
+    /**
+     * Serializes a value sent to the MCP client, writing only the fields selected by the projection. The profile doesn't
+     * apply, the selected fields are always written.
+     */
+    String asJson(Object value, FieldProjection projection) throws JsonProcessingException {
+        if (objectMapper == null) {
+            throw new IllegalStateException("The Kubernetes client ObjectMapper hasn't been customized yet");
+        }
+        if (!projection.isStreamable()) {
+            return objectMapper.writeValueAsString(projection.apply(objectMapper.valueToTree(value)));
+        }
+        final StringWriter json = new StringWriter();
+        try (JsonGenerator generator = new FilteringGeneratorDelegate(objectMapper.getFactory().createGenerator(json),
+                projection.tokenFilter(), TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true)) {
+            objectMapper.writeValue(generator, value);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // never thrown by a StringWriter
+            throw new UncheckedIOException(e);
+        }
+        // nothing selected was found
+        return json.getBuffer().length() == 0 ? "{}" : json.toString();
+    }
+
+    /**
+     * Resources listed or fetched generically are plain maps beyond their metadata, convert those of a known kind to
+     * their model class so that the profile applies to them too.
+     */
+    private Object typed(Object value) {
+        if (value instanceof GenericKubernetesResource) {
+            try {
+                return objectMapper.convertValue(value, KubernetesResource.class);
+            } catch (IllegalArgumentException e) {
+                return value;
+            }
+        }
+        return value;
     }
 
     @SuppressWarnings("unused")
@@ -45,4 +156,81 @@ public class ObjectMapperCustomizer implements KubernetesClientObjectMapperCusto
         public abstract List<ManagedFieldsEntry> getManagedFields();
 
     }
+
+    @JsonFilter(PROFILE_FILTER)
+    public interface ProfileFilterMixin {
+    }
+
+    /**
+     * Skips the properties excluded by a profile, depending on the type of the object they belong to.
+     */
+    static final class ProfileFilter extends SimpleBeanPropertyFilter {
+
+        private static final String LAST_APPLIED_CONFIGURATION = "kubectl.kubernetes.io/last-applied-configuration";
+
+        private static final Set<String> CONDITION_TIMESTAMPS = Set.of(
+                "lastProbeTime", "lastHeartbeatTime", "lastUpdateTime", "lastTransitionTime", "observedGeneration");
+
+        private static final Map<Class<?>, Set<String>> COMPACT = Map.of(
+                ObjectMeta.class, Set.of("selfLink"),
+                OwnerReference.class, Set.of("apiVersion", "uid", "blockOwnerDeletion"),
+                Container.class, Set.of("terminationMessagePath", "terminationMessagePolicy", "imagePullPolicy"),
+                ContainerStatus.class, Set.of("imageID", "containerID"),
+                PodSpec.class, Set.of("dnsPolicy", "schedulerName", "enableServiceLinks", "preemptionPolicy", "priority",
+                        "terminationGracePeriodSeconds"),
+                DeploymentSpec.class, Set.of("progressDeadlineSeconds", "revisionHistoryLimit"));
+
+        private static final Map<Class<?>, Set<String>> SUMMARY = Map.of(
+                ObjectMeta.class, Set.of("annotations", "ownerReferences", "finalizers", "uid", "generation",
+                        "resourceVersion"),
+                Container.class, Set.of("env", "envFrom", "volumeMounts", "livenessProbe", "readinessProbe",
+                        "startupProbe", "securityContext", "lifecycle"),
+                PodSpec.class, Set.of("volumes", "tolerations", "affinity", "securityContext", "serviceAccount",
+                        "topologySpreadConstraints"),
+                PodStatus.class, Set.of("hostIPs", "podIPs"),
+                DeploymentSpec.class, Set.of("strategy"));
+
+        private final Profile profile;
+        private final Map<Class<?>, Set<String>> excluded = new ConcurrentHashMap<>();
+
+        ProfileFilter(Profile profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+                throws Exception {
+            final String name = writer.getName();
+            if (excluded.computeIfAbsent(pojo.getClass(), this::excluded).contains(name)) {
+                return;
+            }
+            if (pojo instanceof ObjectMeta meta && name.equals("annotations") && meta.getAnnotations() != null
+                    && meta.getAnnotations().containsKey(LAST_APPLIED_CONFIGURATION)) {
+                final Map<String, String> annotations = new LinkedHashMap<>(meta.getAnnotations());
+                annotations.remove(LAST_APPLIED_CONFIGURATION);
+                if (!annotations.isEmpty()) {
+                    gen.writeFieldName(name);
+                    provider.defaultSerializeValue(annotations, gen);
+                }
+                return;
+            }
+            writer.serializeAsField(pojo, gen, provider);
+        }
+
+        private Set<String> excluded(Class<?> type) {
+            final Set<String> names = new HashSet<>(COMPACT.getOrDefault(type, Set.of()));
+            // PodCondition, DeploymentCondition, NodeCondition...
+            final boolean condition = type.getSimpleName().endsWith("Condition");
+            if (condition) {
+                names.addAll(CONDITION_TIMESTAMPS);
+            }
+            if (profile == Profile.SUMMARY) {
+                names.addAll(SUMMARY.getOrDefault(type, Set.of()));
+                if (condition) {
+                    names.add("message");
+                }
+            }
+            return names;
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.fabric8.kubernetes.client.dsl.ContainerResource;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+
+/**
+ * Runs a command in a Pod container.
+ * <p>
+ * The output and error streams are written as they arrive into bounded ring buffers, so that a command printing a lot
+ * only keeps its last bytes (usually where the result or the error is) in memory, and the command is abandoned once the
+ * timeout elapses. The buffers only grow up to their capacity as the command prints.
+ */
+final class PodExec {
+
+    static final int DEFAULT_TIMEOUT_SECONDS = 30;
+    static final int MAX_TIMEOUT_SECONDS = 300;
+    static final int DEFAULT_MAX_BYTES = 16 * 1024;
+    static final int MAX_BYTES_LIMIT = 1024 * 1024;
+
+    private PodExec() {
+    }
+
+    static String exec(PodResource pod, String container, List<String> command, Duration timeout, int maxBytes)
+            throws InterruptedException {
+        final ContainerResource target = container == null || container.isBlank() ? pod : pod.inContainer(container);
+        final TailBuffer out = new TailBuffer(maxBytes);
+        final TailBuffer err = new TailBuffer(maxBytes);
+        String exit;
+        try (ExecWatch watch = target.writingOutput(out).writingError(err).exec(command.toArray(String[]::new))) {
+            try {
+                final Integer code = watch.exitCode().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                exit = "exit code: " + (code == null ? "unknown" : code);
+            } catch (TimeoutException e) {
+                exit = "timed out after " + timeout.toSeconds() + "s, the command was abandoned";
+            } catch (ExecutionException e) {
+                exit = "failed: " + e.getCause().getMessage();
+            }
+        }
+        final StringBuilder result = new StringBuilder(exit).append('\n');
+        out.appendTo(result, "stdout");
+        err.appendTo(result, "stderr");
+        return result.toString();
+    }
+
+    /**
+     * Keeps the last bytes written to it.
+     * <p>
+     * The buffer is filled linearly and grows until it reaches its capacity, from then on it wraps around.
+     */
+    static final class TailBuffer extends OutputStream {
+
+        private static final int INITIAL_SIZE = 1024;
+
+        private final int capacity;
+        private byte[] buffer = new byte[0];
+        private long written;
+
+        TailBuffer(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            buffer[(int) (written++ % capacity)] = (byte) b;
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            // only the bytes that will remain in the buffer need to be copied
+            final int skipped = Math.max(0, length - capacity);
+            written += skipped;
+            ensureCapacity(length - skipped);
+            for (int i = offset + skipped; i < offset + length; i++) {
+                buffer[(int) (written++ % capacity)] = bytes[i];
+            }
+        }
+
+        /**
+         * The buffer is only smaller than its capacity before it wraps around, while the bytes are at their index.
+         */
+        private void ensureCapacity(int length) {
+            final long needed = Math.min(capacity, written + length);
+            if (needed > buffer.length) {
+                buffer = Arrays.copyOf(buffer,
+                        (int) Math.min(capacity, Math.max(needed, Math.max(INITIAL_SIZE, 2L * buffer.length))));
+            }
+        }
+
+        synchronized String content() {
+            if (written <= capacity) {
+                return new String(buffer, 0, (int) written, StandardCharsets.UTF_8);
+            }
+            final int start = (int) (written % capacity);
+            final byte[] ordered = new byte[capacity];
+            System.arraycopy(buffer, start, ordered, 0, capacity - start);
+            System.arraycopy(buffer, 0, ordered, capacity - start, start);
+            return new String(ordered, StandardCharsets.UTF_8);
+        }
+
+        synchronized void appendTo(StringBuilder result, String name) {
+            if (written == 0) {
+                return;
+            }
+            result.append(name);
+            if (written > capacity) {
+                result.append(" (last ").append(capacity).append(" of ").append(written).append(" bytes)");
+            }
+            result.append(":\n").append(content());
+            if (result.charAt(result.length() - 1) != '\n') {
+                result.append('\n');
+            }
+        }
+    }
+}
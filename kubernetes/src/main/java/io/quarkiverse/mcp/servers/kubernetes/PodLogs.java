@@ -0,0 +1,181 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fabric8.kubernetes.client.dsl.LogWatch;
+import io.fabric8.kubernetes.client.dsl.Loggable;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.quarkiverse.mcp.server.McpLog;
+import io.quarkus.logging.Log;
+
+/**
+ * Reads and follows Pod logs.
+ * <p>
+ * Followed logs are streamed line by line from a {@link LogWatch} per Pod and sent in small batches as MCP log
+ * notifications, only the last lines are kept to be returned once following stops.
+ */
+final class PodLogs {
+
+    static final int DEFAULT_TAIL_LINES = 100;
+    static final int DEFAULT_MAX_BYTES = 16 * 1024;
+    static final int MAX_BYTES_LIMIT = 1024 * 1024;
+    static final int DEFAULT_FOLLOW_SECONDS = 30;
+    static final int MAX_FOLLOW_SECONDS = 300;
+
+    private static final long FLUSH_INTERVAL_MILLIS = 250;
+    private static final int FLUSH_LINES = 50;
+    private static final int RETURNED_LINES = 50;
+
+    record Options(String container, Integer tailLines, Integer sinceSeconds, boolean previous, int maxBytes) {
+
+        static Options of(String container, Integer tailLines, Integer sinceSeconds, Boolean previous, Integer maxBytes) {
+            return new Options(
+                    container == null || container.isBlank() ? null : container,
+                    // the end of the log is usually the most useful part
+                    tailLines == null && sinceSeconds == null ? Integer.valueOf(DEFAULT_TAIL_LINES) : tailLines,
+                    sinceSeconds,
+                    Boolean.TRUE.equals(previous),
+                    maxBytes == null || maxBytes <= 0 ? DEFAULT_MAX_BYTES : Math.min(maxBytes, MAX_BYTES_LIMIT));
+        }
+    }
+
+    private PodLogs() {
+    }
+
+    static Loggable loggable(PodResource pod, Options options) {
+        final var base = options.container() == null ? pod : pod.inContainer(options.container());
+        final var limited = base.limitBytes(options.maxBytes());
+        final var terminated = options.previous() ? limited.terminated() : limited;
+        final var since = options.sinceSeconds() == null ? terminated : terminated.sinceSeconds(options.sinceSeconds());
+        return options.tailLines() == null ? since : since.tailingLines(options.tailLines());
+    }
+
+    static String read(PodResource pod, Options options) {
+        return loggable(pod, options).getLog();
+    }
+
+    /**
+     * Follows the logs of the given Pods until they end, the duration elapses or the byte limit is reached.
+     *
+     * @param sources the loggable of each Pod, by Pod name (lines are prefixed with the name when there are several Pods)
+     * @param readers runs the reader of each Pod for the whole duration, see {@link SharedExecutors#streams()}
+     * @return a summary of what was streamed and the last lines
+     */
+    static String follow(Map<String, Loggable> sources, Duration duration, long maxBytes, Executor readers, McpLog log)
+            throws InterruptedException {
+        final Batcher batcher = new Batcher(log);
+        final AtomicLong bytes = new AtomicLong();
+        final List<LogWatch> watches = new ArrayList<>();
+        final List<CompletableFuture<Void>> reads = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Loggable> source : sources.entrySet()) {
+                final LogWatch watch = source.getValue().watchLog();
+                watches.add(watch);
+                final String prefix = sources.size() > 1 ? "[" + source.getKey() + "] " : "";
+                reads.add(CompletableFuture.runAsync(() -> read(watch, prefix, batcher, bytes, maxBytes), readers));
+            }
+            final long deadline = System.nanoTime() + duration.toNanos();
+            while (System.nanoTime() < deadline && bytes.get() < maxBytes
+                    && reads.stream().anyMatch(read -> !read.isDone())) {
+                Thread.sleep(FLUSH_INTERVAL_MILLIS);
+                batcher.flush();
+            }
+        } finally {
+            // closing the watches ends the reads blocked on their stream
+            watches.forEach(LogWatch::close);
+        }
+        try {
+            CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Log.debug("Stopped following logs before every reader ended: " + e.getMessage());
+        }
+        batcher.flush();
+        return batcher.summary(sources.size(), bytes.get(), maxBytes);
+    }
+
+    private static void read(LogWatch watch, String prefix, Batcher batcher, AtomicLong bytes, long maxBytes) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(watch.getOutput(), StandardCharsets.UTF_8))) {
+            String line;
+            while (bytes.get() < maxBytes && (line = reader.readLine()) != null) {
+                bytes.addAndGet(line.length() + 1);
+                batcher.add(prefix + line);
+            }
+        } catch (IOException e) {
+            // the watch was closed
+            Log.debug("Stopped following log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Groups lines into notifications and remembers the last ones.
+     */
+    private static final class Batcher {
+
+        private final McpLog log;
+        private final StringBuilder pending = new StringBuilder();
+        private final ArrayDeque<String> last = new ArrayDeque<>();
+        private int pendingLines;
+        private long lines;
+        private long lastFlush = System.nanoTime();
+
+        Batcher(McpLog log) {
+            this.log = log;
+        }
+
+        synchronized void add(String line) {
+            pending.append(line).append('\n');
+            pendingLines++;
+            lines++;
+            last.addLast(line);
+            if (last.size() > RETURNED_LINES) {
+                last.removeFirst();
+            }
+            if (pendingLines >= FLUSH_LINES
+                    || System.nanoTime() - lastFlush >= Duration.ofMillis(FLUSH_INTERVAL_MILLIS).toNanos()) {
+                flush();
+            }
+        }
+
+        synchronized void flush() {
+            lastFlush = System.nanoTime();
+            if (pendingLines == 0) {
+                return;
+            }
+            try {
+                log.info("%s", pending.toString());
+            } catch (RuntimeException e) {
+                Log.debug("Failed to send log lines: " + e.getMessage());
+            }
+            pending.setLength(0);
+            pendingLines = 0;
+        }
+
+        synchronized String summary(int pods, long bytes, long maxBytes) {
+            final StringBuilder summary = new StringBuilder()
+                    .append("Streamed ").append(lines).append(" lines from ").append(pods)
+                    .append(pods == 1 ? " Pod" : " Pods");
+            if (bytes >= maxBytes) {
+                summary.append(", stopped after reaching the limit of ").append(maxBytes).append(" bytes");
+            }
+            if (!last.isEmpty()) {
+                summary.append(lines > last.size() ? ", last " + last.size() + " lines:\n" : ":\n");
+                last.forEach(line -> summary.append(line).append('\n'));
+            }
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.fabric8.kubernetes.client.LocalPortForward;
+import io.fabric8.kubernetes.client.dsl.PortForwardable;
+import io.quarkus.logging.Log;
+
+/**
+ * Port forwarding sessions from a local port to a Pod or Service.
+ * <p>
+ * Each session keeps its websocket open until it's stopped or its duration elapses, the local port is only bound on the
+ * loopback interface.
+ */
+@ApplicationScoped
+public class PortForwards {
+
+    static final int DEFAULT_DURATION_SECONDS = 600;
+    static final int MAX_DURATION_SECONDS = 3600;
+
+    record Session(String id, String target, int port, LocalPortForward forward, Instant expiresAt) {
+
+        @Override
+        public String toString() {
+            return id + ": localhost:" + forward.getLocalPort() + " -> " + target + ":" + port + " until " + expiresAt
+                    + (forward.isAlive() ? "" : " (not alive)");
+        }
+    }
+
+    @Inject
+    SharedExecutors executors;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> expiry;
+
+    /**
+     * @param target the Pod or Service as shown to the LLM, e.g. {@code pod default/nginx}
+     * @param localPort the local port, 0 for a random one
+     */
+    Session start(PortForwardable forwardable, String target, int port, int localPort, Duration duration) {
+        final LocalPortForward forward = forwardable.portForward(port, InetAddress.getLoopbackAddress(), localPort);
+        final Session session = new Session("pf-" + ids.incrementAndGet(), target, port, forward,
+                Instant.now().plus(duration));
+        sessions.put(session.id(), session);
+        scheduleExpiry();
+        return session;
+    }
+
+    /**
+     * @return the stopped session, or null if there is none with this id
+     */
+    Session stop(String id) {
+        final Session session = sessions.remove(id);
+        if (session != null) {
+            close(session);
+        }
+        return session;
+    }
+
+    List<Session> sessions() {
+        return sessions.values().stream().sorted(Comparator.comparing(Session::expiresAt)).toList();
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+        sessions.values().forEach(PortForwards::close);
+        sessions.clear();
+    }
+
+    private synchronized void scheduleExpiry() {
+        if (expiry != null) {
+            return;
+        }
+        expiry = executors.scheduler().scheduleWithFixedDelay(this::expire, 10, 10, TimeUnit.SECONDS);
+    }
+
+    private void expire() {
+        final Instant now = Instant.now();
+        sessions.values().stream()
+                .filter(session -> now.isAfter(session.expiresAt()))
+                .map(Session::id)
+                .toList()
+                .forEach(this::stop);
+    }
+
+    private static void close(Session session) {
+        try {
+            session.forward().close();
+        } catch (IOException e) {
+            Log.debug("Failed to close port forward " + session.id() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.quarkus.logging.Log;
+
+/**
+ * Opt-in in-memory cache of Kubernetes resources backed by shared informers.
+ * <p>
+ * One cluster-wide informer is started per apiVersion and kind the first time it's listed, and stopped once it
+ * hasn't been read for the configured idle timeout. Lists are then served from the informer store instead of doing
+ * a full LIST against the API server on every call.
+ * <p>
+ * When the informer can't be started (e.g. the user isn't allowed to watch the resources in every namespace) the kind is
+ * remembered as unavailable for a while and callers fall back to a regular LIST.
+ */
+@ApplicationScoped
+public class ResourceCache {
+
+    /**
+     * @param lastEvent when the informer last received a change, not how stale the items are: while the informer is
+     *        watching they are up to date however old the last change is
+     * @param watching whether the informer's watch is established, the items may miss changes while it reconnects
+     */
+    record Snapshot(List<GenericKubernetesResource> items, String resourceVersion, Instant lastEvent, boolean watching) {
+
+        /**
+         * @return the metadata describing the freshness of the snapshot, included in the list responses
+         */
+        Map<String, Object> metadata() {
+            return Map.of(
+                    "source", "informer-cache",
+                    "resourceVersion", Objects.requireNonNullElse(resourceVersion, ""),
+                    "watching", watching,
+                    "lastEvent", lastEvent.toString(),
+                    "secondsSinceLastEvent", Duration.between(lastEvent, Instant.now()).toSeconds());
+        }
+    }
+
+    private record Key(String apiVersion, String kind) {
+    }
+
+    private static final class Entry {
+        final SharedIndexInformer<GenericKubernetesResource> informer;
+        volatile long lastAccess = System.nanoTime();
+        volatile Instant lastEvent = Instant.now();
+
+        Entry(SharedIndexInformer<GenericKubernetesResource> informer) {
+            this.informer = informer;
+        }
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    SharedExecutors executors;
+
+    @ConfigProperty(name = "kubernetes.informers.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "kubernetes.informers.idle-timeout", defaultValue = "10m")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "kubernetes.informers.sync-timeout", defaultValue = "30s")
+    Duration syncTimeout;
+
+    /** The informers being started or started, so that a slow start doesn't block the others in the map. */
+    private final Map<Key, CompletableFuture<Entry>> informers = new ConcurrentHashMap<>();
+    private final Map<Key, Long> unavailable = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> eviction;
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Lists the cached resources of the given kind, starting the informer on first use.
+     *
+     * @param namespace the namespace of the resources, null for all of them (ignored for cluster scoped resources)
+     * @return the cached resources, or empty if the cache is disabled or not available for this kind
+     */
+    Optional<Snapshot> list(String apiVersion, String kind, String namespace) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Key key = new Key(apiVersion, kind);
+        Long failedAt = unavailable.get(key);
+        if (failedAt != null) {
+            if (System.nanoTime() - failedAt < idleTimeout.toNanos()) {
+                return Optional.empty();
+            }
+            unavailable.remove(key);
+        }
+        CompletableFuture<Entry> started = new CompletableFuture<>();
+        CompletableFuture<Entry> future = informers.putIfAbsent(key, started);
+        if (future == null) {
+            // started outside of the map, callers of the same kind wait for it below
+            future = started;
+            try {
+                started.complete(start(key));
+            } catch (RuntimeException e) {
+                informers.remove(key, started);
+                started.completeExceptionally(e);
+            }
+        }
+        Entry entry;
+        try {
+            entry = future.join();
+        } catch (CompletionException e) {
+            Log.debug("Informer for " + apiVersion + " " + kind + " not available, falling back to LIST: "
+                    + e.getCause().getMessage());
+            unavailable.put(key, System.nanoTime());
+            return Optional.empty();
+        }
+        if (!entry.informer.isRunning()) {
+            // the watch failed for good (e.g. the resource was removed or permissions were revoked)
+            informers.remove(key, future);
+            entry.informer.stop();
+            return Optional.empty();
+        }
+        entry.lastAccess = System.nanoTime();
+        boolean allNamespaces = namespace == null || namespace.isBlank();
+        List<GenericKubernetesResource> items = entry.informer.getStore().list().stream()
+                .filter(item -> allNamespaces || item.getMetadata().getNamespace() == null
+                        || namespace.equals(item.getMetadata().getNamespace()))
+                .collect(Collectors.toList());
+        return Optional.of(new Snapshot(items, entry.informer.lastSyncResourceVersion(), entry.lastEvent,
+                entry.informer.isWatching()));
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        informers.values().forEach(future -> future.thenAccept(entry -> entry.informer.stop()));
+        informers.clear();
+    }
+
+    private Entry start(Key key) {
+        SharedIndexInformer<GenericKubernetesResource> informer = kubernetesClient
+                .genericKubernetesResources(key.apiVersion(), key.kind())
+                .inAnyNamespace()
+                .runnableInformer(0);
+        Entry entry = new Entry(informer);
+        informer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(GenericKubernetesResource resource) {
+                entry.lastEvent = Instant.now();
+            }
+
+            @Override
+            public void onUpdate(GenericKubernetesResource oldResource, GenericKubernetesResource newResource) {
+                entry.lastEvent = Instant.now();
+            }
+
+            @Override
+            public void onDelete(GenericKubernetesResource resource, boolean deletedFinalStateUnknown) {
+                entry.lastEvent = Instant.now();
+            }
+        });
+        try {
+            informer.start().toCompletableFuture().get(syncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            informer.stop();
+            throw new IllegalStateException("Interrupted while starting the informer", e);
+        } catch (ExecutionException | TimeoutException e) {
+            informer.stop();
+            throw new IllegalStateException("Informer failed to sync: " + e.getMessage(), e);
+        }
+        entry.lastEvent = Instant.now();
+        scheduleEviction();
+        Log.debug("Started informer for " + key.apiVersion() + " " + key.kind());
+        return entry;
+    }
+
+    private synchronized void scheduleEviction() {
+        if (eviction != null) {
+            return;
+        }
+        long period = Math.max(1, Math.min(idleTimeout.toSeconds(), 60));
+        eviction = executors.scheduler().scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        informers.forEach((key, future) -> {
+            Entry entry = future.getNow(null);
+            if (entry != null && now - entry.lastAccess > idleTimeout.toNanos() && informers.remove(key, future)) {
+                entry.informer.stop();
+                Log.debug("Stopped idle informer for " + key.apiVersion() + " " + key.kind());
+            }
+        });
+    }
+}
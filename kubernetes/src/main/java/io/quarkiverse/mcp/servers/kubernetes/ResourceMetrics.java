@@ -0,0 +1,359 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.ResourceDefinitionContext;
+import io.quarkiverse.mcp.server.ToolCallException;
+import io.quarkus.logging.Log;
+
+/**
+ * Resource usage of Pods and Nodes as reported by the metrics API ({@code metrics.k8s.io}, served by metrics-server).
+ * <p>
+ * The usage is sorted and limited to the top entries here rather than returned whole. The last samples of every Pod
+ * seen are kept in a small ring buffer so that the trend of the usage can be shown without the LLM calling the tool
+ * repeatedly: once top_pods has been called for some Pods, they're sampled in the background at the configured interval
+ * (the metrics-server resolution) until top_pods hasn't been called for them for the configured idle timeout.
+ * <p>
+ * The samples are kept by Pod uid, so that a Pod recreated with the same name (e.g. by a StatefulSet) starts a new
+ * history. Pods without a new sample for {@link #HISTORY_TTL} are forgotten.
+ */
+@ApplicationScoped
+public class ResourceMetrics {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int SAMPLES = 5;
+
+    private static final Duration HISTORY_TTL = Duration.ofHours(1);
+
+    private static final ResourceDefinitionContext POD_METRICS = new ResourceDefinitionContext.Builder()
+            .withGroup("metrics.k8s.io").withVersion("v1beta1").withKind("PodMetrics").withPlural("pods")
+            .withNamespaced(true).build();
+
+    private static final ResourceDefinitionContext NODE_METRICS = new ResourceDefinitionContext.Builder()
+            .withGroup("metrics.k8s.io").withVersion("v1beta1").withKind("NodeMetrics").withPlural("nodes")
+            .withNamespaced(false).build();
+
+    enum SortBy {
+        CPU,
+        MEMORY
+    }
+
+    record Sample(Instant timestamp, long cpuMillis, long memoryBytes) {
+    }
+
+    /**
+     * @param key the uid of the Pod, or its name if it can't be found
+     */
+    private record Usage(String key, String name, Sample sample) {
+    }
+
+    /**
+     * The Pods top_pods was called for.
+     *
+     * @param namespace null for all of them
+     */
+    private record Scope(String namespace, String labelSelector) {
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    SharedExecutors executors;
+
+    @ConfigProperty(name = "kubernetes.metrics.sample-interval", defaultValue = "15s")
+    Duration sampleInterval;
+
+    @ConfigProperty(name = "kubernetes.metrics.idle-timeout", defaultValue = "10m")
+    Duration idleTimeout;
+
+    private final Map<String, Deque<Sample>> history = new ConcurrentHashMap<>();
+    /** The last time top_pods was called for each scope, as System.nanoTime(). */
+    private final Map<Scope, Long> scopes = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> sampling;
+
+    /**
+     * @param namespace the namespace of the Pods, null for all of them
+     * @return the Pods using the most CPU or memory, with their recent samples
+     */
+    String topPods(String namespace, String labelSelector, SortBy sortBy, int limit) {
+        final Scope scope = new Scope(namespace == null || namespace.isBlank() ? null : namespace,
+                labelSelector == null || labelSelector.isBlank() ? null : labelSelector);
+        final List<Usage> usages = sample(scope);
+        scopes.put(scope, System.nanoTime());
+        scheduleSampling();
+        evictStale();
+        final List<Usage> top = top(usages, sortBy, limit);
+        final TextTable table = new TextTable("POD", "CPU", "MEMORY", "CPU TREND", "MEMORY TREND");
+        for (Usage usage : top) {
+            final List<Sample> samples = samples(usage.key());
+            table.row(usage.name(), cpu(usage.sample().cpuMillis()), memory(usage.sample().memoryBytes()),
+                    trend(samples, sample -> cpu(sample.cpuMillis())), trend(samples, sample -> memory(sample.memoryBytes())));
+        }
+        return header("Pods", top.size(), usages.size(), sortBy) + table;
+    }
+
+    /**
+     * @return the Nodes using the most CPU or memory, with their usage relative to what they can allocate
+     */
+    String topNodes(SortBy sortBy, int limit) {
+        final List<GenericKubernetesResource> items = list(
+                () -> kubernetesClient.genericKubernetesResources(NODE_METRICS).list().getItems());
+        final List<Usage> usages = items.stream()
+                .map(item -> new Usage(item.getMetadata().getName(), item.getMetadata().getName(),
+                        sample(item, List.of(item.getAdditionalProperties()))))
+                .toList();
+        final Map<String, Map<String, Quantity>> allocatable = new HashMap<>();
+        try {
+            for (Node node : kubernetesClient.nodes().list().getItems()) {
+                if (node.getStatus() != null && node.getStatus().getAllocatable() != null) {
+                    allocatable.put(node.getMetadata().getName(), node.getStatus().getAllocatable());
+                }
+            }
+        } catch (KubernetesClientException e) {
+            // the percentages are only omitted
+        }
+        final List<Usage> top = top(usages, sortBy, limit);
+        final TextTable table = new TextTable("NODE", "CPU", "CPU%", "MEMORY", "MEMORY%");
+        for (Usage usage : top) {
+            final var node = allocatable.getOrDefault(usage.name(), Map.of());
+            table.row(usage.name(), cpu(usage.sample().cpuMillis()),
+                    percent(usage.sample().cpuMillis(), amount(node.get("cpu"), 1000)),
+                    memory(usage.sample().memoryBytes()),
+                    percent(usage.sample().memoryBytes(), amount(node.get("memory"), 1)));
+        }
+        return header("Nodes", top.size(), usages.size(), sortBy) + table;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (sampling != null) {
+            sampling.cancel(false);
+        }
+    }
+
+    /**
+     * Lists the usage of the Pods of the scope and adds it to their history.
+     */
+    private List<Usage> sample(Scope scope) {
+        final var metrics = kubernetesClient.genericKubernetesResources(POD_METRICS);
+        final var options = new ListOptionsBuilder().withLabelSelector(scope.labelSelector()).build();
+        final List<GenericKubernetesResource> items = list(() -> scope.namespace() == null
+                ? metrics.inAnyNamespace().list(options).getItems()
+                : metrics.inNamespace(scope.namespace()).list(options).getItems());
+        final Map<String, String> uids = items.isEmpty() ? Map.of() : podUids(scope, options);
+        final List<Usage> usages = new ArrayList<>(items.size());
+        for (GenericKubernetesResource item : items) {
+            final String name = item.getMetadata().getNamespace() + "/" + item.getMetadata().getName();
+            // metrics-server doesn't set the uid of the Pod in its metrics
+            final String key = uids.getOrDefault(name, Objects.requireNonNullElse(item.getMetadata().getUid(), name));
+            final Sample sample = sample(item, item.get("containers"));
+            addSample(key, sample);
+            usages.add(new Usage(key, name, sample));
+        }
+        return usages;
+    }
+
+    /**
+     * @return the uid of the Pods of the scope by namespace/name, empty if they can't be listed
+     */
+    private Map<String, String> podUids(Scope scope, ListOptions options) {
+        try {
+            final var pods = kubernetesClient.pods();
+            final List<Pod> items = scope.namespace() == null ? pods.inAnyNamespace().list(options).getItems()
+                    : pods.inNamespace(scope.namespace()).list(options).getItems();
+            final Map<String, String> uids = new HashMap<>(items.size());
+            items.forEach(pod -> uids.put(pod.getMetadata().getNamespace() + "/" + pod.getMetadata().getName(),
+                    pod.getMetadata().getUid()));
+            return uids;
+        } catch (KubernetesClientException e) {
+            Log.debug("Failed to list the Pods to key their metrics by uid: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private synchronized void scheduleSampling() {
+        if (sampling != null) {
+            return;
+        }
+        final long period = Math.max(1, sampleInterval.toSeconds());
+        sampling = executors.scheduler().scheduleWithFixedDelay(this::sampleActiveScopes, period, period, TimeUnit.SECONDS);
+    }
+
+    private void sampleActiveScopes() {
+        final long now = System.nanoTime();
+        scopes.values().removeIf(lastUse -> now - lastUse > idleTimeout.toNanos());
+        for (Scope scope : scopes.keySet()) {
+            try {
+                sample(scope);
+            } catch (RuntimeException e) {
+                Log.debug("Failed to sample the Pod metrics: " + e.getMessage());
+            }
+        }
+        evictStale();
+        synchronized (this) {
+            // a scope added concurrently schedules the sampling again once it's cancelled
+            if (scopes.isEmpty() && sampling != null) {
+                sampling.cancel(false);
+                sampling = null;
+            }
+        }
+    }
+
+    private static List<GenericKubernetesResource> list(Supplier<List<GenericKubernetesResource>> list) {
+        try {
+            return list.get();
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == 404) {
+                throw new ToolCallException("The metrics API (metrics.k8s.io) is not available in the cluster, "
+                        + "metrics-server is probably not installed", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param containers the usage of each container of a Pod, or of the Node itself
+     */
+    private static Sample sample(GenericKubernetesResource item, Object containers) {
+        long cpu = 0;
+        long memory = 0;
+        if (containers instanceof List<?> list) {
+            for (Object container : list) {
+                if (container instanceof Map<?, ?> map && map.get("usage") instanceof Map<?, ?> usage) {
+                    cpu += amount(quantity(usage.get("cpu")), 1000);
+                    memory += amount(quantity(usage.get("memory")), 1);
+                }
+            }
+        }
+        return new Sample(timestamp(item.get("timestamp")), cpu, memory);
+    }
+
+    private static Quantity quantity(Object value) {
+        return value == null ? null : new Quantity(value.toString());
+    }
+
+    private static long amount(Quantity quantity, int scale) {
+        if (quantity == null) {
+            return 0;
+        }
+        // rounded up like kubectl top, a container using 100 nanocores uses 1m
+        return Quantity.getAmountInBytes(quantity).multiply(BigDecimal.valueOf(scale))
+                .setScale(0, RoundingMode.CEILING).longValue();
+    }
+
+    private static Instant timestamp(Object value) {
+        try {
+            return value == null ? Instant.now() : Instant.parse(value.toString());
+        } catch (DateTimeParseException e) {
+            return Instant.now();
+        }
+    }
+
+    /**
+     * Keeps the {@code limit} largest usages in a bounded heap instead of sorting them all.
+     */
+    private static List<Usage> top(List<Usage> usages, SortBy sortBy, int limit) {
+        final ToLongFunction<Usage> key = sortBy == SortBy.MEMORY ? usage -> usage.sample().memoryBytes()
+                : usage -> usage.sample().cpuMillis();
+        final Comparator<Usage> ascending = Comparator.comparingLong(key);
+        final PriorityQueue<Usage> heap = new PriorityQueue<>(limit + 1, ascending);
+        for (Usage usage : usages) {
+            heap.offer(usage);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        final List<Usage> top = new ArrayList<>(heap);
+        top.sort(ascending.reversed().thenComparing(Usage::name));
+        return top;
+    }
+
+    private void addSample(String key, Sample sample) {
+        final Deque<Sample> samples = history.computeIfAbsent(key, k -> new ArrayDeque<>(SAMPLES));
+        synchronized (samples) {
+            if (!samples.isEmpty() && !sample.timestamp().isAfter(samples.peekLast().timestamp())) {
+                // metrics-server only refreshes the usage every scrape interval
+                return;
+            }
+            samples.addLast(sample);
+            if (samples.size() > SAMPLES) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    private List<Sample> samples(String key) {
+        final Deque<Sample> samples = history.get(key);
+        if (samples == null) {
+            return List.of();
+        }
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    private void evictStale() {
+        final Instant oldest = Instant.now().minus(HISTORY_TTL);
+        history.entrySet().removeIf(entry -> {
+            synchronized (entry.getValue()) {
+                return entry.getValue().isEmpty() || entry.getValue().peekLast().timestamp().isBefore(oldest);
+            }
+        });
+    }
+
+    private static String header(String kind, int shown, int total, SortBy sortBy) {
+        return "Top " + shown + " of " + total + " " + kind + " by " + sortBy.name().toLowerCase(Locale.ROOT) + "\n";
+    }
+
+    private static String trend(List<Sample> samples, Function<Sample, String> format) {
+        return samples.size() < 2 ? "-" : samples.stream().map(format).collect(Collectors.joining(","));
+    }
+
+    private static String cpu(long millis) {
+        return millis + "m";
+    }
+
+    private static String memory(long bytes) {
+        return (bytes + 1024 * 1024 - 1) / (1024 * 1024) + "Mi";
+    }
+
+    private static String percent(long used, long allocatable) {
+        return allocatable <= 0 ? "-" : (used * 100 / allocatable) + "%";
+    }
+}
@@ -0,0 +1,104 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+
+/**
+ * The last version of each resource returned to an MCP session, so that a repeated get can return only what changed.
+ * <p>
+ * Only the {@link #MAX_RESOURCES} resources most recently returned to a session are kept, and sessions without a get for
+ * {@link #SESSION_TTL} are forgotten.
+ */
+@ApplicationScoped
+public class ResponseHistory {
+
+    static final int MAX_RESOURCES = 100;
+
+    private static final Duration SESSION_TTL = Duration.ofMinutes(30);
+
+    record Returned(String resourceVersion, JsonNode json) {
+    }
+
+    private static final class Session {
+
+        private final Map<String, Returned> resources = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Returned> eldest) {
+                return size() > MAX_RESOURCES;
+            }
+        };
+        private volatile Instant lastAccess = Instant.now();
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    ObjectMapperCustomizer objectMapperCustomizer;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Records the resource as returned to the session and computes what to return for it.
+     *
+     * @param context the kubeconfig context the resource was read from, null for the current one
+     * @param sinceResourceVersion the version the client already has, null if unknown
+     * @param diff whether to compare with the version last returned to the session when there is no sinceResourceVersion
+     * @return the resource itself, "unchanged", or the JSON Patch from the version the client already has
+     */
+    Object respond(String sessionId, String context, HasMetadata resource, String sinceResourceVersion, boolean diff)
+            throws JsonProcessingException {
+        if (resource == null) {
+            return null;
+        }
+        // make sure the client, and thus its ObjectMapper, was initialized
+        final var serialization = kubernetesClient.getKubernetesSerialization();
+        final String resourceVersion = resource.getMetadata().getResourceVersion();
+        final String key = (context == null || context.isBlank() ? "" : context + ":") + resource.getKind() + "/"
+                + resource.getMetadata().getNamespace() + "/" + resource.getMetadata().getName();
+        final Returned current = new Returned(resourceVersion,
+                serialization.unmarshal(objectMapperCustomizer.asJson(resource), JsonNode.class));
+        final Returned previous = put(sessionId, key, current);
+        final String since = sinceResourceVersion == null || sinceResourceVersion.isBlank()
+                ? (diff && previous != null ? previous.resourceVersion() : null)
+                : sinceResourceVersion;
+        if (since == null || resourceVersion == null) {
+            return resource;
+        }
+        if (since.equals(resourceVersion)) {
+            return "unchanged (resourceVersion " + resourceVersion + ")";
+        }
+        if (previous == null || !since.equals(previous.resourceVersion())) {
+            // the version the client has was never returned to this session, or was forgotten
+            return resource;
+        }
+        return "changed from resourceVersion " + since + " to " + resourceVersion + ", JSON Patch:\n"
+                + serialization.asJson(JsonPatch.diff(previous.json(), current.json()));
+    }
+
+    private Returned put(String sessionId, String key, Returned returned) {
+        evictIdle();
+        final Session session = sessions.computeIfAbsent(sessionId, id -> new Session());
+        session.lastAccess = Instant.now();
+        synchronized (session) {
+            return session.resources.put(key, returned);
+        }
+    }
+
+    private void evictIdle() {
+        final Instant oldest = Instant.now().minus(SESSION_TTL);
+        sessions.values().removeIf(session -> session.lastAccess.isBefore(oldest));
+    }
+}
@@ -0,0 +1,78 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * The threads of the server besides the ones of the MCP server and of the Kubernetes client.
+ * <p>
+ * The worker executor runs the concurrent requests to the API server (list fan-outs, batch applies and deletes, API
+ * discovery) and the tasks of the clients of the other kubeconfig contexts. At most {@link #WORKERS} of its threads run
+ * at the same time, the other tasks are queued, and its threads stop after a minute without work. Its tasks must not
+ * wait for long, waits belong in the calling tool's thread or in a watch.
+ * <p>
+ * The streams executor runs the tasks reading a stream for the whole duration of a tool call, such as followed Pod logs.
+ * It starts a thread per task, up to {@link #MAX_STREAMS} at the same time, beyond that new tasks are rejected.
+ * <p>
+ * The scheduler runs the periodic background tasks (refreshes, samples and evictions), each component cancels its own
+ * tasks when it's destroyed.
+ */
+@ApplicationScoped
+public class SharedExecutors {
+
+    static final int WORKERS = 16;
+
+    static final int MAX_STREAMS = 256;
+
+    private static final int SCHEDULER_THREADS = 2;
+
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(WORKERS, WORKERS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), daemon("mcp-kubernetes-worker"));
+    private final ThreadPoolExecutor streams = new ThreadPoolExecutor(0, MAX_STREAMS, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), daemon("mcp-kubernetes-stream"));
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(SCHEDULER_THREADS,
+            daemon("mcp-kubernetes-scheduler"));
+
+    SharedExecutors() {
+        worker.allowCoreThreadTimeOut(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    ExecutorService worker() {
+        return worker;
+    }
+
+    ExecutorService streams() {
+        return streams;
+    }
+
+    ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    @PreDestroy
+    void close() {
+        scheduler.shutdownNow();
+        worker.shutdownNow();
+        streams.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
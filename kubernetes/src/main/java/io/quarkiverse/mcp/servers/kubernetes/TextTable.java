@@ -0,0 +1,45 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A plain text table with left aligned columns, more compact than JSON for the LLM.
+ */
+final class TextTable {
+
+    private final List<String[]> rows = new ArrayList<>();
+
+    TextTable(String... headers) {
+        rows.add(headers);
+    }
+
+    void row(Object... values) {
+        final String[] row = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            row[i] = values[i] == null ? "-" : values[i].toString();
+        }
+        rows.add(row);
+    }
+
+    @Override
+    public String toString() {
+        final int[] widths = new int[rows.get(0).length];
+        rows.forEach(row -> {
+            for (int i = 0; i < row.length; i++) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        });
+        final StringBuilder table = new StringBuilder();
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                table.append(row[i]);
+                if (i < row.length - 1) {
+                    table.append(" ".repeat(widths[i] - row[i].length() + 2));
+                }
+            }
+            table.append('\n');
+        }
+        return table.toString();
+    }
+}
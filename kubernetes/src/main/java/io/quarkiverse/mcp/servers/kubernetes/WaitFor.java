@@ -0,0 +1,318 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.client.KubernetesClientTimeoutException;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.quarkiverse.mcp.server.McpLog;
+import io.quarkiverse.mcp.server.ToolCallException;
+import io.quarkus.logging.Log;
+
+/**
+ * Waits for a resource to reach a condition.
+ * <p>
+ * The resource is watched (the client's {@code waitUntilCondition} relies on a single informer) rather than polled, and
+ * its state is evaluated on every change. Each new state is sent as an MCP log notification so the client can follow
+ * the progress, and states that won't resolve by themselves (a crash-looping container, a failed Job, an exceeded
+ * progress deadline) end the wait early.
+ */
+final class WaitFor {
+
+    static final String READY = "ready";
+    static final String ROLLOUT = "rollout";
+    static final String DELETED = "deleted";
+    static final int DEFAULT_TIMEOUT_SECONDS = 60;
+    static final int MAX_TIMEOUT_SECONDS = 600;
+
+    private static final Set<String> WAITING_FAILURES = Set.of("CrashLoopBackOff", "ImagePullBackOff", "ErrImagePull",
+            "InvalidImageName", "CreateContainerConfigError");
+
+    /**
+     * The evaluation of the resource: whether the wait is over, and if so whether it failed.
+     */
+    record State(boolean done, String failure, String progress) {
+
+        static State pending(String progress) {
+            return new State(false, null, progress);
+        }
+
+        static State done(String progress) {
+            return new State(true, null, progress);
+        }
+
+        static State failed(String failure) {
+            return new State(true, failure, failure);
+        }
+    }
+
+    private WaitFor() {
+    }
+
+    /**
+     * @param description the resource as shown in the messages, e.g. {@code Pod default/nginx}
+     * @param condition {@link #READY}, {@link #ROLLOUT}, {@link #DELETED} or a JSONPath condition
+     * @param toJson converts the resource to a tree to evaluate it
+     * @return how the wait ended
+     * @throws ToolCallException if the condition failed or wasn't met in time
+     */
+    static String await(Resource<GenericKubernetesResource> resource, String description, String condition, Duration timeout,
+            Function<GenericKubernetesResource, JsonNode> toJson, McpLog log) {
+        final Function<JsonNode, State> evaluation = evaluation(condition == null || condition.isBlank() ? READY : condition);
+        final AtomicReference<State> last = new AtomicReference<>(State.pending("waiting for the first event"));
+        final long start = System.nanoTime();
+        try {
+            resource.waitUntilCondition(current -> {
+                final State state = evaluation.apply(current == null ? null : toJson.apply(current));
+                final State previous = last.getAndSet(state);
+                if (!Objects.equals(previous.progress(), state.progress())) {
+                    notify(log, description + ": " + state.progress());
+                }
+                return state.done();
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (KubernetesClientTimeoutException e) {
+            throw new ToolCallException("Timed out after " + timeout.toSeconds() + "s waiting for " + description + " ("
+                    + last.get().progress() + ")", e);
+        } catch (Exception e) {
+            throw new ToolCallException("Failed to wait for " + description + ": " + e.getMessage(), e);
+        }
+        final State state = last.get();
+        if (state.failure() != null) {
+            throw new ToolCallException(description + " failed: " + state.failure(), null);
+        }
+        return description + " " + state.progress() + " after "
+                + Duration.ofNanos(System.nanoTime() - start).toSeconds() + "s";
+    }
+
+    private static Function<JsonNode, State> evaluation(String condition) {
+        return switch (condition.trim().toLowerCase(Locale.ROOT)) {
+            case READY -> WaitFor::ready;
+            case ROLLOUT -> resource -> resource == null || isWorkload(resource.path("kind").asText()) ? ready(resource)
+                    : State.failed("rollout only applies to Deployments, StatefulSets, DaemonSets and ReplicaSets");
+            case DELETED -> resource -> resource == null ? State.done("is deleted")
+                    : State.pending(resource.path("metadata").hasNonNull("deletionTimestamp") ? "being deleted" : "exists");
+            default -> jsonPath(condition.trim());
+        };
+    }
+
+    private static State ready(JsonNode resource) {
+        if (resource == null) {
+            return State.pending("doesn't exist yet");
+        }
+        final JsonNode status = resource.path("status");
+        return switch (resource.path("kind").asText()) {
+            case "Pod" -> pod(status);
+            case "Deployment", "StatefulSet", "DaemonSet", "ReplicaSet" -> rollout(resource);
+            case "Job" -> job(status);
+            default -> conditions(status);
+        };
+    }
+
+    private static boolean isWorkload(String kind) {
+        return Set.of("Deployment", "StatefulSet", "DaemonSet", "ReplicaSet").contains(kind);
+    }
+
+    private static State pod(JsonNode status) {
+        final String phase = status.path("phase").asText("Pending");
+        if (phase.equals("Succeeded")) {
+            return State.done("completed");
+        }
+        if (phase.equals("Failed")) {
+            return State.failed("the Pod failed" + reason(status));
+        }
+        int ready = 0;
+        int total = 0;
+        String waiting = null;
+        for (JsonNode container : status.path("containerStatuses")) {
+            total++;
+            if (container.path("ready").asBoolean()) {
+                ready++;
+            }
+            final JsonNode reason = container.path("state").path("waiting").path("reason");
+            if (reason.isTextual()) {
+                if (WAITING_FAILURES.contains(reason.asText())) {
+                    return State.failed("container " + container.path("name").asText() + " is in " + reason.asText()
+                            + message(container.path("state").path("waiting")));
+                }
+                waiting = reason.asText();
+            }
+        }
+        if (isTrue(status, "Ready")) {
+            return State.done("is ready");
+        }
+        return State.pending("phase " + phase + ", " + ready + "/" + total + " containers ready"
+                + (waiting == null ? reason(status) : ", waiting: " + waiting));
+    }
+
+    private static State rollout(JsonNode resource) {
+        final JsonNode spec = resource.path("spec");
+        final JsonNode status = resource.path("status");
+        if (status.path("observedGeneration").asLong() < resource.path("metadata").path("generation").asLong()) {
+            return State.pending("waiting for the controller to observe the latest generation");
+        }
+        for (JsonNode condition : status.path("conditions")) {
+            if ("ProgressDeadlineExceeded".equals(condition.path("reason").asText())) {
+                return State.failed("the rollout exceeded its progress deadline" + message(condition));
+            }
+        }
+        final String kind = resource.path("kind").asText();
+        if (kind.equals("DaemonSet")) {
+            final long desired = status.path("desiredNumberScheduled").asLong();
+            final long updated = status.path("updatedNumberScheduled").asLong();
+            final long available = status.path("numberAvailable").asLong();
+            return updated >= desired && available >= desired ? State.done("is rolled out")
+                    : State.pending(updated + "/" + desired + " updated, " + available + "/" + desired + " available");
+        }
+        final long desired = spec.path("replicas").asLong(1);
+        final long updated = kind.equals("ReplicaSet") ? status.path("replicas").asLong()
+                : status.path("updatedReplicas").asLong();
+        final long available = kind.equals("Deployment") ? status.path("availableReplicas").asLong()
+                : status.path("readyReplicas").asLong();
+        final long total = status.path("replicas").asLong();
+        if (kind.equals("StatefulSet") && status.hasNonNull("updateRevision")
+                && !status.path("updateRevision").equals(status.path("currentRevision"))) {
+            return State.pending(updated + "/" + desired + " updated, " + available + "/" + desired + " ready");
+        }
+        if (updated >= desired && available >= desired && total <= desired) {
+            return State.done("is rolled out");
+        }
+        return State.pending(updated + "/" + desired + " updated, " + available + "/" + desired + " available"
+                + (total > updated ? ", " + (total - updated) + " old replicas pending termination" : ""));
+    }
+
+    private static State job(JsonNode status) {
+        if (isTrue(status, "Complete")) {
+            return State.done("is complete");
+        }
+        if (isTrue(status, "Failed")) {
+            return State.failed("the Job failed" + reason(status));
+        }
+        return State.pending(status.path("active").asLong() + " active, " + status.path("succeeded").asLong()
+                + " succeeded, " + status.path("failed").asLong() + " failed");
+    }
+
+    /**
+     * Any other resource is ready once its Ready or Available condition is true, or as soon as it exists if it has no
+     * conditions.
+     */
+    private static State conditions(JsonNode status) {
+        if (!status.path("conditions").isArray() || status.path("conditions").isEmpty()) {
+            return State.done("exists");
+        }
+        if (isTrue(status, "Ready") || isTrue(status, "Available")) {
+            return State.done("is ready");
+        }
+        return State.pending("not ready" + reason(status));
+    }
+
+    /**
+     * Conditions such as {@code {.status.phase}=Running}, {@code status.replicas!=0} or {@code {.status.loadBalancer.ingress}}
+     * (the value exists and isn't false or empty).
+     */
+    private static Function<JsonNode, State> jsonPath(String condition) {
+        final int operator = operator(condition);
+        final boolean negated = operator > 0 && condition.charAt(operator - 1) == '!';
+        final String path = operator < 0 ? condition : condition.substring(0, negated ? operator - 1 : operator).trim();
+        final boolean doubled = operator >= 0 && operator + 1 < condition.length() && condition.charAt(operator + 1) == '=';
+        final String expected = operator < 0 ? null : unquote(condition.substring(operator + (doubled ? 2 : 1)).trim());
+        final FieldProjection projection = FieldProjection.of(List.of(path));
+        if (projection == null) {
+            throw new ToolCallException("Invalid condition '" + condition + "'", null);
+        }
+        return resource -> {
+            if (resource == null) {
+                return State.pending("doesn't exist yet");
+            }
+            final List<JsonNode> values = projection.values(resource);
+            final String actual = values.isEmpty() ? "<none>"
+                    : String.join(",", values.stream().map(value -> value.isValueNode() ? value.asText() : value.toString())
+                            .toList());
+            final boolean met;
+            if (expected == null) {
+                met = values.stream().anyMatch(WaitFor::isTruthy);
+            } else {
+                met = negated != (!values.isEmpty() && values.stream().allMatch(value -> value.asText().equals(expected)));
+            }
+            return met ? State.done("met " + condition) : State.pending(path + " is " + actual);
+        };
+    }
+
+    private static boolean isTruthy(JsonNode value) {
+        if (value.isNull() || value.isBoolean()) {
+            return value.asBoolean();
+        }
+        return value.isContainerNode() ? !value.isEmpty() : !value.asText().isEmpty();
+    }
+
+    /**
+     * @return the index of the = comparing the path to the expected value, ignoring those of filters such as
+     *         {@code [?(@.type=="Ready")]}, or -1 if there is none
+     */
+    private static int operator(String condition) {
+        int depth = 0;
+        for (int i = 0; i < condition.length(); i++) {
+            final char c = condition.charAt(i);
+            if (c == '[' || c == '{') {
+                depth++;
+            } else if (c == ']' || c == '}') {
+                depth--;
+            } else if (c == '=' && depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.charAt(0) == '\'' || value.charAt(0) == '"')
+                && value.charAt(value.length() - 1) == value.charAt(0)) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static boolean isTrue(JsonNode status, String type) {
+        for (JsonNode condition : status.path("conditions")) {
+            if (type.equals(condition.path("type").asText())) {
+                return "True".equals(condition.path("status").asText());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the reason of the first condition that isn't true, if any
+     */
+    private static String reason(JsonNode status) {
+        if (status.hasNonNull("reason")) {
+            return ", " + status.path("reason").asText() + message(status);
+        }
+        for (JsonNode condition : status.path("conditions")) {
+            if (!"True".equals(condition.path("status").asText()) && condition.hasNonNull("reason")) {
+                return ", " + condition.path("type").asText() + ": " + condition.path("reason").asText() + message(condition);
+            }
+        }
+        return "";
+    }
+
+    private static String message(JsonNode node) {
+        return node.hasNonNull("message") ? " (" + node.path("message").asText() + ")" : "";
+    }
+
+    private static void notify(McpLog log, String progress) {
+        try {
+            log.info("%s", progress);
+        } catch (RuntimeException e) {
+            Log.debug("Failed to send progress: " + e.getMessage());
+        }
+    }
+}
@@ -55,13 +55,25 @@ public class MCPServerKubernetesIT {
     @ParameterizedTest(name = "{index}: mcp-server-kubernetes provides the {0} tool")
     @ValueSource(strings = {
             "configuration_get",
+            "api_resources",
+            "cleanup_sandbox",
+            "cluster_summary",
+            "contexts_list",
+            "events",
             "namespaces_list",
             "pods_list",
             "pods_list_in_namespace",
             "pods_get",
             "pods_log",
+            "pods_log_by_label",
+            "pods_exec",
+            "port_forward",
+            "port_forward_stop",
             "pods_delete",
-            "pods_run"
+            "pods_run",
+            "top_nodes",
+            "top_pods",
+            "wait_for"
     })
     public void tools(String toolName) {
         assertThat(client.listTools())
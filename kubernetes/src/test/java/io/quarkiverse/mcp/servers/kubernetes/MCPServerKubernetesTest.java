@@ -1,35 +1,63 @@
 package io.quarkiverse.mcp.servers.kubernetes;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.tuple;
 
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
 import java.net.URL;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import jakarta.inject.Inject;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.mcp.client.DefaultMcpClient;
 import dev.langchain4j.mcp.client.McpClient;
 import dev.langchain4j.mcp.client.transport.http.HttpMcpTransport;
 import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventBuilder;
 import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
 import io.fabric8.kubernetes.api.model.NamespaceBuilder;
 import io.fabric8.kubernetes.api.model.NodeBuilder;
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
+import io.fabric8.kubernetes.api.model.authorization.v1.ResourceRule;
+import io.fabric8.kubernetes.api.model.authorization.v1.ResourceRuleBuilder;
+import io.fabric8.kubernetes.api.model.authorization.v1.SelfSubjectRulesReviewBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+import io.fabric8.mockwebserver.http.MockResponse;
+import io.fabric8.mockwebserver.http.RecordedRequest;
 import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
 
 /**
@@ -41,6 +69,8 @@ class MCPServerKubernetesTest {
 
     @Inject
     KubernetesClient kubernetesClient;
+    @Inject
+    ClusterSummary clusterSummary;
     @TestHTTPResource
     URL url;
     private McpClient mcpClient;
@@ -62,6 +92,13 @@ class MCPServerKubernetesTest {
                 .startsWith("https://localhost:");
     }
 
+    @Test
+    void pods_list_withUnknownContext() {
+        final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_list")
+                .arguments("{\"context\":\"an-unknown-context\"}").build());
+        assertThat(ret).contains("Unknown context an-unknown-context");
+    }
+
     @Nested
     class GenericResourceOperations {
 
@@ -104,6 +141,84 @@ class MCPServerKubernetesTest {
                             tuple("ConfigMap", "other-namespace", "a-configmap-to-list-in-other-namespace"));
         }
 
+        @Test
+        void resources_list_withLabelSelectorAndFields() {
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-labeled-configmap")
+                            .addToLabels("selected", "true").endMetadata().addToData("key", "value").build())
+                    .serverSideApply();
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-not-labeled-configmap").endMetadata().build())
+                    .serverSideApply();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"labelSelector\":\"selected=true\","
+                            + "\"fields\":[\"metadata.name\",\"data\"]}")
+                    .build());
+            assertThat(ret)
+                    .isEqualTo("[{\"metadata\":{\"name\":\"a-labeled-configmap\"},\"data\":{\"key\":\"value\"}}]");
+        }
+
+        @Test
+        void resources_list_withLimitReturnsContinueToken() {
+            for (int it = 1; it <= 3; it++) {
+                kubernetesClient.configMaps()
+                        .resource(new ConfigMapBuilder().withNewMetadata().withName("a-paginated-configmap-" + it)
+                                .addToLabels("paginated", "true").endMetadata().build())
+                        .serverSideApply();
+            }
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"labelSelector\":\"paginated=true\","
+                            + "\"limit\":2,\"fields\":[\"metadata.name\"]}")
+                    .build());
+            assertThat(ret)
+                    .contains("a-paginated-configmap-1", "a-paginated-configmap-2", "\"continue\":")
+                    .doesNotContain("a-paginated-configmap-3");
+        }
+
+        @Test
+        void resources_list_page_returnsAllPagesWithContinueTokens() {
+            for (int it = 1; it <= 3; it++) {
+                kubernetesClient.configMaps()
+                        .resource(new ConfigMapBuilder().withNewMetadata().withName("a-paged-configmap-" + it)
+                                .addToLabels("paged", "true").endMetadata().build())
+                        .serverSideApply();
+            }
+            final var first = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list_page")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"labelSelector\":\"paged=true\","
+                            + "\"pageSize\":2,\"fields\":[\"metadata.name\"]}")
+                    .build());
+            assertThat(first)
+                    .contains("a-paged-configmap-1", "a-paged-configmap-2")
+                    .doesNotContain("a-paged-configmap-3");
+            final var continueToken = first.replaceAll("(?s).*\"continue\":\"([^\"]+)\".*", "$1");
+            final var second = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list_page")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"labelSelector\":\"paged=true\","
+                            + "\"pageSize\":2,\"fields\":[\"metadata.name\"],\"continue\":\"" + continueToken + "\"}")
+                    .build());
+            assertThat(second)
+                    .contains("a-paged-configmap-3", "\"continue\":\"\"")
+                    .doesNotContain("a-paged-configmap-1");
+        }
+
+        @Test
+        void resources_list_resolvesShortNameWithoutApiVersion() {
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-short-named-configmap")
+                            .addToLabels("short-named", "true").endMetadata().build())
+                    .serverSideApply();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list")
+                    .arguments("{\"kind\":\"cm\",\"labelSelector\":\"short-named=true\",\"fields\":[\"metadata.name\"]}")
+                    .build());
+            assertThat(ret).isEqualTo("[{\"metadata\":{\"name\":\"a-short-named-configmap\"}}]");
+        }
+
+        @Test
+        void resources_list_withWrongApiVersionSuggestsTheRightOne() {
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"Deployment\"}").build());
+            assertThat(ret).contains("Deployment is not served by apiVersion v1", "apps/v1 Deployment");
+        }
+
         @Test
         void resources_get_clusterScopedWithIgnoredNamespace() {
             kubernetesClient.nodes()
@@ -129,6 +244,28 @@ class MCPServerKubernetesTest {
                     .hasFieldOrPropertyWithValue("metadata.name", "a-configmap-to-get");
         }
 
+        @Test
+        void resources_get_diffReturnsOnlyTheChanges() {
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-configmap-to-diff").endMetadata()
+                            .addToData("state", "pending").build())
+                    .serverSideApply();
+            final var request = ToolExecutionRequest.builder().name("resources_get")
+                    .arguments("{\"kind\":\"ConfigMap\",\"namespace\":\"default\",\"name\":\"a-configmap-to-diff\",\"diff\":true}")
+                    .build();
+            assertThat(unmarshal(mcpClient.executeTool(request)).getAdditionalProperties())
+                    .containsEntry("data", Map.of("state", "pending"));
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-configmap-to-diff").endMetadata()
+                            .addToData("state", "done").build())
+                    .serverSideApply();
+            assertThat(mcpClient.executeTool(request))
+                    .startsWith("changed from resourceVersion ")
+                    .contains("{\"op\":\"replace\",\"path\":\"/data/state\",\"value\":\"done\"}");
+            assertThat(mcpClient.executeTool(request))
+                    .startsWith("unchanged (resourceVersion ");
+        }
+
         @Test
         void resources_create_or_update_clusterScopedWithIgnoredNamespace() {
             final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_create_or_update")
@@ -157,6 +294,59 @@ class MCPServerKubernetesTest {
                     .hasFieldOrPropertyWithValue("metadata.name", "a-configmap-to-create");
         }
 
+        @Test
+        void resources_create_or_update_multipleDocumentsInDependencyOrder() {
+            final var yaml = "apiVersion: v1\\nkind: ConfigMap\\nmetadata:\\n  name: a-batch-configmap\\n  namespace: a-batch-namespace\\n"
+                    + "---\\napiVersion: v1\\nkind: Namespace\\nmetadata:\\n  name: a-batch-namespace\\n";
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_create_or_update")
+                    .arguments("{\"resource\":\"" + yaml + "\"}")
+                    .build());
+            assertThat(ret)
+                    .startsWith("Applied 2 of 2 resources:")
+                    .contains("Namespace a-batch-namespace: applied", "ConfigMap a-batch-namespace/a-batch-configmap: applied");
+            assertThat(kubernetesClient.configMaps().inNamespace("a-batch-namespace").withName("a-batch-configmap").get())
+                    .hasFieldOrPropertyWithValue("metadata.name", "a-batch-configmap");
+        }
+
+        @Test
+        void resources_create_or_update_conflictsFailUnlessForced() {
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-configmap-in-conflict").endMetadata()
+                            .addToData("owner", "another-manager").build())
+                    .fieldManager("another-manager")
+                    .serverSideApply();
+            final var yaml = "apiVersion: v1\\nkind: ConfigMap\\nmetadata:\\n  name: a-configmap-in-conflict\\n  namespace: default\\n"
+                    + "data:\\n  owner: mcp\\n"
+                    + "---\\napiVersion: v1\\nkind: ConfigMap\\nmetadata:\\n  name: a-configmap-without-conflict\\n  namespace: default\\n";
+            assertThat(mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_create_or_update")
+                    .arguments("{\"resource\":\"" + yaml + "\"}")
+                    .build()))
+                    .startsWith("Applied 1 of 2 resources, 1 failed:")
+                    .contains("ConfigMap default/a-configmap-in-conflict: failed: ", "conflict");
+            assertThat(kubernetesClient.configMaps().inNamespace("default").withName("a-configmap-in-conflict").get().getData())
+                    .containsEntry("owner", "another-manager");
+            assertThat(mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_create_or_update")
+                    .arguments("{\"resource\":\"" + yaml + "\",\"forceConflicts\":true}")
+                    .build()))
+                    .startsWith("Applied 2 of 2 resources:");
+            assertThat(kubernetesClient.configMaps().inNamespace("default").withName("a-configmap-in-conflict").get().getData())
+                    .containsEntry("owner", "mcp");
+        }
+
+        @Test
+        void wait_for_jsonPathCondition() {
+            kubernetesClient.configMaps()
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-configmap-to-wait-for").endMetadata()
+                            .addToData("state", "done").build())
+                    .serverSideApply();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("wait_for")
+                    .arguments("{\"kind\":\"ConfigMap\",\"namespace\":\"default\",\"name\":\"a-configmap-to-wait-for\","
+                            + "\"condition\":\"{.data.state}=done\",\"timeoutSeconds\":5}")
+                    .build());
+            assertThat(ret)
+                    .startsWith("ConfigMap default/a-configmap-to-wait-for met {.data.state}=done after ");
+        }
+
         @Test
         void resources_delete_clusterScopedWithIgnoredNamespace() {
             kubernetesClient.nodes()
@@ -184,6 +374,171 @@ class MCPServerKubernetesTest {
         }
     }
 
+    /**
+     * Lists ConfigMaps from a mock API server on which listing them across all namespaces is forbidden, the rules of the
+     * user in each namespace are returned by SelfSubjectRulesReviews.
+     */
+    @Nested
+    class ForbiddenClusterWideList {
+
+        private static final long LIST_DELAY_MILLIS = 300;
+
+        private final Queue<String> clusterWideLists = new ConcurrentLinkedQueue<>();
+        private final Queue<String> reviews = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> namespaceLists = new ConcurrentLinkedQueue<>();
+        private final Set<String> allowed = ConcurrentHashMap.newKeySet();
+        private KubernetesMockServer mockServer;
+        private KubernetesClient mockClient;
+
+        @BeforeEach
+        void installMockServer() {
+            mockServer = new KubernetesMockServer(new Context(new ObjectMapper()),
+                    new MockWebServer(), new HashMap<>(), new RulesDispatcher(), true);
+            mockServer.init();
+            mockClient = mockServer.createClient();
+            final var contexts = new KubernetesContexts() {
+                @Override
+                KubernetesClient client(String context) {
+                    return mockClient;
+                }
+
+                @Override
+                boolean isCurrent(String context) {
+                    return true;
+                }
+            };
+            final var namespaceAccess = new NamespaceAccess();
+            namespaceAccess.kubernetesClient = mockClient;
+            namespaceAccess.configuredNamespaces = Optional.empty();
+            namespaceAccess.ttl = Duration.ofMinutes(5);
+            QuarkusMock.installMockForType(contexts, KubernetesContexts.class);
+            QuarkusMock.installMockForType(namespaceAccess, NamespaceAccess.class);
+        }
+
+        @AfterEach
+        void destroyMockServer() {
+            mockClient.close();
+            mockServer.destroy();
+        }
+
+        @Test
+        void resources_list_forbiddenAllNamespacesListsTheAllowedNamespaces() {
+            for (String namespace : List.of("ns-a", "ns-b", "ns-c")) {
+                namespaceWithConfigMap(namespace);
+            }
+            allowed.addAll(List.of("ns-a", "ns-b"));
+            final var request = ToolExecutionRequest.builder().name("resources_list")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"fields\":[\"metadata.name\"]}")
+                    .build();
+            final var first = mcpClient.executeTool(request);
+            assertThat(first)
+                    .contains("{\"metadata\":{\"name\":\"a-configmap-in-ns-a\"}}",
+                            "{\"metadata\":{\"name\":\"a-configmap-in-ns-b\"}}",
+                            "\"namespaces\":[\"ns-a\",\"ns-b\"]")
+                    .doesNotContain("a-configmap-in-ns-c");
+            assertThat(clusterWideLists).hasSize(1);
+            assertThat(reviews).containsExactlyInAnyOrder("ns-a", "ns-b", "ns-c");
+            // the forbidden list and the rules of each namespace are cached
+            final var second = mcpClient.executeTool(request);
+            assertThat(second).contains("a-configmap-in-ns-a", "a-configmap-in-ns-b", "\"namespaces\":[\"ns-a\",\"ns-b\"]");
+            assertThat(clusterWideLists).hasSize(1);
+            assertThat(reviews).hasSize(3);
+        }
+
+        @Test
+        void resources_list_forbiddenAllNamespacesBoundsTheParallelism() {
+            final int namespaces = 3 * MCPServerKubernetes.PARALLELISM - 4;
+            for (int it = 0; it < namespaces; it++) {
+                namespaceWithConfigMap(String.format("ns-%02d", it));
+                allowed.add(String.format("ns-%02d", it));
+            }
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list")
+                    .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"fields\":[\"metadata.name\"]}")
+                    .build());
+            assertThat(Pattern.compile("a-configmap-in-ns-\\d+").matcher(ret).results().count()).isEqualTo(namespaces);
+            // a namespace is only listed once the response of another one arrived, each list is answered after a delay
+            final List<Long> arrivals = namespaceLists.stream().sorted().toList();
+            assertThat(arrivals).hasSize(namespaces);
+            int maxConcurrent = 0;
+            for (int i = 0; i < arrivals.size(); i++) {
+                int concurrent = 0;
+                for (int j = i; j < arrivals.size()
+                        && arrivals.get(j) - arrivals.get(i) < TimeUnit.MILLISECONDS.toNanos(LIST_DELAY_MILLIS); j++) {
+                    concurrent++;
+                }
+                maxConcurrent = Math.max(maxConcurrent, concurrent);
+            }
+            assertThat(maxConcurrent).isGreaterThan(1).isLessThanOrEqualTo(MCPServerKubernetes.PARALLELISM);
+        }
+
+        private void namespaceWithConfigMap(String namespace) {
+            mockClient.namespaces()
+                    .resource(new NamespaceBuilder().withNewMetadata().withName(namespace).endMetadata().build())
+                    .create();
+            mockClient.configMaps().inNamespace(namespace)
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("a-configmap-in-" + namespace)
+                            .endMetadata().build())
+                    .create();
+        }
+
+        /**
+         * Forbids listing ConfigMaps across all namespaces, reviews the rules of the allowed namespaces and delays the
+         * lists of a namespace.
+         */
+        private final class RulesDispatcher extends KubernetesCrudDispatcher {
+
+            private final Pattern reviewedNamespace = Pattern.compile("\"namespace\"\\s*:\\s*\"([^\"]+)\"");
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                final String path = request.getPath();
+                if (path.startsWith("/api/v1/configmaps")) {
+                    clusterWideLists.add(path);
+                    return new MockResponse().setResponseCode(403).setBody("{\"kind\":\"Status\",\"apiVersion\":\"v1\","
+                            + "\"status\":\"Failure\",\"reason\":\"Forbidden\",\"code\":403,"
+                            + "\"message\":\"configmaps is forbidden at the cluster scope\"}");
+                }
+                if (path.startsWith("/apis/authorization.k8s.io/v1/selfsubjectrulesreviews")) {
+                    final var matcher = reviewedNamespace.matcher(request.getBody().readUtf8());
+                    final String namespace = matcher.find() ? matcher.group(1) : "";
+                    reviews.add(namespace);
+                    final var rules = allowed.contains(namespace)
+                            ? List.of(new ResourceRuleBuilder().withVerbs("get", "list").withApiGroups("")
+                                    .withResources("configmaps").build())
+                            : List.<ResourceRule> of();
+                    final var review = new SelfSubjectRulesReviewBuilder()
+                            .withNewSpec().withNamespace(namespace).endSpec()
+                            .withNewStatus().withResourceRules(rules).withIncomplete(false).endStatus()
+                            .build();
+                    return new MockResponse().setResponseCode(201)
+                            .setBody(mockClient.getKubernetesSerialization().asJson(review));
+                }
+                if (request.getMethod().equals("GET") && path.matches("/api/v1/namespaces/[^/]+/configmaps(\\?.*)?")) {
+                    namespaceLists.add(System.nanoTime());
+                    return super.dispatch(request).setBodyDelay(LIST_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                return super.dispatch(request);
+            }
+        }
+    }
+
+    @Test
+    void api_resources_withFilter() {
+        final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("api_resources")
+                .arguments("{\"filter\":\"deploy\"}").build());
+        assertThat(ret)
+                .contains("{\"kind\":\"Deployment\",\"apiVersion\":\"apps/v1\",\"plural\":\"deployments\",\"namespaced\":true,")
+                .doesNotContain("\"kind\":\"ConfigMap\"");
+    }
+
+    @Test
+    void port_forward_stop_unknownSession() {
+        final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("port_forward_stop")
+                .arguments("{\"id\":\"pf-unknown\"}").build());
+        assertThat(ret)
+                .contains("No port forwarding with id pf-unknown, there are none active");
+    }
+
     @Test
     void namespaces_list() {
         kubernetesClient.namespaces()
@@ -195,6 +550,78 @@ class MCPServerKubernetesTest {
                 .contains("a-namespace-to-list");
     }
 
+    @Nested
+    class ResourceUsage {
+
+        @BeforeEach
+        void installMetricsApiStub() {
+            kubernetesClient.load(getClass().getResourceAsStream("/metrics-api-stub.yaml")).serverSideApply();
+            for (String crd : List.of("pods.metrics.k8s.io", "nodes.metrics.k8s.io")) {
+                kubernetesClient.genericKubernetesResources("apiextensions.k8s.io/v1", "CustomResourceDefinition")
+                        .withName(crd)
+                        .waitUntilCondition(r -> r != null && r.get("status", "acceptedNames", "kind") != null,
+                                10, TimeUnit.SECONDS);
+            }
+        }
+
+        @Test
+        void top_pods_sortedAndLimited() {
+            podMetrics("a-busy-pod", "sorted", "2026-01-01T00:00:00Z", "900m", "32Mi");
+            podMetrics("a-hungry-pod", "sorted", "2026-01-01T00:00:00Z", "100m", "512Mi");
+            podMetrics("an-idle-pod", "sorted", "2026-01-01T00:00:00Z", "1m", "8Mi");
+            final var byCpu = mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                    .arguments("{\"namespace\":\"default\",\"labelSelector\":\"metrics-test=sorted\",\"limit\":2}").build());
+            assertThat(byCpu)
+                    .startsWith("Top 2 of 3 Pods by cpu")
+                    .containsPattern("default/a-busy-pod\\s+900m\\s+32Mi")
+                    .contains("default/a-hungry-pod")
+                    .doesNotContain("an-idle-pod");
+            final var byMemory = mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                    .arguments("{\"labelSelector\":\"metrics-test=sorted\",\"sortBy\":\"memory\",\"limit\":1}").build());
+            assertThat(byMemory)
+                    .contains("default/a-hungry-pod")
+                    .doesNotContain("a-busy-pod");
+        }
+
+        @Test
+        void top_pods_showsTrend() {
+            podMetrics("a-growing-pod", "trend", "2026-01-01T00:00:00Z", "100m", "100Mi");
+            mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                    .arguments("{\"labelSelector\":\"metrics-test=trend\"}").build());
+            podMetrics("a-growing-pod", "trend", "2026-01-01T00:00:30Z", "150m", "120Mi");
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                    .arguments("{\"labelSelector\":\"metrics-test=trend\"}").build());
+            assertThat(ret)
+                    .containsPattern("default/a-growing-pod\\s+150m\\s+120Mi\\s+100m,150m\\s+100Mi,120Mi");
+        }
+
+        @Test
+        void top_nodes() {
+            final var nodeMetrics = new GenericKubernetesResource();
+            nodeMetrics.setApiVersion("metrics.k8s.io/v1beta1");
+            nodeMetrics.setKind("NodeMetrics");
+            nodeMetrics.setMetadata(new ObjectMetaBuilder().withName("a-metered-node").build());
+            nodeMetrics.setAdditionalProperty("timestamp", "2026-01-01T00:00:00Z");
+            nodeMetrics.setAdditionalProperty("usage", Map.of("cpu", "2", "memory", "4Gi"));
+            kubernetesClient.resource(nodeMetrics).serverSideApply();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("top_nodes").arguments("{}").build());
+            assertThat(ret)
+                    .containsPattern("a-metered-node\\s+2000m\\s+-\\s+4096Mi");
+        }
+
+        private void podMetrics(String name, String test, String timestamp, String cpu, String memory) {
+            final var podMetrics = new GenericKubernetesResource();
+            podMetrics.setApiVersion("metrics.k8s.io/v1beta1");
+            podMetrics.setKind("PodMetrics");
+            podMetrics.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace("default")
+                    .addToLabels("metrics-test", test).build());
+            podMetrics.setAdditionalProperty("timestamp", timestamp);
+            podMetrics.setAdditionalProperty("containers",
+                    List.of(Map.of("name", "main", "usage", Map.of("cpu", cpu, "memory", memory))));
+            kubernetesClient.resource(podMetrics).forceConflicts().serverSideApply();
+        }
+    }
+
     @Nested
     class PodOperations {
 
@@ -230,6 +657,20 @@ class MCPServerKubernetesTest {
                     .contains("a-pod-to-list-in-namespace");
         }
 
+        @Test
+        void pods_list_in_namespace_withFieldSelector() {
+            kubernetesClient.run()
+                    .withName("a-pod-to-select")
+                    .withImage("busybox")
+                    .done();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_list_in_namespace")
+                    .arguments("{\"namespace\":\"default\",\"fieldSelector\":\"metadata.name=a-pod-to-select\","
+                            + "\"fields\":[\"metadata.name\",\"spec.containers[*].image\"]}")
+                    .build());
+            assertThat(ret)
+                    .isEqualTo("[{\"metadata\":{\"name\":\"a-pod-to-select\"},\"spec\":{\"containers\":[{\"image\":\"busybox\"}]}}]");
+        }
+
         @Test
         void pods_get() {
             kubernetesClient.run()
@@ -255,6 +696,51 @@ class MCPServerKubernetesTest {
                     .isEqualTo("Pod deleted successfully");
         }
 
+        @Test
+        void pods_exec_withoutCommand() {
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_exec")
+                    .arguments("{\"namespace\":\"default\",\"name\":\"a-pod-to-exec-in\",\"command\":[]}").build());
+            assertThat(ret)
+                    .contains("command is required");
+        }
+
+        @Test
+        void pods_exec_inMissingPod() {
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_exec")
+                    .arguments("{\"namespace\":\"default\",\"name\":\"a-missing-pod-to-exec-in\",\"command\":[\"ls\"]}")
+                    .build());
+            assertThat(ret)
+                    .contains("Failed to execute the command in the pod");
+        }
+
+        @Test
+        void port_forward_startAndStop() throws Exception {
+            kubernetesClient.run()
+                    .withName("a-pod-to-forward-to")
+                    .withImage("busybox")
+                    .done();
+            final var started = mcpClient.executeTool(ToolExecutionRequest.builder().name("port_forward")
+                    .arguments("{\"namespace\":\"default\",\"name\":\"a-pod-to-forward-to\",\"port\":8080,"
+                            + "\"durationSeconds\":60}")
+                    .build());
+            final var session = Pattern.compile("Forwarding (pf-\\d+): localhost:(\\d+) -> pod default/a-pod-to-forward-to:8080 until ")
+                    .matcher(started);
+            assertThat(session.lookingAt()).as(started).isTrue();
+            final var id = session.group(1);
+            final var localPort = Integer.parseInt(session.group(2));
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), localPort)) {
+                assertThat(socket.isConnected()).isTrue();
+            }
+            assertThat(mcpClient.executeTool(ToolExecutionRequest.builder().name("port_forward_stop")
+                    .arguments("{\"id\":\"" + id + "\"}").build()))
+                    .isEqualTo("Stopped " + id + " (localhost:" + localPort + " -> pod default/a-pod-to-forward-to:8080)");
+            assertThatThrownBy(() -> new Socket(InetAddress.getLoopbackAddress(), localPort).close())
+                    .isInstanceOf(ConnectException.class);
+            assertThat(mcpClient.executeTool(ToolExecutionRequest.builder().name("port_forward_stop")
+                    .arguments("{\"id\":\"" + id + "\"}").build()))
+                    .contains("No port forwarding with id " + id);
+        }
+
         @Test
         void pods_log() {
             kubernetesClient.run()
@@ -267,6 +753,144 @@ class MCPServerKubernetesTest {
                     .isBlank();
         }
 
+        @Test
+        void pods_log_by_label_listsEachMatchingPod() {
+            for (int it = 1; it <= 2; it++) {
+                kubernetesClient.run()
+                        .withName("a-labeled-pod-to-log-" + it)
+                        .withImage("busybox")
+                        .withNewRunConfig().addToLabels("logs", "grouped").done();
+            }
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_log_by_label")
+                    .arguments("{\"namespace\":\"default\",\"labelSelector\":\"logs=grouped\"}").build());
+            assertThat(ret)
+                    .contains("==> a-labeled-pod-to-log-1 <==", "==> a-labeled-pod-to-log-2 <==");
+        }
+
+        @Test
+        void pods_log_by_label_withoutMatchingPods() {
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_log_by_label")
+                    .arguments("{\"namespace\":\"default\",\"labelSelector\":\"logs=none\"}").build());
+            assertThat(ret)
+                    .isEqualTo("No Pods match the label selector logs=none");
+        }
+
+        @Test
+        void wait_for_podReadyTimesOut() {
+            kubernetesClient.run()
+                    .withName("a-pod-to-wait-for")
+                    .withImage("busybox")
+                    .done();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("wait_for")
+                    .arguments("{\"kind\":\"Pod\",\"namespace\":\"default\",\"name\":\"a-pod-to-wait-for\","
+                            + "\"timeoutSeconds\":1}")
+                    .build());
+            assertThat(ret)
+                    .contains("Timed out after 1s waiting for Pod default/a-pod-to-wait-for (phase Pending");
+        }
+
+        @Test
+        void cluster_summary_countsPendingPods() {
+            kubernetesClient.namespaces()
+                    .resource(new NamespaceBuilder().withNewMetadata().withName("a-summarized-namespace").endMetadata().build())
+                    .serverSideApply();
+            kubernetesClient
+                    .resource(new ServiceAccountBuilder().withNewMetadata().withName("default")
+                            .withNamespace("a-summarized-namespace").endMetadata().build())
+                    .createOr(NonDeletingOperation::update);
+            kubernetesClient.run()
+                    .inNamespace("a-summarized-namespace")
+                    .withName("a-pod-to-summarize")
+                    .withImage("busybox")
+                    .done();
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("cluster_summary")
+                    .arguments("{\"namespace\":\"a-summarized-namespace\"}").build());
+            assertThat(ret)
+                    .contains("Pods by namespace (1 Pods)")
+                    .containsPattern("a-summarized-namespace\\s+1\\s+0\\s+1\\s+0\\s+0\\s+0")
+                    .contains("a-summarized-namespace/a-pod-to-summarize", "Restart leaders: none");
+        }
+
+        @Test
+        void cluster_summary_forgetsDeletedPodsOfTheNamespace() {
+            kubernetesClient.namespaces()
+                    .resource(new NamespaceBuilder().withNewMetadata().withName("a-pruned-namespace").endMetadata().build())
+                    .serverSideApply();
+            kubernetesClient
+                    .resource(new ServiceAccountBuilder().withNewMetadata().withName("default")
+                            .withNamespace("a-pruned-namespace").endMetadata().build())
+                    .createOr(NonDeletingOperation::update);
+            for (String name : List.of("a-pod-to-keep", "a-pod-to-forget")) {
+                kubernetesClient.run().inNamespace("a-pruned-namespace").withName(name).withImage("busybox").done();
+            }
+            clusterSummary.summary("a-pruned-namespace", 10);
+            assertThat(clusterSummary.memoizedRows("a-pruned-namespace")).isEqualTo(2);
+            kubernetesClient.pods().inNamespace("a-pruned-namespace").withName("a-pod-to-forget")
+                    .withGracePeriod(0).delete();
+            kubernetesClient.pods().inNamespace("a-pruned-namespace").withName("a-pod-to-forget")
+                    .waitUntilCondition(Objects::isNull, 10, TimeUnit.SECONDS);
+            final var ret = clusterSummary.summary("a-pruned-namespace", 10);
+            assertThat(ret).contains("a-pod-to-keep").doesNotContain("a-pod-to-forget");
+            assertThat(clusterSummary.memoizedRows("a-pruned-namespace")).isEqualTo(1);
+        }
+
+        @Test
+        void events_mergesRepeatedEventsOfAnObjectAndItsOwners() {
+            kubernetesClient.namespaces()
+                    .resource(new NamespaceBuilder().withNewMetadata().withName("an-events-namespace").endMetadata().build())
+                    .serverSideApply();
+            final var owner = kubernetesClient.configMaps().inNamespace("an-events-namespace")
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("an-owner-configmap").endMetadata().build())
+                    .serverSideApply();
+            kubernetesClient.configMaps().inNamespace("an-events-namespace")
+                    .resource(new ConfigMapBuilder().withNewMetadata().withName("an-owned-configmap")
+                            .addNewOwnerReference().withApiVersion("v1").withKind("ConfigMap").withName("an-owner-configmap")
+                            .withUid(owner.getMetadata().getUid()).endOwnerReference()
+                            .endMetadata().build())
+                    .serverSideApply();
+            for (var event : List.of(
+                    event("an-owned-configmap", "Updated", 2, "first", 60),
+                    event("an-owned-configmap", "Updated", 3, "last", 30),
+                    event("an-owner-configmap", "Owned", 1, "owner", 90),
+                    event("an-unrelated-configmap", "Updated", 1, "unrelated", 0))) {
+                kubernetesClient.v1().events().inNamespace("an-events-namespace").resource(event).create();
+            }
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("events")
+                    .arguments("{\"namespace\":\"an-events-namespace\",\"kind\":\"ConfigMap\",\"name\":\"an-owned-configmap\"}")
+                    .build());
+            assertThat(ret)
+                    .startsWith("2 of 2 events, newest first in namespace an-events-namespace")
+                    .containsPattern("Updated\\s+ConfigMap/an-owned-configmap\\s+5\\s+last")
+                    .contains("ConfigMap/an-owner-configmap")
+                    .doesNotContain("unrelated");
+        }
+
+        @Test
+        void cleanup_sandbox_deletesPodsAndServicesStartedByPodsRun() {
+            kubernetesClient.namespaces()
+                    .resource(new NamespaceBuilder().withNewMetadata().withName("a-sandbox-namespace").endMetadata().build())
+                    .serverSideApply();
+            kubernetesClient
+                    .resource(new ServiceAccountBuilder().withNewMetadata().withName("default")
+                            .withNamespace("a-sandbox-namespace").endMetadata().build())
+                    .createOr(NonDeletingOperation::update);
+            mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_run")
+                    .arguments("{\"namespace\":\"a-sandbox-namespace\",\"name\":\"a-sandbox-pod\",\"image\":\"nginx\",\"port\":80}")
+                    .build());
+            mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_run")
+                    .arguments("{\"namespace\":\"a-sandbox-namespace\",\"name\":\"another-sandbox-pod\",\"image\":\"busybox\"}")
+                    .build());
+            final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("cleanup_sandbox")
+                    .arguments("{\"namespace\":\"a-sandbox-namespace\"}").build());
+            assertThat(ret)
+                    .startsWith("Deleted 3 of 3 resources:")
+                    .contains("Pod a-sandbox-namespace/a-sandbox-pod: deleted",
+                            "Pod a-sandbox-namespace/another-sandbox-pod: deleted",
+                            "Service a-sandbox-namespace/a-sandbox-pod: deleted");
+            assertThat(kubernetesClient.services().inNamespace("a-sandbox-namespace").withName("a-sandbox-pod").get())
+                    .isNull();
+        }
+
         @Test
         void pods_run_startsPod() {
             mcpClient.executeTool(ToolExecutionRequest.builder().name("pods_run")
@@ -306,6 +930,16 @@ class MCPServerKubernetesTest {
         return kubernetesClient.getKubernetesSerialization().unmarshal(json, List.class);
     }
 
+    private static Event event(String configMap, String reason, int count, String message, long secondsAgo) {
+        return new EventBuilder()
+                .withNewMetadata().withGenerateName(configMap + "-").endMetadata()
+                .withNewInvolvedObject().withApiVersion("v1").withKind("ConfigMap").withName(configMap)
+                .withNamespace("an-events-namespace").endInvolvedObject()
+                .withType("Normal").withReason(reason).withMessage(message).withCount(count)
+                .withLastTimestamp(Instant.now().minusSeconds(secondsAgo).toString())
+                .build();
+    }
+
     private GenericKubernetesResource unmarshal(String json) {
         return kubernetesClient.getKubernetesSerialization().unmarshal(json, GenericKubernetesResource.class);
     }
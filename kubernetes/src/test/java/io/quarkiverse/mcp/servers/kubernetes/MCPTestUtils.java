@@ -7,17 +7,27 @@ import java.util.Objects;
 
 import dev.langchain4j.mcp.client.DefaultMcpClient;
 import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.logging.DefaultMcpLogMessageHandler;
+import dev.langchain4j.mcp.client.logging.McpLogMessageHandler;
 import dev.langchain4j.mcp.client.transport.stdio.StdioMcpTransport;
 
 public class MCPTestUtils {
     private MCPTestUtils() {
     }
 
-    public static McpClient initMcpStdioClient(String masterUrl) {
-        final var kubeConfigArgs = List.of(
+    public static McpClient initMcpStdioClient(String masterUrl, String... systemProperties) {
+        return initMcpStdioClient(masterUrl, new DefaultMcpLogMessageHandler(), systemProperties);
+    }
+
+    public static McpClient initMcpStdioClient(String masterUrl, McpLogMessageHandler logHandler,
+            String... systemProperties) {
+        final List<String> kubeConfigArgs = new ArrayList<>(List.of(
                 "-Dquarkus.kubernetes-client.api-server-url=" + masterUrl,
                 "-Dquarkus.kubernetes-client.trust-certs=true",
-                "-Dquarkus.kubernetes-client.namespace=test");
+                "-Dquarkus.kubernetes-client.namespace=test"));
+        for (String systemProperty : systemProperties) {
+            kubeConfigArgs.add("-D" + systemProperty);
+        }
         final List<String> command = new ArrayList<>();
         if (Objects.equals(System.getProperty("quarkus.native.enabled"), "true")) {
             command.add(System.getProperty("native.image.path"));
@@ -31,6 +41,7 @@ public class MCPTestUtils {
         return new DefaultMcpClient.Builder()
                 .clientName("test-mcp-client-kubernetes")
                 .toolExecutionTimeout(Duration.ofSeconds(10))
+                .logHandler(logHandler)
                 .transport(new StdioMcpTransport.Builder().command(command).logEvents(true).build())
                 .build();
     }
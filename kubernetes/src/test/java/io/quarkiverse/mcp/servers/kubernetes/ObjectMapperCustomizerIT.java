@@ -74,7 +74,7 @@ public class ObjectMapperCustomizerIT {
     @Test
     void serializedResourcesDontContainManagedFields() {
         mockServer.expect().get()
-                .withPath("/api/v1/namespaces")
+                .withPath("/api/v1/namespaces?limit=" + ChunkedList.CHUNK_SIZE)
                 .andReturn(200, new NamespaceListBuilder()
                         .addNewItem().withMetadata(new ObjectMetaBuilder()
                                 .withName("a-namespace-to-list")
@@ -0,0 +1,87 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static io.quarkiverse.mcp.servers.kubernetes.MCPTestUtils.initMcpStdioClient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.mcp.client.McpClient;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMixedDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.kubernetes.client.server.mock.OutputStreamMessage;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+import io.fabric8.mockwebserver.ServerRequest;
+import io.fabric8.mockwebserver.ServerResponse;
+
+/**
+ * Runs pods_exec against a mock API server whose exec websocket never reports the exit of the command.
+ */
+public class PodExecIT {
+
+    private static final String OUTPUT = IntStream.rangeClosed(1, 1000).mapToObj(Integer::toString)
+            .collect(Collectors.joining("\n", "", "\n"));
+
+    private static KubernetesMockServer mockServer;
+    private static KubernetesClient kubernetesClient;
+    private static McpClient client;
+
+    @BeforeAll
+    static void setUp() {
+        final Map<ServerRequest, Queue<ServerResponse>> responses = new HashMap<>();
+        mockServer = new KubernetesMockServer(new Context(new ObjectMapper()),
+                new MockWebServer(), responses, new KubernetesMixedDispatcher(responses), true);
+        mockServer.init();
+        kubernetesClient = mockServer.createClient();
+        kubernetesClient.pods().resource(new PodBuilder()
+                .withNewMetadata().withName("a-pod-to-exec-in").withNamespace("test").endMetadata()
+                .withNewSpec().addNewContainer().withName("main").withImage("busybox").endContainer().endSpec()
+                .build()).create();
+        mockServer.expect()
+                .withPath("/api/v1/namespaces/test/pods/a-pod-to-exec-in/exec?command=sleep&command=60&stdout=true&stderr=true")
+                .andUpgradeToWebSocket().open().done().always();
+        mockServer.expect()
+                .withPath("/api/v1/namespaces/test/pods/a-pod-to-exec-in/exec?command=seq&command=1000&stdout=true&stderr=true")
+                .andUpgradeToWebSocket().open(new OutputStreamMessage(OUTPUT)).done().always();
+        client = initMcpStdioClient(kubernetesClient.getConfiguration().getMasterUrl());
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        client.close();
+        kubernetesClient.close();
+        mockServer.destroy();
+    }
+
+    @Test
+    void pods_exec_abandonedAfterTheTimeout() {
+        final long start = System.nanoTime();
+        final var ret = client.executeTool(ToolExecutionRequest.builder().name("pods_exec")
+                .arguments("{\"name\":\"a-pod-to-exec-in\",\"command\":[\"sleep\",\"60\"],\"timeoutSeconds\":1}").build());
+        assertThat(ret).isEqualTo("timed out after 1s, the command was abandoned\n");
+        assertThat(System.nanoTime() - start).isLessThan(5_000_000_000L);
+    }
+
+    @Test
+    void pods_exec_returnsTheEndOfTheOutput() {
+        final var ret = client.executeTool(ToolExecutionRequest.builder().name("pods_exec")
+                .arguments("{\"name\":\"a-pod-to-exec-in\",\"command\":[\"seq\",\"1000\"],\"timeoutSeconds\":1,"
+                        + "\"maxBytes\":16}")
+                .build());
+        assertThat(ret).isEqualTo("timed out after 1s, the command was abandoned\n"
+                + "stdout (last 16 of " + OUTPUT.length() + " bytes):\n" + OUTPUT.substring(OUTPUT.length() - 16));
+    }
+}
@@ -0,0 +1,73 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ring buffer keeping the end of the output of pods_exec.
+ */
+class PodExecTest {
+
+    @Test
+    void tailBuffer_keepsEverythingBelowItsCapacity() {
+        final var buffer = new PodExec.TailBuffer(16);
+        write(buffer, "hello\n");
+        buffer.write('!');
+        assertThat(buffer.content()).isEqualTo("hello\n!");
+        assertThat(appended(buffer)).isEqualTo("stdout:\nhello\n!\n");
+    }
+
+    @Test
+    void tailBuffer_wrapsAroundWithSmallWrites() {
+        final var buffer = new PodExec.TailBuffer(8);
+        for (char c : "0123456789abc".toCharArray()) {
+            buffer.write(c);
+        }
+        assertThat(buffer.content()).isEqualTo("56789abc");
+        write(buffer, "de");
+        assertThat(buffer.content()).isEqualTo("789abcde");
+        assertThat(appended(buffer)).isEqualTo("stdout (last 8 of 15 bytes):\n789abcde\n");
+    }
+
+    @Test
+    void tailBuffer_keepsTheEndOfWritesLargerThanItsCapacity() {
+        final var buffer = new PodExec.TailBuffer(10);
+        write(buffer, "abc");
+        write(buffer, "0123456789ABCDEF");
+        assertThat(buffer.content()).isEqualTo("6789ABCDEF");
+        assertThat(appended(buffer)).startsWith("stdout (last 10 of 19 bytes):\n");
+    }
+
+    @Test
+    void tailBuffer_growsUpToItsCapacity() {
+        final var lines = IntStream.rangeClosed(1, 1000).mapToObj(Integer::toString)
+                .collect(Collectors.joining("\n", "", "\n"));
+        final var buffer = new PodExec.TailBuffer(PodExec.DEFAULT_MAX_BYTES);
+        lines.lines().forEach(line -> write(buffer, line + "\n"));
+        assertThat(buffer.content()).isEqualTo(lines);
+        final var more = lines.repeat(5);
+        write(buffer, more);
+        assertThat(buffer.content()).isEqualTo(more.substring(more.length() - PodExec.DEFAULT_MAX_BYTES));
+    }
+
+    @Test
+    void tailBuffer_emptyIsNotAppended() {
+        assertThat(appended(new PodExec.TailBuffer(8))).isEmpty();
+    }
+
+    private static void write(PodExec.TailBuffer buffer, String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    private static String appended(PodExec.TailBuffer buffer) {
+        final var result = new StringBuilder();
+        buffer.appendTo(result, "stdout");
+        return result.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static io.quarkiverse.mcp.servers.kubernetes.MCPTestUtils.initMcpStdioClient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.logging.McpLogMessage;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+import io.fabric8.mockwebserver.http.MockResponse;
+import io.fabric8.mockwebserver.http.RecordedRequest;
+
+/**
+ * Checks the options sent for pods_log and the lines, notifications and summary of its follow mode against a mock API
+ * server serving a fixed log.
+ */
+public class PodLogsIT {
+
+    private static final int LINES = 200;
+    private static final String LOG = IntStream.rangeClosed(1, LINES)
+            .mapToObj(line -> String.format("log line %03d", line))
+            .collect(Collectors.joining("\n", "", "\n"));
+
+    private static final Queue<String> logRequests = new ConcurrentLinkedQueue<>();
+    private static final Queue<McpLogMessage> notifications = new ConcurrentLinkedQueue<>();
+
+    private static KubernetesMockServer mockServer;
+    private static KubernetesClient kubernetesClient;
+    private static McpClient client;
+
+    @BeforeAll
+    static void setUp() {
+        mockServer = new KubernetesMockServer(new Context(new ObjectMapper()),
+                new MockWebServer(), new HashMap<>(), new LogDispatcher(), true);
+        mockServer.init();
+        kubernetesClient = mockServer.createClient();
+        for (String name : List.of("a-pod-to-log", "a-pod-still-logging")) {
+            final Pod pod = new PodBuilder()
+                    .withNewMetadata().withName(name).withNamespace("test").endMetadata()
+                    .withNewSpec().addNewContainer().withName("main").withImage("busybox").endContainer().endSpec()
+                    .withNewStatus().withPhase("Running")
+                    .addNewCondition().withType("Ready").withStatus("True").endCondition()
+                    .endStatus()
+                    .build();
+            kubernetesClient.pods().resource(pod).create();
+            kubernetesClient.pods().resource(pod).updateStatus();
+        }
+        client = initMcpStdioClient(kubernetesClient.getConfiguration().getMasterUrl(), notifications::add);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        client.close();
+        kubernetesClient.close();
+        mockServer.destroy();
+    }
+
+    @BeforeEach
+    void clear() {
+        logRequests.clear();
+        notifications.clear();
+    }
+
+    @Test
+    void pods_log_sendsTheOptions() {
+        final var ret = client.executeTool(ToolExecutionRequest.builder().name("pods_log")
+                .arguments("{\"name\":\"a-pod-to-log\",\"container\":\"main\",\"tailLines\":10,\"maxBytes\":1024}")
+                .build());
+        assertThat(ret).isEqualTo(LOG);
+        assertThat(logRequests).singleElement().asString()
+                .startsWith("/api/v1/namespaces/test/pods/a-pod-to-log/log?")
+                .contains("container=main", "tailLines=10", "limitBytes=1024")
+                .doesNotContain("follow=true");
+    }
+
+    @Test
+    void pods_log_defaultsToTheLastLines() {
+        client.executeTool(ToolExecutionRequest.builder().name("pods_log")
+                .arguments("{\"name\":\"a-pod-to-log\"}").build());
+        assertThat(logRequests).singleElement().asString()
+                .contains("tailLines=" + PodLogs.DEFAULT_TAIL_LINES, "limitBytes=" + PodLogs.DEFAULT_MAX_BYTES)
+                .doesNotContain("container=");
+    }
+
+    @Test
+    void pods_log_clampsMaxBytes() {
+        client.executeTool(ToolExecutionRequest.builder().name("pods_log")
+                .arguments("{\"name\":\"a-pod-to-log\",\"maxBytes\":" + Integer.MAX_VALUE + "}").build());
+        assertThat(logRequests).singleElement().asString()
+                .contains("limitBytes=" + PodLogs.MAX_BYTES_LIMIT);
+    }
+
+    @Test
+    void pods_log_followStreamsBatchesUntilTheLogEnds() {
+        final var ret = client.executeTool(ToolExecutionRequest.builder().name("pods_log")
+                .arguments("{\"name\":\"a-pod-to-log\",\"follow\":true,\"maxBytes\":65536,\"followSeconds\":5}")
+                .build());
+        assertThat(logRequests).singleElement().asString().contains("follow=true");
+        assertThat(ret)
+                .startsWith("Streamed " + LINES + " lines from 1 Pod, last 50 lines:\nlog line 151\n")
+                .endsWith("log line 200\n")
+                .doesNotContain("log line 150", "stopped after reaching the limit");
+        // every line is sent once, in batches of at most 50 lines
+        final List<String> batches = notifications.stream().map(message -> message.data().asText()).toList();
+        assertThat(batches).hasSizeGreaterThanOrEqualTo(LINES / 50)
+                .allSatisfy(batch -> assertThat(batch.lines()).hasSizeLessThanOrEqualTo(50));
+        assertThat(String.join("", batches)).isEqualTo(LOG);
+    }
+
+    @Test
+    void pods_log_followStopsAtMaxBytes() {
+        final var ret = client.executeTool(ToolExecutionRequest.builder().name("pods_log")
+                .arguments("{\"name\":\"a-pod-to-log\",\"follow\":true,\"maxBytes\":130,\"followSeconds\":5}")
+                .build());
+        // each line is 13 bytes with its newline
+        assertThat(ret)
+                .startsWith("Streamed 10 lines from 1 Pod, stopped after reaching the limit of 130 bytes:\nlog line 001\n")
+                .endsWith("log line 010\n");
+    }
+
+    @Test
+    void pods_log_followStopsAfterFollowSeconds() {
+        final long start = System.nanoTime();
+        final var ret = client.executeTool(ToolExecutionRequest.builder().name("pods_log")
+                .arguments("{\"name\":\"a-pod-still-logging\",\"follow\":true,\"followSeconds\":1}")
+                .build());
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+        assertThat(ret).isEqualTo("Streamed 0 lines from 1 Pod");
+        assertThat(notifications).isEmpty();
+    }
+
+    /**
+     * Serves the Pods and a fixed log, the log of a-pod-still-logging doesn't start before the end of the test.
+     */
+    private static final class LogDispatcher extends KubernetesCrudDispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            final String path = request.getPath();
+            if (!path.contains("/log?")) {
+                return super.dispatch(request);
+            }
+            logRequests.add(path);
+            final MockResponse response = new MockResponse().setResponseCode(200).setBody(LOG);
+            return path.contains("/a-pod-still-logging/") ? response.setBodyDelay(30, TimeUnit.SECONDS) : response;
+        }
+    }
+}
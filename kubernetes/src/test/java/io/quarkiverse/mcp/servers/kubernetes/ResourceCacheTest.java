@@ -0,0 +1,86 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.mcp.client.DefaultMcpClient;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.transport.http.HttpMcpTransport;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Tests the list tools when they're served from the informer backed {@link ResourceCache}.
+ */
+@QuarkusTest
+@TestProfile(ResourceCacheTest.InformersEnabled.class)
+@DisabledOnOs({ OS.WINDOWS, OS.MAC })
+class ResourceCacheTest {
+
+    public static class InformersEnabled implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("kubernetes.informers.enabled", "true");
+        }
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+    @TestHTTPResource
+    URL url;
+    private McpClient mcpClient;
+
+    @BeforeEach
+    void setUpMcpClient() {
+        mcpClient = new DefaultMcpClient.Builder()
+                .clientName("test-mcp-client-kubernetes")
+                .toolExecutionTimeout(Duration.ofSeconds(10))
+                .transport(new HttpMcpTransport.Builder().sseUrl(url.toString() + "mcp/sse").build())
+                .build();
+    }
+
+    @Test
+    void resources_list_servedFromInformerWithFreshness() {
+        kubernetesClient.configMaps()
+                .resource(new ConfigMapBuilder().withNewMetadata().withName("a-cached-configmap").endMetadata().build())
+                .serverSideApply();
+        final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("resources_list")
+                .arguments("{\"apiVersion\":\"v1\",\"kind\":\"ConfigMap\",\"namespace\":\"default\"}").build());
+        assertThat(ret)
+                .contains("\"name\":\"a-cached-configmap\"")
+                .contains("\"source\":\"informer-cache\"")
+                .contains("\"resourceVersion\":");
+    }
+
+    @Test
+    void resources_list_seesChangesAfterInformerStarted() throws Exception {
+        mcpClient.executeTool(ToolExecutionRequest.builder().name("namespaces_list").arguments("{}").build());
+        kubernetesClient.namespaces()
+                .resource(new NamespaceBuilder().withNewMetadata().withName("a-namespace-added-later").endMetadata().build())
+                .serverSideApply();
+        String ret = "";
+        for (int attempt = 0; attempt < 50 && !ret.contains("a-namespace-added-later"); attempt++) {
+            Thread.sleep(100);
+            ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("namespaces_list").arguments("{}").build());
+        }
+        assertThat(ret)
+                .contains("\"name\":\"a-namespace-added-later\"")
+                .contains("\"source\":\"informer-cache\"");
+    }
+}
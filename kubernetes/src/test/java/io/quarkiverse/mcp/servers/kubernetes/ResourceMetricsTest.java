@@ -0,0 +1,110 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.mcp.client.DefaultMcpClient;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.mcp.client.transport.http.HttpMcpTransport;
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Tests the history of the Pod usage kept by {@link ResourceMetrics} between and after top_pods calls.
+ */
+@QuarkusTest
+@TestProfile(ResourceMetricsTest.FastSampling.class)
+@DisabledOnOs({ OS.WINDOWS, OS.MAC })
+class ResourceMetricsTest {
+
+    public static class FastSampling implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("kubernetes.metrics.sample-interval", "1s");
+        }
+    }
+
+    @Inject
+    KubernetesClient kubernetesClient;
+    @TestHTTPResource
+    URL url;
+    private McpClient mcpClient;
+
+    @BeforeEach
+    void setUp() {
+        mcpClient = new DefaultMcpClient.Builder()
+                .clientName("test-mcp-client-kubernetes")
+                .toolExecutionTimeout(Duration.ofSeconds(10))
+                .transport(new HttpMcpTransport.Builder().sseUrl(url.toString() + "mcp/sse").build())
+                .build();
+        kubernetesClient.load(getClass().getResourceAsStream("/metrics-api-stub.yaml")).serverSideApply();
+        for (String crd : List.of("pods.metrics.k8s.io", "nodes.metrics.k8s.io")) {
+            kubernetesClient.genericKubernetesResources("apiextensions.k8s.io/v1", "CustomResourceDefinition")
+                    .withName(crd)
+                    .waitUntilCondition(r -> r != null && r.get("status", "acceptedNames", "kind") != null,
+                            10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void top_pods_sampledInTheBackgroundBetweenCalls() throws Exception {
+        podMetrics("a-sampled-pod", "2026-01-01T00:00:00Z", "100m");
+        mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                .arguments("{\"labelSelector\":\"metrics-test=a-sampled-pod\"}").build());
+        podMetrics("a-sampled-pod", "2026-01-01T00:00:15Z", "150m");
+        // only seen by the background sampling
+        Thread.sleep(3000);
+        podMetrics("a-sampled-pod", "2026-01-01T00:00:30Z", "200m");
+        final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                .arguments("{\"labelSelector\":\"metrics-test=a-sampled-pod\"}").build());
+        assertThat(ret)
+                .containsPattern("default/a-sampled-pod\\s+200m\\s+\\S+\\s+100m,150m,200m\\s");
+    }
+
+    @Test
+    void top_pods_recreatedPodStartsANewHistory() {
+        podMetrics("a-recreated-pod", "2026-01-01T00:00:00Z", "100m");
+        mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                .arguments("{\"labelSelector\":\"metrics-test=a-recreated-pod\"}").build());
+        final var metrics = kubernetesClient.genericKubernetesResources("metrics.k8s.io/v1beta1", "PodMetrics")
+                .inNamespace("default").withName("a-recreated-pod");
+        metrics.delete();
+        metrics.waitUntilCondition(Objects::isNull, 10, TimeUnit.SECONDS);
+        podMetrics("a-recreated-pod", "2026-01-01T00:00:15Z", "150m");
+        final var ret = mcpClient.executeTool(ToolExecutionRequest.builder().name("top_pods")
+                .arguments("{\"labelSelector\":\"metrics-test=a-recreated-pod\"}").build());
+        assertThat(ret)
+                .containsPattern("default/a-recreated-pod\\s+150m\\s+\\S+\\s+-\\s+-");
+    }
+
+    private void podMetrics(String name, String timestamp, String cpu) {
+        final var podMetrics = new GenericKubernetesResource();
+        podMetrics.setApiVersion("metrics.k8s.io/v1beta1");
+        podMetrics.setKind("PodMetrics");
+        podMetrics.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace("default")
+                .addToLabels("metrics-test", name).build());
+        podMetrics.setAdditionalProperty("timestamp", timestamp);
+        podMetrics.setAdditionalProperty("containers",
+                List.of(Map.of("name", "main", "usage", Map.of("cpu", cpu, "memory", "64Mi"))));
+        kubernetesClient.resource(podMetrics).forceConflicts().serverSideApply();
+    }
+}
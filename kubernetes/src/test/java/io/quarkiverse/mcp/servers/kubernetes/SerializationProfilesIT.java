@@ -0,0 +1,190 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static io.quarkiverse.mcp.servers.kubernetes.MCPTestUtils.initMcpStdioClient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.mcp.client.McpClient;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.DeploymentListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMixedDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+import io.fabric8.mockwebserver.ServerRequest;
+import io.fabric8.mockwebserver.ServerResponse;
+
+/**
+ * Measures the size of typical Pod and Deployment lists with each of the serialization profiles.
+ */
+public class SerializationProfilesIT {
+
+    private static final Logger LOG = Logger.getLogger(SerializationProfilesIT.class);
+    private static final int ITEMS = 20;
+
+    private static KubernetesMockServer mockServer;
+    private static KubernetesClient kubernetesClient;
+    private static McpClient full;
+    private static McpClient compact;
+    private static McpClient summary;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        final Map<ServerRequest, Queue<ServerResponse>> responses = new HashMap<>();
+        mockServer = new KubernetesMockServer(new Context(new ObjectMapper()),
+                new MockWebServer(), responses, new KubernetesMixedDispatcher(responses), true);
+        mockServer.init();
+        kubernetesClient = mockServer.createClient();
+        final var pods = new PodListBuilder();
+        final var deployments = new DeploymentListBuilder();
+        for (int it = 0; it < ITEMS; it++) {
+            pods.addToItems(pod("a-pod-" + it));
+            deployments.addToItems(deployment("a-deployment-" + it));
+        }
+        mockServer.expect().get().withPath("/api/v1/namespaces/test/pods?limit=" + ChunkedList.CHUNK_SIZE)
+                .andReturn(200, pods.build()).always();
+        mockServer.expect().get().withPath("/apis/apps/v1/namespaces/test/deployments?limit=" + ChunkedList.CHUNK_SIZE)
+                .andReturn(200, deployments.build()).always();
+        final var masterUrl = kubernetesClient.getConfiguration().getMasterUrl();
+        full = initMcpStdioClient(masterUrl);
+        compact = initMcpStdioClient(masterUrl, "kubernetes.serialization.profile=compact");
+        summary = initMcpStdioClient(masterUrl, "kubernetes.serialization.profile=summary");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        kubernetesClient.close();
+        mockServer.destroy();
+    }
+
+    @Test
+    void podListsShrinkWithEachProfile() {
+        final var request = ToolExecutionRequest.builder().name("pods_list_in_namespace")
+                .arguments("{\"namespace\":\"test\"}").build();
+        final var fullList = full.executeTool(request);
+        final var compactList = compact.executeTool(request);
+        final var summaryList = summary.executeTool(request);
+        report("Pod", fullList, compactList, summaryList);
+        assertThat(fullList).contains("last-applied-configuration", "lastTransitionTime", "DATABASE_URL");
+        assertThat(compactList)
+                .contains("a-pod-0", "DATABASE_URL", "Ready")
+                .doesNotContain("last-applied-configuration", "lastTransitionTime", "terminationMessagePath");
+        assertThat(summaryList)
+                .contains("a-pod-0", "busybox", "Running")
+                .doesNotContain("DATABASE_URL", "kube-api-access", "ownerReferences", "readinessProbe");
+        assertThat(compactList.length()).isLessThan(fullList.length() * 3 / 4);
+        assertThat(summaryList.length()).isLessThan(fullList.length() / 2);
+    }
+
+    @Test
+    void deploymentListsShrinkWithEachProfile() {
+        final var request = ToolExecutionRequest.builder().name("resources_list")
+                .arguments("{\"apiVersion\":\"apps/v1\",\"kind\":\"Deployment\",\"namespace\":\"test\"}").build();
+        final var fullList = full.executeTool(request);
+        final var compactList = compact.executeTool(request);
+        final var summaryList = summary.executeTool(request);
+        report("Deployment", fullList, compactList, summaryList);
+        assertThat(compactList)
+                .contains("a-deployment-0", "DATABASE_URL")
+                .doesNotContain("last-applied-configuration", "lastUpdateTime");
+        assertThat(summaryList)
+                .contains("a-deployment-0", "busybox", "Available")
+                .doesNotContain("DATABASE_URL", "RollingUpdate");
+        assertThat(compactList.length()).isLessThan(fullList.length());
+        assertThat(summaryList.length()).isLessThan(fullList.length() / 2);
+    }
+
+    private static void report(String kind, String full, String compact, String summary) {
+        LOG.infof("%s list of %d items: full %d chars, compact %d chars (%d%%), summary %d chars (%d%%)",
+                kind, ITEMS, full.length(), compact.length(), 100 * compact.length() / full.length(),
+                summary.length(), 100 * summary.length() / full.length());
+    }
+
+    private static Pod pod(String name) {
+        return new PodBuilder()
+                .withNewMetadata().withName(name).withNamespace("test").withUid("0d6c6f4e-" + name)
+                .addToLabels("app", "demo")
+                .addToAnnotations("kubectl.kubernetes.io/last-applied-configuration", "{\"apiVersion\":\"v1\",\"kind\":\"Pod\","
+                        + "\"metadata\":{\"name\":\"" + name + "\",\"namespace\":\"test\"},\"spec\":{\"containers\":[{\"name\":\"app\","
+                        + "\"image\":\"busybox\",\"env\":[{\"name\":\"DATABASE_URL\",\"value\":\"jdbc:postgresql://db:5432/app\"}]}]}}")
+                .addNewOwnerReference().withApiVersion("apps/v1").withKind("ReplicaSet").withName("demo-5d4f8")
+                .withUid("5a1b2c3d-4e5f").withController(true).withBlockOwnerDeletion(true).endOwnerReference()
+                .endMetadata()
+                .withNewSpec()
+                .addNewContainer().withName("app").withImage("busybox").withImagePullPolicy("IfNotPresent")
+                .withTerminationMessagePath("/dev/termination-log").withTerminationMessagePolicy("File")
+                .addNewEnv().withName("DATABASE_URL").withValue("jdbc:postgresql://db:5432/app").endEnv()
+                .addNewEnv().withName("JAVA_OPTS").withValue("-Xmx512m -XX:+UseG1GC").endEnv()
+                .addNewVolumeMount().withName("kube-api-access-x7k2p").withMountPath("/var/run/secrets/kubernetes.io/serviceaccount")
+                .withReadOnly(true).endVolumeMount()
+                .withNewReadinessProbe().withNewHttpGet().withPath("/health/ready").withPort(new IntOrString(8080)).endHttpGet()
+                .withPeriodSeconds(10).endReadinessProbe()
+                .endContainer()
+                .addNewVolume().withName("kube-api-access-x7k2p").withNewProjected().withDefaultMode(420)
+                .addNewSource().withNewServiceAccountToken().withExpirationSeconds(3607L).withPath("token")
+                .endServiceAccountToken().endSource()
+                .endProjected().endVolume()
+                .withDnsPolicy("ClusterFirst").withSchedulerName("default-scheduler").withEnableServiceLinks(true)
+                .withPreemptionPolicy("PreemptLowerPriority").withPriority(0).withTerminationGracePeriodSeconds(30L)
+                .addNewToleration().withKey("node.kubernetes.io/not-ready").withOperator("Exists").withEffect("NoExecute")
+                .withTolerationSeconds(300L).endToleration()
+                .endSpec()
+                .withNewStatus().withPhase("Running").withPodIP("10.0.0.1")
+                .addNewCondition().withType("Ready").withStatus("True").withLastTransitionTime("2025-01-01T00:00:00Z")
+                .endCondition()
+                .addNewCondition().withType("PodScheduled").withStatus("True").withLastTransitionTime("2025-01-01T00:00:00Z")
+                .endCondition()
+                .addNewContainerStatus().withName("app").withImage("busybox").withReady(true).withRestartCount(0)
+                .withImageID("docker.io/library/busybox@sha256:9ae97d36d26566ff84e8893c64a6dc4fe8ca6d1144bf5b87b2b85a32def253c7")
+                .withContainerID("containerd://4b3c2a1f0e9d8c7b6a5f4e3d2c1b0a9f8e7d6c5b4a3f2e1d0c9b8a7f6e5d4c3b")
+                .endContainerStatus()
+                .endStatus()
+                .build();
+    }
+
+    private static Deployment deployment(String name) {
+        return new DeploymentBuilder()
+                .withNewMetadata().withName(name).withNamespace("test").withGeneration(3L)
+                .addToAnnotations("deployment.kubernetes.io/revision", "3")
+                .addToAnnotations("kubectl.kubernetes.io/last-applied-configuration", "{\"apiVersion\":\"apps/v1\","
+                        + "\"kind\":\"Deployment\",\"metadata\":{\"name\":\"" + name + "\",\"namespace\":\"test\"},"
+                        + "\"spec\":{\"replicas\":2,\"template\":{\"spec\":{\"containers\":[{\"name\":\"app\",\"image\":\"busybox\"}]}}}}")
+                .endMetadata()
+                .withNewSpec().withReplicas(2).withProgressDeadlineSeconds(600).withRevisionHistoryLimit(10)
+                .withNewSelector().addToMatchLabels("app", "demo").endSelector()
+                .withNewStrategy().withType("RollingUpdate").withNewRollingUpdate().withMaxSurge(new IntOrString("25%"))
+                .withMaxUnavailable(new IntOrString("25%")).endRollingUpdate().endStrategy()
+                .withNewTemplate().withNewMetadata().addToLabels("app", "demo").endMetadata()
+                .withNewSpec()
+                .addNewContainer().withName("app").withImage("busybox").withImagePullPolicy("IfNotPresent")
+                .withTerminationMessagePath("/dev/termination-log").withTerminationMessagePolicy("File")
+                .addNewEnv().withName("DATABASE_URL").withValue("jdbc:postgresql://db:5432/app").endEnv()
+                .endContainer()
+                .withDnsPolicy("ClusterFirst").withSchedulerName("default-scheduler").withTerminationGracePeriodSeconds(30L)
+                .endSpec().endTemplate()
+                .endSpec()
+                .withNewStatus().withReplicas(2).withReadyReplicas(2).withAvailableReplicas(2).withObservedGeneration(3L)
+                .addNewCondition().withType("Available").withStatus("True").withReason("MinimumReplicasAvailable")
+                .withMessage("Deployment has minimum availability.")
+                .withLastUpdateTime("2025-01-01T00:00:00Z").withLastTransitionTime("2025-01-01T00:00:00Z").endCondition()
+                .endStatus()
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package io.quarkiverse.mcp.servers.kubernetes;
+
+import static io.quarkiverse.mcp.servers.kubernetes.MCPTestUtils.initMcpStdioClient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Objects;
+
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.mcp.client.McpClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+
+/**
+ * Measures the time from launching the server (JVM or native, like the other integration tests) to the response to
+ * its first tools/list, and checks that the Kubernetes client isn't built, nor the API server contacted, until a tool
+ * is called.
+ */
+public class StartupIT {
+
+    private static final Logger LOG = Logger.getLogger(StartupIT.class);
+
+    private static KubernetesMockServer mockServer;
+    private static KubernetesClient kubernetesClient;
+
+    @BeforeAll
+    static void setUp() {
+        mockServer = new KubernetesMockServer(new Context(new ObjectMapper()),
+                new MockWebServer(), new HashMap<>(), new KubernetesCrudDispatcher(), true);
+        mockServer.init();
+        kubernetesClient = mockServer.createClient();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        kubernetesClient.close();
+        mockServer.destroy();
+    }
+
+    @Test
+    void toolsListDoesNotWaitForTheKubernetesClient() throws Exception {
+        final long start = System.nanoTime();
+        try (McpClient client = initMcpStdioClient(kubernetesClient.getConfiguration().getMasterUrl())) {
+            assertThat(client.listTools()).extracting(ToolSpecification::name).contains("pods_list");
+            final long toolsList = System.nanoTime();
+            assertThat(mockServer.getRequestCount()).isZero();
+            client.executeTool(ToolExecutionRequest.builder().name("namespaces_list").arguments("{}").build());
+            final long firstCall = System.nanoTime();
+            assertThat(mockServer.getRequestCount()).isPositive();
+            LOG.infof("Startup (%s): first tools/list after %d ms, first tool call after %d ms",
+                    Objects.equals(System.getProperty("quarkus.native.enabled"), "true") ? "native" : "jvm",
+                    (toolsList - start) / 1_000_000, (firstCall - start) / 1_000_000);
+        }
+    }
+
+    @Test
+    void toolsListWithAnUnparseableKubeconfig(@TempDir Path dir) throws Exception {
+        // building the client fails on this file, the server must still start and list its tools
+        final Path kubeconfig = Files.writeString(dir.resolve("kubeconfig"), "clusters: [ not a kubeconfig");
+        try (McpClient client = initMcpStdioClient(kubernetesClient.getConfiguration().getMasterUrl(),
+                "kubeconfig=" + kubeconfig)) {
+            assertThat(client.listTools()).extracting(ToolSpecification::name).contains("pods_list", "namespaces_list");
+        }
+    }
+}